@@ -1,46 +1,73 @@
 package com.nossdev.plugins.bluetoothclassic;
 
 import android.Manifest;
+import android.annotation.SuppressLint;
 import android.bluetooth.BluetoothAdapter;
 import android.bluetooth.BluetoothDevice;
-import android.bluetooth.BluetoothSocket;
+import android.bluetooth.BluetoothServerSocket;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
+import android.view.View;
 import androidx.annotation.RequiresPermission;
 import com.getcapacitor.Bridge;
-import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
 
 public class BluetoothClassic {
 
-    private final Object connectionLock = new Object();
-
     /**
      * The standard reserved UUID for classic bluetooth serial port profile
      */
     private static final UUID SPP_ID = UUID.fromString("00001101-0000-1000-8000-00805F9B34FB");
-    private static final int DEFAULT_SCAN_DURATION = 5_000;
-    private static final int DEFAULT_READ_TIMEOUT = 10_000;
-    private final Set<BluetoothDevice> discoveredDevices = new HashSet<>();
+    static final int DEFAULT_SCAN_DURATION = 5_000;
+    static final int DEFAULT_READ_TIMEOUT = 10_000;
+    static final int DEFAULT_NOTIFY_MIN_CHUNK_SIZE = 1;
+    static final int DEFAULT_NOTIFY_MAX_LATENCY = 20;
     private BluetoothAdapter adapter;
-    private BluetoothSocket socket;
-    private InputStream inputStream;
-    private OutputStream outputStream;
-    private BroadcastReceiver receiver;
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+    private final Map<String, Object> connectLocks = new ConcurrentHashMap<>();
+    private final Map<String, FileSender> transfers = new ConcurrentHashMap<>();
+    private final Map<String, FileReceiver> receivers = new ConcurrentHashMap<>();
+    private volatile Discovery activeScan;
+    private final DeviceCache deviceCache = new DeviceCache();
+    private final OperationStats scanStats = new OperationStats();
+    private final Map<String, ConnectionStats> stats = new ConcurrentHashMap<>();
+    private volatile long statsSince = System.currentTimeMillis();
+    private final RfcommConnector rfcomm = new RfcommConnector(SPP_ID, this::cancelDiscovery);
+    private volatile BiConsumer<String, ConnectionState> connectionStateListener = (address, state) -> {};
+    private volatile BufferLevelListener bufferLevelListener = (address, level, size) -> {};
+    private volatile ServerListener serverListener = new ServerListener() {
+        @Override
+        public void onClientConnected(String address, int clients) {}
+
+        @Override
+        public void onClientDisconnected(String address, int clients) {}
+    };
+    private RfcommServer server;
+    private BroadcastReceiver linkMonitor;
+    private Context linkMonitorContext;
 
     @RequiresPermission(allOf = { Manifest.permission.BLUETOOTH_SCAN, Manifest.permission.BLUETOOTH_CONNECT })
     public CompletableFuture<Collection<BluetoothDevice>> scan(Bridge bridge, Context context) {
@@ -49,8 +76,24 @@ public class BluetoothClassic {
 
     @RequiresPermission(allOf = { Manifest.permission.BLUETOOTH_SCAN, Manifest.permission.BLUETOOTH_CONNECT })
     public CompletableFuture<Collection<BluetoothDevice>> scan(Bridge bridge, Context context, int duration) {
-        Logger.info("Starting Bluetooth scan with duration: " + duration + "ms");
-        CompletableFuture<Collection<BluetoothDevice>> result = new CompletableFuture<>();
+        return scan(bridge, context, duration, new ScanFilter(), device -> {});
+    }
+
+    /**
+     * Discovers nearby devices for up to {@code duration} ms. Each device that matches {@code filter}
+     * is passed to {@code onDeviceFound} once, as soon as it is seen. The scan ends early when the
+     * filter's result limit is reached.
+     */
+    @RequiresPermission(allOf = { Manifest.permission.BLUETOOTH_SCAN, Manifest.permission.BLUETOOTH_CONNECT })
+    public CompletableFuture<Collection<BluetoothDevice>> scan(
+        Bridge bridge,
+        Context context,
+        int duration,
+        ScanFilter filter,
+        Consumer<BluetoothDevice> onDeviceFound
+    ) {
+        Logger.info("Starting Bluetooth scan with duration: {}ms", duration);
+        CompletableFuture<Collection<BluetoothDevice>> result = scanStats.track(new CompletableFuture<>());
         adapter = BluetoothAdapter.getDefaultAdapter();
         if (adapter == null) {
             Logger.error("Bluetooth not supported on this device");
@@ -62,49 +105,34 @@ public class BluetoothClassic {
             result.completeExceptionally((new IOException("Bluetooth is not enabled")));
             return result;
         }
+        Discovery previousScan = activeScan;
+        if (previousScan != null) {
+            previousScan.finish();
+        }
         adapter.cancelDiscovery();
-        discoveredDevices.clear();
-
-        IntentFilter intentFilter = new IntentFilter(BluetoothDevice.ACTION_FOUND);
-        context.registerReceiver(
-            receiver = new BroadcastReceiver() {
-                @Override
-                public void onReceive(Context context, Intent intent) {
-                    String action = intent.getAction();
-                    if (BluetoothDevice.ACTION_FOUND.equals(action)) {
-                        BluetoothDevice device = intent.getParcelableExtra(BluetoothDevice.EXTRA_DEVICE);
-                        if (device != null && device.getAddress() != null) {
-                            Logger.debug("Device found: " + device.getAddress());
-                            discoveredDevices.add(device);
-                        }
-                    }
-                }
-            },
-            intentFilter
-        );
+        deviceCache.seed(adapter);
 
+        Discovery discovery = new Discovery(context, bridge.getActivity().getWindow().getDecorView(), filter, onDeviceFound, result);
+        activeScan = discovery;
+        if (filter.includeCached) {
+            for (CachedDevice entry : deviceCache.getAll()) {
+                if (filter.matches(entry)) {
+                    discovery.offer(entry);
+                }
+            }
+            if (result.isDone()) {
+                return result;
+            }
+        }
+        context.registerReceiver(discovery, new IntentFilter(BluetoothDevice.ACTION_FOUND));
         adapter.startDiscovery();
-        bridge
-            .getActivity()
-            .getWindow()
-            .getDecorView()
-            .postDelayed(
-                () -> {
-                    adapter.cancelDiscovery();
-                    try {
-                        context.unregisterReceiver(receiver);
-                    } catch (IllegalArgumentException ignore) {}
-                    Logger.info("Scan completed. Found " + discoveredDevices.size() + " device(s)");
-                    result.complete(discoveredDevices);
-                },
-                duration
-            );
+        discovery.start(duration);
         return result;
     }
 
     @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
     public void pair(String address) throws IOException {
-        Logger.info("Attempting to pair with device: " + address);
+        Logger.info("Attempting to pair with device: {}", address);
         BluetoothAdapter adapter = BluetoothAdapter.getDefaultAdapter();
         if (adapter == null) {
             Logger.error("Bluetooth adapter not available");
@@ -112,154 +140,701 @@ public class BluetoothClassic {
         }
         BluetoothDevice device = adapter.getRemoteDevice(address);
         if (device == null) {
-            Logger.error("Invalid device address: " + address);
+            Logger.error("Invalid device address: {}", address);
             throw new IOException("Invalid device address: " + address);
         }
         if (!device.createBond()) {
-            Logger.error("Bonding sequence not started for: " + address);
+            Logger.error("Bonding sequence not started for: {}", address);
             throw new IOException("Bonding sequence not started");
         }
-        Logger.debug("Bonding initiated for device: " + address);
+        deviceCache.invalidate(device.getAddress());
+        Logger.debug("Bonding initiated for device: {}", address);
     }
 
+    /**
+     * Bonds every device in {@code addresses}, and connects to it if {@code options} ask for it,
+     * with up to {@link ProvisionOptions#concurrency(int)} devices in flight. A device that fails
+     * does not stop the others. {@code progressListener} is told every stage a device reaches,
+     * with the number of devices done so far. The future completes with one result per address.
+     */
     @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
-    public void connect(Context context, String address) throws IOException {
-        Logger.info("Connecting to device: " + address);
-        synchronized (connectionLock) {
-            try {
-                close(context);
-            } catch (IOException e) {
-                Logger.error("Failed to close existing connection", e);
-                throw new IOException("Unable to close before establishing a new connection.", e);
+    CompletableFuture<List<Provisioner.Result>> pairAll(
+        Context context,
+        List<String> addresses,
+        ProvisionOptions options,
+        ObjIntConsumer<Provisioner.Result> progressListener
+    ) {
+        BluetoothAdapter adapter = BluetoothAdapter.getDefaultAdapter();
+        if (adapter == null) {
+            return failed(new IOException("Bluetooth adapter not available"));
+        }
+        List<String> keys = new ArrayList<>(addresses.size());
+        for (String address : addresses) {
+            String key = normalize(address);
+            if (!keys.contains(key)) {
+                keys.add(key);
             }
-
-            BluetoothDevice target = BluetoothAdapter.getDefaultAdapter().getRemoteDevice(address);
-            socket = target.createRfcommSocketToServiceRecord(SPP_ID);
-            socket.connect();
-            inputStream = socket.getInputStream();
-            outputStream = socket.getOutputStream();
-            Logger.info("Successfully connected to device: " + address);
         }
+        Logger.info("Provisioning {} device(s), {} at a time", keys.size(), options.concurrency);
+        Provisioner provisioner = new Provisioner(this, context, adapter, keys, options, progressListener);
+        CompletableFuture<List<Provisioner.Result>> result = provisioner.start();
+        result.whenComplete((value, error) -> keys.forEach(deviceCache::invalidate));
+        return result;
     }
 
-    public void write(byte[] data) throws IOException {
-        synchronized (connectionLock) {
-            if (outputStream == null) {
-                Logger.error("Write failed: not connected");
-                throw new IOException("Not connected - outputStream is null");
-            }
-            Logger.debug("Writing " + data.length + " bytes");
-            outputStream.write(data);
+    /**
+     * Returns the cached snapshot of {@code device}, so callers can read its properties without
+     * further binder calls.
+     */
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    CachedDevice describe(BluetoothDevice device) {
+        return deviceCache.describe(device);
+    }
+
+    /**
+     * Looks up a bonded or recently discovered device without running discovery. Returns null when
+     * the device is unknown.
+     */
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    CachedDevice getCachedDevice(String address) {
+        seedDeviceCache();
+        return deviceCache.get(normalize(address));
+    }
+
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    List<CachedDevice> getCachedDevices() {
+        seedDeviceCache();
+        return deviceCache.getAll();
+    }
+
+    long getDeviceCacheTtl() {
+        return deviceCache.getTtl();
+    }
+
+    /**
+     * Sets how long in ms a discovered device that is not bonded stays cached after it was last seen.
+     */
+    public void setDeviceCacheTtl(long ttl) {
+        deviceCache.setTtl(ttl);
+    }
+
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    private void seedDeviceCache() {
+        BluetoothAdapter adapter = BluetoothAdapter.getDefaultAdapter();
+        if (adapter != null && adapter.isEnabled()) {
+            deviceCache.seedIfNeeded(adapter);
         }
     }
 
-    public CompletableFuture<byte[]> read() {
-        return read(DEFAULT_READ_TIMEOUT);
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    public ConnectTiming connect(Context context, String address) throws IOException {
+        return connect(context, address, new ConnectionConfig());
     }
 
-    public CompletableFuture<byte[]> read(int timeout) {
-        Logger.debug("Starting read with timeout: " + timeout + "ms");
-        CompletableFuture<byte[]> result = new CompletableFuture<>();
-        Thread readThread = new Thread(() -> {
-            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-            try {
-                if (inputStream == null) {
-                    Logger.error("Read failed: not connected");
-                    result.completeExceptionally(new IOException("Not connected - inputStream is null"));
-                    return;
+    /**
+     * Connects on a thread of its own, so the SDP lookup and socket connect, which can take
+     * seconds, never block the caller.
+     */
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    public CompletableFuture<ConnectTiming> connectAsync(Context context, String address, ConnectionConfig config) {
+        CompletableFuture<ConnectTiming> result = new CompletableFuture<>();
+        Thread thread = new Thread(
+            () -> {
+                try {
+                    result.complete(connect(context, address, config));
+                } catch (IOException | RuntimeException e) {
+                    result.completeExceptionally(e);
                 }
-                while (!result.isDone()) {
-                    int b = inputStream.read(); // blocks until data or error
-                    if (b == -1) break;
+            },
+            "BluetoothClassic-connect-" + normalize(address)
+        );
+        thread.setDaemon(true);
+        thread.start();
+        return result;
+    }
 
-                    buffer.write((byte) b);
-                }
-                if (!result.isDone()) {
-                    Logger.debug("Read completed: " + buffer.size() + " bytes");
-                    result.complete(buffer.toByteArray());
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    public ConnectTiming connect(Context context, String address, ConnectionConfig config) throws IOException {
+        Logger.info("Connecting to device: {}", address);
+        ConnectTiming timing = new ConnectTiming();
+        String key = normalize(address);
+        synchronized (connectLocks.computeIfAbsent(key, k -> new Object())) {
+            Connection previous = connections.remove(key);
+            if (previous != null) {
+                try {
+                    previous.close();
+                } catch (IOException e) {
+                    Logger.error("Failed to close existing connection", e);
+                    throw new IOException("Unable to close before establishing a new connection.", e);
                 }
+            }
+            timing.replace = timing.lap();
+
+            ConnectionStats stats = statsFor(key);
+            long start = System.nanoTime();
+            Link link;
+            try {
+                link = rfcomm.open(key, config, timing);
             } catch (IOException e) {
-                if (!result.isDone()) {
-                    Logger.error("Read error", e);
-                    result.completeExceptionally(e);
-                }
+                stats.connect.record(start, e);
+                throw e;
             }
-        });
-        waitUntil(timeout, readThread, result);
-        return result;
+            stats.connect.record(start, null);
+            Connection connection = new Connection(
+                key,
+                link,
+                config,
+                config.autoReconnect ? () -> rfcomm.open(key, config, new ConnectTiming()) : null,
+                stats
+            );
+            connection.setStateListener(state -> onStateChanged(connection, state));
+            connection.setBufferListener((level, size) -> bufferLevelListener.onBufferLevel(key, level, size));
+            registerLinkMonitor(context);
+            connections.put(key, connection);
+            connection.start();
+            timing.setup = timing.lap();
+            Logger.info("Successfully connected to device: {} in {}ms", address, timing.getTotal());
+            return timing;
+        }
+    }
+
+    /**
+     * Starts a connection that needs no connect step, replacing any connection to the same address.
+     */
+    private void register(Connection connection) throws IOException {
+        String key = connection.getAddress();
+        connection.setBufferListener((level, size) -> bufferLevelListener.onBufferLevel(key, level, size));
+        Connection previous = connections.put(key, connection);
+        if (previous != null) {
+            previous.close();
+        }
+        connection.start();
     }
 
-    public CompletableFuture<byte[]> readUntil(byte[] delimiter) {
-        return readUntil(delimiter, DEFAULT_READ_TIMEOUT);
+    /**
+     * Listens for devices connecting to this one. Every client becomes a regular connection,
+     * addressed by its device address, with the same read, write and framing support as an
+     * outgoing one. Only one server runs at a time.
+     */
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    public synchronized void startServer(Context context, ServerOptions options) throws IOException {
+        if (server != null) {
+            throw new IOException("Server already running");
+        }
+        BluetoothAdapter adapter = BluetoothAdapter.getDefaultAdapter();
+        if (adapter == null || !adapter.isEnabled()) {
+            throw new IOException("Bluetooth is not enabled");
+        }
+        UUID serviceId = options.serviceId != null ? options.serviceId : SPP_ID;
+        BluetoothServerSocket socket = options.secure
+            ? adapter.listenUsingRfcommWithServiceRecord(options.name, serviceId)
+            : adapter.listenUsingInsecureRfcommWithServiceRecord(options.name, serviceId);
+        registerLinkMonitor(context);
+        server = new RfcommServer(socket, options, new ServerHandler(options.connection));
+        server.start();
+        Logger.info("Server listening as {} on {}", options.name, serviceId);
     }
 
-    public CompletableFuture<byte[]> readUntil(byte[] delimiter, int timeout) {
-        Logger.debug("Starting readUntil with delimiter length: " + delimiter.length + ", timeout: " + timeout + "ms");
-        CompletableFuture<byte[]> future = new CompletableFuture<>();
-        Thread readThread = new Thread(() -> {
-            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-            int matchIndex = 0;
+    /**
+     * Stops listening and disconnects every client.
+     */
+    public void stopServer() throws IOException {
+        RfcommServer current;
+        synchronized (this) {
+            current = server;
+            server = null;
+        }
+        if (current == null) return;
+        current.close();
+        IOException failure = null;
+        for (String key : current.getClients()) {
             try {
-                if (inputStream == null) {
-                    Logger.error("ReadUntil failed: not connected");
-                    future.completeExceptionally(new IOException("Not connected - inputStream is null"));
-                    return;
-                }
-                while (!future.isDone()) {
-                    int b = inputStream.read(); // blocks until data or error
-                    if (b == -1) break;
-
-                    byte byteRead = (byte) b;
-                    buffer.write(byteRead);
-
-                    if (byteRead == delimiter[matchIndex]) {
-                        matchIndex++;
-                        if (matchIndex == delimiter.length) {
-                            // ✅ Delimiter matched
-                            if (!future.isDone()) {
-                                Logger.debug("Delimiter matched. Read completed: " + buffer.size() + " bytes");
-                                future.complete(buffer.toByteArray());
-                            }
-                            return;
-                        }
-                    } else {
-                        // Check if current byte could start a new match
-                        matchIndex = (byteRead == delimiter[0]) ? 1 : 0;
-                    }
-                }
-                if (!future.isDone()) {
-                    Logger.debug("ReadUntil completed without delimiter match: " + buffer.size() + " bytes");
-                    future.complete(buffer.toByteArray());
-                }
+                close(key);
             } catch (IOException e) {
-                if (!future.isDone()) {
-                    Logger.error("ReadUntil error", e);
-                    future.completeExceptionally(e);
+                failure = e;
+            }
+        }
+        Logger.info("Server stopped");
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public synchronized boolean isServerRunning() {
+        return server != null;
+    }
+
+    /**
+     * Streams {@code source} to a connection in chunks of {@code chunkSize} bytes, waiting
+     * {@code chunkDelay} ms after each one. Only one file is sent per connection at a time.
+     * {@code progressListener} is told the connection's address and the bytes sent so far, at
+     * most every {@code progressInterval} ms and once more at the end. The source is always closed.
+     */
+    CompletableFuture<FileSender> sendFile(
+        String address,
+        ReadableByteChannel source,
+        int chunkSize,
+        int chunkDelay,
+        int progressInterval,
+        ObjLongConsumer<String> progressListener
+    ) {
+        Connection connection;
+        try {
+            connection = getConnection(address);
+        } catch (IOException e) {
+            closeQuietly(source);
+            return failed(e);
+        }
+        String key = connection.getAddress();
+        FileSender sender = new FileSender(connection, source, chunkSize, chunkDelay, progressInterval, sent ->
+            progressListener.accept(key, sent)
+        );
+        if (transfers.putIfAbsent(key, sender) != null) {
+            closeQuietly(source);
+            return failed(new IOException("A file is already being sent to " + key));
+        }
+        Logger.info("Sending file to {} in chunks of {} bytes", key, chunkSize);
+        CompletableFuture<FileSender> result = sender.start();
+        result.whenComplete((value, error) -> transfers.remove(key, sender));
+        return result;
+    }
+
+    public void cancelSendFile(String address) throws IOException {
+        String key = getConnection(address).getAddress();
+        FileSender sender = transfers.get(key);
+        if (sender == null) {
+            throw new IOException("No file is being sent to " + key);
+        }
+        Logger.info("Cancelling file transfer to {}", key);
+        sender.cancel();
+    }
+
+    /**
+     * Streams inbound data from a connection into {@code sink} until {@code maxBytes} bytes or
+     * {@code delimiter} have been received, nothing arrives for {@code idleTimeout} ms, or
+     * {@code timeout} ms have passed. Zero or {@code null} disables a condition, but at least one
+     * is required. Only one file is received per connection at a time, and reads, transactions and
+     * notifications are rejected until it stops. {@code progressListener} is told the connection's
+     * address and the bytes received so far, at most every {@code progressInterval} ms and once
+     * more at the end. The sink is always closed.
+     */
+    CompletableFuture<FileReceiver> receiveToFile(
+        String address,
+        WritableByteChannel sink,
+        long maxBytes,
+        byte[] delimiter,
+        int idleTimeout,
+        int timeout,
+        int progressInterval,
+        ObjLongConsumer<String> progressListener
+    ) {
+        Connection connection;
+        try {
+            connection = getConnection(address);
+        } catch (IOException e) {
+            closeQuietly(sink);
+            return failed(e);
+        }
+        String key = connection.getAddress();
+        FileReceiver receiver;
+        try {
+            receiver = new FileReceiver(connection, sink, maxBytes, delimiter, idleTimeout, timeout, progressInterval, received ->
+                progressListener.accept(key, received)
+            );
+        } catch (IllegalArgumentException e) {
+            closeQuietly(sink);
+            return failed(e);
+        }
+        if (receivers.putIfAbsent(key, receiver) != null) {
+            closeQuietly(sink);
+            return failed(new IOException("A file is already being received from " + key));
+        }
+        Logger.info("Receiving file from {}", key);
+        CompletableFuture<FileReceiver> result = receiver.start();
+        result.whenComplete((value, error) -> receivers.remove(key, receiver));
+        return result;
+    }
+
+    public void cancelReceiveToFile(String address) throws IOException {
+        String key = getConnection(address).getAddress();
+        FileReceiver receiver = receivers.get(key);
+        if (receiver == null) {
+            throw new IOException("No file is being received from " + key);
+        }
+        Logger.info("Cancelling file transfer from {}", key);
+        receiver.cancel();
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignore) {}
+    }
+
+    /**
+     * Starts recording every chunk sent and received on a connection to {@code file}, which holds
+     * at most {@code maxSize} bytes. See {@link TraceRecorder} for the format.
+     */
+    public void startCapture(String address, File file, int maxSize) throws IOException {
+        Connection connection = getConnection(address);
+        TraceRecorder recorder = new TraceRecorder(file, connection.getAddress(), maxSize);
+        try {
+            connection.startCapture(recorder);
+        } catch (IOException e) {
+            recorder.close();
+            throw e;
+        }
+        Logger.info("Capturing {} to {}", connection.getAddress(), file);
+    }
+
+    /**
+     * Stops the capture running on a connection and returns its closed recorder.
+     */
+    TraceRecorder stopCapture(String address) throws IOException {
+        Connection connection = getConnection(address);
+        TraceRecorder recorder = connection.stopCapture();
+        if (recorder == null) {
+            throw new IOException("No capture running for " + connection.getAddress());
+        }
+        Logger.info("Captured {} chunk(s) from {}", recorder.records(), connection.getAddress());
+        return recorder;
+    }
+
+    /**
+     * Opens a connection that plays back the inbound data of a capture through the regular read,
+     * framing and notification path, replacing any connection to the same address. It uses the
+     * recorded address unless {@code address} is given, and discards everything written to it.
+     *
+     * @param speed 1 for the recorded timing, 0 for as fast as the data is read
+     * @return the address of the replay connection
+     */
+    public String replay(File file, String address, double speed, ConnectionConfig config) throws IOException {
+        TraceReplay replay = new TraceReplay(file, speed);
+        String key = normalize(address == null || address.isEmpty() ? replay.getAddress() : address);
+        OutputStream discard = new OutputStream() {
+            @Override
+            public void write(int b) {}
+
+            @Override
+            public void write(byte[] b, int off, int len) {}
+        };
+        Connection connection = new Connection(key, new Link(replay, replay, discard), config, null, statsFor(key));
+        connection.setStateListener(state -> onStateChanged(connection, state));
+        register(connection);
+        Logger.info("Replaying {} as {}", file, key);
+        return key;
+    }
+
+    /**
+     * Sets the listener told whenever a connection is established, starts reconnecting or closes.
+     */
+    public void setConnectionStateListener(BiConsumer<String, ConnectionState> listener) {
+        connectionStateListener = listener;
+    }
+
+    /**
+     * Sets the listener told when a connection's inbound buffer crosses a watermark or overflows.
+     * It is called on the connection's reader thread and must return quickly.
+     */
+    public void setBufferLevelListener(BufferLevelListener listener) {
+        bufferLevelListener = listener;
+    }
+
+    /**
+     * Sets the listener told when a client connects to or disconnects from the server.
+     */
+    public void setServerListener(ServerListener listener) {
+        serverListener = listener;
+    }
+
+    /**
+     * Ends a running scan, or any discovery started elsewhere, because it slows RFCOMM setup.
+     */
+    @SuppressLint("MissingPermission")
+    private void cancelDiscovery() {
+        Discovery scan = activeScan;
+        if (scan != null) {
+            Logger.debug("Stopping scan before connecting");
+            scan.finish();
+            return;
+        }
+        BluetoothAdapter adapter = BluetoothAdapter.getDefaultAdapter();
+        try {
+            if (adapter != null && adapter.isDiscovering()) {
+                adapter.cancelDiscovery();
+            }
+        } catch (SecurityException e) {
+            Logger.warn("Unable to cancel discovery: {}", e.getMessage());
+        }
+    }
+
+    private void onStateChanged(Connection connection, ConnectionState state) {
+        if (state == ConnectionState.DISCONNECTED) {
+            connections.remove(connection.getAddress(), connection);
+        }
+        connectionStateListener.accept(connection.getAddress(), state);
+    }
+
+    /**
+     * Watches for ACL disconnects so a dropped link is noticed even while nothing is being read or
+     * written.
+     */
+    private synchronized void registerLinkMonitor(Context context) {
+        if (linkMonitor != null) return;
+        linkMonitorContext = context.getApplicationContext();
+        linkMonitor = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                if (!BluetoothDevice.ACTION_ACL_DISCONNECTED.equals(intent.getAction())) return;
+                BluetoothDevice device = intent.getParcelableExtra(BluetoothDevice.EXTRA_DEVICE);
+                Connection connection = device == null ? null : connections.get(normalize(device.getAddress()));
+                if (connection != null) {
+                    connection.linkLost(new IOException("ACL link disconnected"));
                 }
             }
-        });
+        };
+        linkMonitorContext.registerReceiver(linkMonitor, new IntentFilter(BluetoothDevice.ACTION_ACL_DISCONNECTED));
+    }
+
+    private synchronized void unregisterLinkMonitor() {
+        if (linkMonitor == null) return;
+        try {
+            linkMonitorContext.unregisterReceiver(linkMonitor);
+        } catch (IllegalArgumentException ignore) {}
+        linkMonitor = null;
+        linkMonitorContext = null;
+    }
+
+    public CompletableFuture<Void> write(String address, byte[] data) {
+        Connection connection;
+        try {
+            connection = getConnection(address);
+        } catch (IOException e) {
+            Logger.error("Write failed: {}", e.getMessage());
+            return failed(e);
+        }
+        if (Logger.isDebugEnabled()) {
+            // Guarded so the length is not boxed on every write when debug logging is off.
+            Logger.debug("Writing {} bytes to {}", data.length, connection.getAddress());
+        }
+        return connection.write(data);
+    }
+
+    public CompletableFuture<byte[]> read(String address) {
+        return read(address, DEFAULT_READ_TIMEOUT);
+    }
 
-        // ✅ Timeout handler (uses scheduled executor)
-        waitUntil(timeout, readThread, future);
+    public CompletableFuture<byte[]> read(String address, int timeout) {
+        return read(address, timeout, false);
+    }
+
+    /**
+     * Resolves with whatever is buffered as soon as at least one byte is available. With
+     * {@code untilClosed} it instead collects everything until the stream ends, as reads did
+     * before the reader thread was introduced, and fails if the timeout elapses first.
+     */
+    public CompletableFuture<byte[]> read(String address, int timeout, boolean untilClosed) {
+        Logger.debug("Starting read with timeout: {}ms", timeout);
+        CompletableFuture<byte[]> result;
+        try {
+            Connection connection = getConnection(address);
+            result = untilClosed ? connection.readUntilClosed() : connection.read();
+        } catch (IOException e) {
+            Logger.error("Read failed: {}", e.getMessage());
+            return failed(e);
+        }
+        waitUntil(timeout, result);
+        return result;
+    }
+
+    public CompletableFuture<byte[]> readUntil(String address, byte[] delimiter) {
+        return readUntil(address, delimiter, DEFAULT_READ_TIMEOUT);
+    }
+
+    public CompletableFuture<byte[]> readUntil(String address, byte[] delimiter, int timeout) {
+        Logger.debug("Starting readUntil with delimiter length: {}, timeout: {}ms", delimiter.length, timeout);
+        CompletableFuture<byte[]> future;
+        try {
+            future = getConnection(address).readUntil(delimiter);
+        } catch (IOException e) {
+            Logger.error("ReadUntil failed: {}", e.getMessage());
+            return failed(e);
+        }
+        waitUntil(timeout, future);
         return future;
     }
 
-    private void waitUntil(int timeout, Thread thread, CompletableFuture<?> future) {
-        thread.start();
-        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
-        scheduler.schedule(
-            () -> {
-                if (!future.isDone()) {
-                    Logger.warn("Operation timed out after " + timeout + "ms");
-                    future.completeExceptionally(new TimeoutException("Timed out after " + timeout + " ms"));
-                    thread.interrupt();
-                }
-            },
-            timeout,
-            TimeUnit.MILLISECONDS
+    public CompletableFuture<byte[]> readFrame(String address) {
+        return readFrame(address, DEFAULT_READ_TIMEOUT);
+    }
+
+    public CompletableFuture<byte[]> readFrame(String address, int timeout) {
+        Logger.debug("Starting readFrame with timeout: {}ms", timeout);
+        CompletableFuture<byte[]> future;
+        try {
+            future = getConnection(address).readFrame();
+        } catch (IOException e) {
+            Logger.error("ReadFrame failed: {}", e.getMessage());
+            return failed(e);
+        }
+        waitUntil(timeout, future);
+        return future;
+    }
+
+    /**
+     * Configures how inbound data on a connection is split into frames for {@link #readFrame}
+     * and notifications. A {@code null} decoder turns framing off.
+     */
+    void setFraming(String address, FrameDecoder decoder) throws IOException {
+        Logger.debug("Setting framing: {}", decoder == null ? "none" : decoder.getClass().getSimpleName());
+        getConnection(address).setFrameDecoder(decoder);
+    }
+
+    /**
+     * Sets the stages every frame from the configured framing runs through before it is handed
+     * out, replacing any earlier pipeline. No stages and no transform remove the pipeline.
+     *
+     * @param transform text form frames are delivered in, or {@code null} for bytes
+     */
+    void setPipeline(String address, List<FramePipeline.Stage> stages, FramePipeline.Transform transform) throws IOException {
+        Connection connection = getConnection(address);
+        Logger.debug("Setting {} pipeline stage(s) on {}", stages.size(), connection.getAddress());
+        connection.setPipeline(
+            stages.isEmpty() && transform == null
+                ? null
+                : new FramePipeline(stages, transform, statsFor(connection.getAddress()).framesDropped)
         );
     }
 
+    /**
+     * Returns the text form frames from {@code address} are delivered in, or {@code null} for bytes.
+     */
+    FramePipeline.Transform getFrameTransform(String address) {
+        Connection connection;
+        try {
+            connection = getConnection(address);
+        } catch (IOException e) {
+            return null;
+        }
+        FramePipeline pipeline = connection.getPipeline();
+        // Raw chunks, delivered while no framing is set, never went through the pipeline.
+        return pipeline == null || !connection.hasFraming() ? null : pipeline.getTransform();
+    }
+
+    public CompletableFuture<List<byte[]>> transact(String address, List<byte[]> commands, byte[] delimiter) {
+        return transact(address, commands, delimiter, DEFAULT_READ_TIMEOUT);
+    }
+
+    /**
+     * Writes every command back to back and waits for one reply per command, matched in order.
+     * Replies are split on {@code delimiter}, or by the connection's framing when it is {@code null}.
+     * {@code timeout} covers the whole transaction.
+     */
+    public CompletableFuture<List<byte[]>> transact(String address, List<byte[]> commands, byte[] delimiter, int timeout) {
+        Logger.debug("Starting transaction of {} command(s), timeout: {}ms", commands.size(), timeout);
+        CompletableFuture<List<byte[]>> result;
+        try {
+            result = getConnection(address).transact(commands, delimiter);
+        } catch (IOException e) {
+            Logger.error("Transact failed: {}", e.getMessage());
+            return failed(e);
+        }
+        waitUntil(timeout, result);
+        return result;
+    }
+
+    public void startNotifications(String address, BiConsumer<String, byte[]> listener) throws IOException {
+        startNotifications(address, DEFAULT_NOTIFY_MIN_CHUNK_SIZE, DEFAULT_NOTIFY_MAX_LATENCY, listener);
+    }
+
+    public void startNotifications(String address, int minChunkSize, int maxLatency, BiConsumer<String, byte[]> listener)
+        throws IOException {
+        Logger.debug("Starting notifications with min chunk size: {}, max latency: {}ms", minChunkSize, maxLatency);
+        Connection connection = getConnection(address);
+        connection.startNotifications(minChunkSize, maxLatency, bytes -> listener.accept(connection.getAddress(), bytes));
+    }
+
+    public void stopNotifications(String address) throws IOException {
+        Logger.debug("Stopping notifications");
+        getConnection(address).stopNotifications();
+    }
+
+    OperationStats getScanStats() {
+        return scanStats;
+    }
+
+    /**
+     * Returns the statistics of every device connected since the last reset, keyed by address.
+     */
+    Map<String, ConnectionStats> getConnectionStats() {
+        return stats;
+    }
+
+    /**
+     * Wall-clock time in ms the statistics were last reset.
+     */
+    long getStatsSince() {
+        return statsSince;
+    }
+
+    public void resetStats() {
+        Logger.debug("Resetting statistics");
+        scanStats.reset();
+        for (Map.Entry<String, ConnectionStats> entry : stats.entrySet()) {
+            if (connections.containsKey(entry.getKey())) {
+                entry.getValue().reset();
+            } else {
+                stats.remove(entry.getKey(), entry.getValue());
+            }
+        }
+        statsSince = System.currentTimeMillis();
+    }
+
+    private ConnectionStats statsFor(String key) {
+        return stats.computeIfAbsent(key, k -> new ConnectionStats());
+    }
+
+    public Set<String> getConnectedAddresses() {
+        return new HashSet<>(connections.keySet());
+    }
+
+    /**
+     * Resolves the connection for {@code address}. Without an address the only open connection
+     * is used, which keeps single-device apps working unchanged.
+     */
+    private Connection getConnection(String address) throws IOException {
+        if (address == null || address.isEmpty()) {
+            Iterator<Connection> open = connections.values().iterator();
+            if (!open.hasNext()) {
+                throw new IOException("Not connected");
+            }
+            Connection connection = open.next();
+            if (open.hasNext()) {
+                throw new IOException("Multiple devices connected - an address is required");
+            }
+            return connection;
+        }
+        Connection connection = connections.get(normalize(address));
+        if (connection == null) {
+            throw new IOException("Not connected to " + address);
+        }
+        return connection;
+    }
+
+    private static String normalize(String address) {
+        return address.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable e) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.completeExceptionally(e);
+        return result;
+    }
+
+    private void waitUntil(int timeout, CompletableFuture<?> future) {
+        HashedTimerWheel.shared().failAfter(future, timeout);
+    }
+
     public boolean isEnabled() {
         BluetoothAdapter adapter = BluetoothAdapter.getDefaultAdapter();
         return adapter != null && adapter.isEnabled();
@@ -277,28 +852,176 @@ public class BluetoothClassic {
         return true;
     }
 
-    public void disconnect(Context context) throws IOException {
-        Logger.info("Disconnecting");
-        close(context);
+    /**
+     * Closes the connection to {@code address}. Without an address the only open connection is
+     * closed; with several open this fails rather than guessing, as every other call does.
+     */
+    public void disconnect(Context context, String address) throws IOException {
+        if (address == null || address.isEmpty()) {
+            Iterator<String> open = connections.keySet().iterator();
+            if (!open.hasNext()) return;
+            address = open.next();
+            if (open.hasNext()) {
+                throw new IOException("Multiple devices connected - an address is required");
+            }
+        }
+        Logger.info("Disconnecting {}", address);
+        close(normalize(address));
     }
 
-    private void close(Context context) throws IOException {
-        synchronized (connectionLock) {
-            if (inputStream != null) {
-                inputStream.close();
-                inputStream = null;
+    public void disconnectAll() throws IOException {
+        Logger.info("Disconnecting all devices");
+        unregisterLinkMonitor();
+        IOException failure = null;
+        for (String key : connections.keySet()) {
+            try {
+                close(key);
+            } catch (IOException e) {
+                failure = e;
             }
-            if (outputStream != null) {
-                outputStream.close();
-                outputStream = null;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void close(String key) throws IOException {
+        synchronized (connectLocks.computeIfAbsent(key, k -> new Object())) {
+            Connection connection = connections.remove(key);
+            if (connection != null) {
+                connection.close();
             }
-            if (socket != null) {
-                if (socket.isConnected()) {
-                    socket.close();
+        }
+    }
+
+    /**
+     * Told about inbound buffer watermark crossings and overflows.
+     */
+    public interface BufferLevelListener {
+        /**
+         * @param size the number of bytes buffered at the time
+         */
+        void onBufferLevel(String address, BufferLevel level, int size);
+    }
+
+    /**
+     * Told about clients of the server started with {@link #startServer}.
+     */
+    public interface ServerListener {
+        /**
+         * @param clients the number of clients connected, including this one
+         */
+        void onClientConnected(String address, int clients);
+
+        /**
+         * @param clients the number of clients still connected
+         */
+        void onClientDisconnected(String address, int clients);
+    }
+
+    /**
+     * Turns accepted clients into connections and forgets the server once it stops.
+     */
+    private final class ServerHandler implements RfcommServer.Handler {
+
+        private final ConnectionConfig config;
+
+        ServerHandler(ConnectionConfig config) {
+            this.config = config;
+        }
+
+        @Override
+        public void onClient(RfcommServer server, String address, Link link, Runnable release) throws IOException {
+            String key = normalize(address);
+            Connection connection = new Connection(key, link, config, null, statsFor(key));
+            connection.setStateListener(state -> {
+                onStateChanged(connection, state);
+                if (state == ConnectionState.DISCONNECTED) {
+                    release.run();
+                    serverListener.onClientDisconnected(key, server.getClientCount());
+                }
+            });
+            register(connection);
+            serverListener.onClientConnected(key, server.getClientCount());
+        }
+
+        @Override
+        public void onStopped(RfcommServer server, IOException cause) {
+            synchronized (BluetoothClassic.this) {
+                if (BluetoothClassic.this.server == server) {
+                    BluetoothClassic.this.server = null;
                 }
-                socket = null;
             }
-            Logger.debug("Connection closed");
+        }
+    }
+
+    /**
+     * A running scan. Devices are deduplicated by address as they arrive, so each one is reported once.
+     */
+    private final class Discovery extends BroadcastReceiver {
+
+        private final Context context;
+        private final View view;
+        private final ScanFilter filter;
+        private final Consumer<BluetoothDevice> onDeviceFound;
+        private final CompletableFuture<Collection<BluetoothDevice>> result;
+        private final Map<String, BluetoothDevice> devices = new ConcurrentHashMap<>();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private final Runnable timeout = this::finish;
+
+        Discovery(
+            Context context,
+            View view,
+            ScanFilter filter,
+            Consumer<BluetoothDevice> onDeviceFound,
+            CompletableFuture<Collection<BluetoothDevice>> result
+        ) {
+            this.context = context;
+            this.view = view;
+            this.filter = filter;
+            this.onDeviceFound = onDeviceFound;
+            this.result = result;
+        }
+
+        @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (!BluetoothDevice.ACTION_FOUND.equals(intent.getAction()) || finished.get()) return;
+            BluetoothDevice device = intent.getParcelableExtra(BluetoothDevice.EXTRA_DEVICE);
+            if (device == null || device.getAddress() == null) return;
+            CachedDevice entry = deviceCache.discovered(device);
+            if (filter.matches(entry)) {
+                offer(entry);
+            }
+        }
+
+        void offer(CachedDevice entry) {
+            if (finished.get() || devices.putIfAbsent(entry.address, entry.device) != null) return;
+            Logger.debug("Device found: {}", entry.address);
+            onDeviceFound.accept(entry.device);
+            if (filter.isSatisfied(devices.size())) {
+                Logger.debug("Scan limit of {} device(s) reached", filter.maxResults);
+                finish();
+            }
+        }
+
+        void start(int duration) {
+            view.postDelayed(timeout, duration);
+        }
+
+        @SuppressLint("MissingPermission")
+        void finish() {
+            if (!finished.compareAndSet(false, true)) return;
+            view.removeCallbacks(timeout);
+            if (activeScan == this) {
+                activeScan = null;
+            }
+            adapter.cancelDiscovery();
+            try {
+                context.unregisterReceiver(this);
+            } catch (IllegalArgumentException ignore) {}
+            Logger.info("Scan completed. Found {} device(s)", devices.size());
+            result.complete(new ArrayList<>(devices.values()));
         }
     }
 }
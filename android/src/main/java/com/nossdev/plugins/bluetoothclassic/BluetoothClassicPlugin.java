@@ -1,7 +1,6 @@
 package com.nossdev.plugins.bluetoothclassic;
 
 import android.Manifest;
-import android.annotation.SuppressLint;
 import android.bluetooth.BluetoothAdapter;
 import android.bluetooth.BluetoothDevice;
 import android.content.BroadcastReceiver;
@@ -9,7 +8,9 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.content.pm.PackageManager;
+import android.net.Uri;
 import android.os.Build;
+import android.os.ParcelFileDescriptor;
 import android.util.Log;
 import androidx.activity.result.ActivityResult;
 import androidx.annotation.RequiresPermission;
@@ -25,12 +26,27 @@ import com.getcapacitor.annotation.ActivityCallback;
 import com.getcapacitor.annotation.CapacitorPlugin;
 import com.getcapacitor.annotation.Permission;
 import com.getcapacitor.annotation.PermissionCallback;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjIntConsumer;
+import org.json.JSONArray;
+import org.json.JSONObject;
 
 @CapacitorPlugin(
     name = "BluetoothClassic",
@@ -46,23 +62,80 @@ import java.util.concurrent.CompletableFuture;
 public class BluetoothClassicPlugin extends Plugin {
 
     private static final Map<Integer, String> BLUETOOTH_STATES = new HashMap<>();
+    private static final String ENCODING_ARRAY = "array";
+    private static final String ENCODING_BASE64 = "base64";
+    private static final int DEFAULT_STATS_INTERVAL = 1_000;
+    /**
+     * Events listeners usually react to at once, so they skip batching unless the app chooses
+     * otherwise.
+     */
+    private static final Set<String> DEFAULT_UNBATCHED_EVENTS = new HashSet<>(
+        Arrays.asList("bluetoothState", "connectionState", "bufferLevel", "clientConnected", "clientDisconnected")
+    );
 
     static {
         BLUETOOTH_STATES.put(BluetoothAdapter.STATE_ON, "on");
         BLUETOOTH_STATES.put(BluetoothAdapter.STATE_TURNING_ON, "turning_on");
         BLUETOOTH_STATES.put(BluetoothAdapter.STATE_OFF, "off");
         BLUETOOTH_STATES.put(BluetoothAdapter.STATE_TURNING_OFF, "turning_off");
+        DEFAULT_UNBATCHED_EVENTS.addAll(BLUETOOTH_STATES.values());
     }
 
     private BroadcastReceiver bluetoothReceiver;
     private boolean isReceiverRegistered;
 
     private final BluetoothClassic implementation = new BluetoothClassic();
+    private final Object statsLock = new Object();
+    private HashedTimerWheel.Timeout statsTimer;
+    private int statsInterval;
+    private int statsGeneration;
+    private final EventBatcher<JSObject> events = new EventBatcher<>(
+        super::notifyListeners,
+        (eventName, batch) -> super.notifyListeners(eventName, new JSObject().put("batch", new JSArray(batch))),
+        HashedTimerWheel.shared()
+    );
 
     @Override
     public void load() {
         super.load();
+        try {
+            Logger.setLevel(toLogLevel(getConfig().getString("logLevel", "info")));
+        } catch (IllegalArgumentException e) {
+            Logger.warn(e.getMessage());
+        }
+        Logger.setCallerInfo(getConfig().getBoolean("logCallerInfo", false));
         Logger.info("Plugin loading");
+        implementation.setDeviceCacheTtl(getConfig().getInt("deviceCacheTtl", (int) DeviceCache.DEFAULT_TTL));
+        events.configure(
+            getConfig().getInt("eventBatchSize", EventBatcher.DEFAULT_MAX_SIZE),
+            getConfig().getInt("eventBatchDelay", 0),
+            DEFAULT_UNBATCHED_EVENTS
+        );
+        implementation.setConnectionStateListener((address, state) ->
+            notifyListeners(
+                "connectionState",
+                new JSObject().put("address", address).put("state", state.name().toLowerCase(Locale.ROOT))
+            )
+        );
+        implementation.setBufferLevelListener((address, level, size) ->
+            notifyListeners(
+                "bufferLevel",
+                new JSObject().put("address", address).put("level", level.name().toLowerCase(Locale.ROOT)).put("size", size)
+            )
+        );
+        implementation.setServerListener(
+            new BluetoothClassic.ServerListener() {
+                @Override
+                public void onClientConnected(String address, int clients) {
+                    notifyListeners("clientConnected", new JSObject().put("address", address).put("clients", clients));
+                }
+
+                @Override
+                public void onClientDisconnected(String address, int clients) {
+                    notifyListeners("clientDisconnected", new JSObject().put("address", address).put("clients", clients));
+                }
+            }
+        );
         initialize();
         registerBluetoothStateReceiver();
     }
@@ -76,7 +149,7 @@ public class BluetoothClassicPlugin extends Plugin {
                     Optional.ofNullable(
                         BLUETOOTH_STATES.get(intent.getIntExtra(BluetoothAdapter.EXTRA_STATE, BluetoothAdapter.ERROR))
                     ).ifPresent(state -> {
-                        Logger.info("Bluetooth state changed: " + state);
+                        Logger.info("Bluetooth state changed: {}", state);
                         JSObject result = new JSObject().put("value", state);
                         notifyListeners("bluetoothState", result);
                         notifyListeners(state, result);
@@ -106,15 +179,50 @@ public class BluetoothClassicPlugin extends Plugin {
     @RequiresPermission(allOf = { Manifest.permission.BLUETOOTH_SCAN, Manifest.permission.BLUETOOTH_CONNECT })
     @PluginMethod
     public void scan(PluginCall call) {
+        int duration = Optional.ofNullable(call.getInt("duration")).orElse(BluetoothClassic.DEFAULT_SCAN_DURATION);
+        ScanFilter filter = new ScanFilter()
+            .namePrefix(call.getString("namePrefix"))
+            .address(Optional.ofNullable(call.getString("address")).map(String::trim).orElse(null))
+            .maxResults(Optional.ofNullable(call.getInt("maxResults")).orElse(0));
+        Optional.ofNullable(call.getInt("deviceClass")).ifPresent(filter::deviceClass);
+        filter.includeCached(call.getBoolean("includeCached", false));
         CompletedFuture.from(
-            Optional.ofNullable(call.getInt("duration"))
-                .map(duration -> implementation.scan(getBridge(), getContext(), duration))
-                .orElseGet(() -> implementation.scan(getBridge(), getContext()))
+            implementation
+                .scan(getBridge(), getContext(), duration, filter, device -> notifyListeners("deviceFound", toJSONDevice(device)))
                 .thenApply(devices -> new JSObject().put("devices", toJSArrayDevices(devices)))
         )
             .onSuccess(call::resolve)
             .onError(e -> call.reject(e.getMessage()))
-            .await();
+            .subscribe();
+    }
+
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    @PluginMethod
+    public void lookupDevice(PluginCall call) {
+        String address = call.getString("address");
+        if (address == null || address.trim().isEmpty()) {
+            call.reject("Address is required");
+            return;
+        }
+        long maxAge = Optional.ofNullable(call.getInt("maxAge")).map(Long::valueOf).orElseGet(implementation::getDeviceCacheTtl);
+        CachedDevice device = implementation.getCachedDevice(address);
+        JSObject result = new JSObject()
+            .put("known", device != null)
+            .put("nearby", device != null && device.isNearby(System.currentTimeMillis(), maxAge));
+        if (device != null) {
+            result.put("device", toJSONDevice(device));
+        }
+        call.resolve(result);
+    }
+
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    @PluginMethod
+    public void getKnownDevices(PluginCall call) {
+        JSArray devices = new JSArray();
+        for (CachedDevice device : implementation.getCachedDevices()) {
+            devices.put(toJSONDevice(device));
+        }
+        call.resolve(new JSObject().put("devices", devices));
     }
 
     @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
@@ -135,6 +243,94 @@ public class BluetoothClassicPlugin extends Plugin {
         }
     }
 
+    /**
+     * Bonds, and optionally connects to, a list of devices a few at a time, reporting every stage
+     * through {@code provisionProgress} events.
+     */
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    @PluginMethod
+    public void pairAll(PluginCall call) {
+        JSArray values = call.getArray("addresses", new JSArray());
+        List<String> addresses = new ArrayList<>();
+        for (int i = 0; values != null && i < values.length(); i++) {
+            String address = values.optString(i, "").trim();
+            if (!address.isEmpty()) {
+                addresses.add(address);
+            }
+        }
+        if (addresses.isEmpty()) {
+            call.reject("Addresses are required");
+            return;
+        }
+
+        ProvisionOptions options = new ProvisionOptions()
+            .concurrency(call.getInt("concurrency", ProvisionOptions.DEFAULT_CONCURRENCY))
+            .bondTimeout(call.getInt("bondTimeout", ProvisionOptions.DEFAULT_BOND_TIMEOUT))
+            .keepConnected(call.getBoolean("keepConnected", false));
+        try {
+            if (call.getBoolean("connect", false)) {
+                options.connect(toConnectionConfig(call));
+            }
+        } catch (IllegalArgumentException e) {
+            call.reject(e.getMessage());
+            return;
+        }
+        Optional.ofNullable(call.getArray("handshake")).map(Payloads::getBytes).ifPresent(command ->
+            options.handshake(
+                command,
+                Optional.ofNullable(call.getArray("handshakeDelimiter")).map(Payloads::getBytes).orElse(null),
+                call.getInt("handshakeTimeout", ProvisionOptions.DEFAULT_HANDSHAKE_TIMEOUT)
+            )
+        );
+        long start = System.currentTimeMillis();
+        int total = addresses.size();
+        ObjIntConsumer<Provisioner.Result> listener = (device, completed) -> {
+            JSObject event = new JSObject()
+                .put("address", device.address)
+                .put("stage", device.stage.name().toLowerCase(Locale.ROOT))
+                .put("completed", completed)
+                .put("total", total);
+            if (device.error != null) {
+                event.put("error", device.error);
+            }
+            notifyListeners("provisionProgress", event);
+        };
+        CompletableFuture<List<Provisioner.Result>> result = implementation.pairAll(getContext(), addresses, options, listener);
+        CompletedFuture.from(result)
+            .onSuccess(devices -> call.resolve(toJSProvisionSummary(devices, System.currentTimeMillis() - start)))
+            .onError(e -> call.reject(e.getMessage()))
+            .subscribe();
+    }
+
+    private static JSObject toJSProvisionSummary(List<Provisioner.Result> devices, long duration) {
+        JSArray results = new JSArray();
+        int succeeded = 0;
+        for (Provisioner.Result device : devices) {
+            boolean success = device.stage == Provisioner.Stage.DONE;
+            if (success) {
+                succeeded++;
+            }
+            JSObject result = new JSObject()
+                .put("address", device.address)
+                .put("success", success)
+                .put("alreadyBonded", device.alreadyBonded)
+                .put("duration", device.duration);
+            if (device.error != null) {
+                result.put("error", device.error);
+            }
+            if (device.reply != null) {
+                result.put("reply", Payloads.toJSByteArray(device.reply));
+            }
+            results.put(result);
+        }
+        return new JSObject()
+            .put("total", devices.size())
+            .put("succeeded", succeeded)
+            .put("failed", devices.size() - succeeded)
+            .put("duration", duration)
+            .put("devices", results);
+    }
+
     @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
     @PluginMethod
     public void connect(PluginCall call) {
@@ -145,38 +341,102 @@ public class BluetoothClassicPlugin extends Plugin {
             return;
         }
 
+        ConnectionConfig config;
         try {
-            implementation.connect(getContext(), address.get());
-            call.resolve();
-        } catch (IOException e) {
+            config = toConnectionConfig(call);
+        } catch (IllegalArgumentException e) {
             call.reject(e.getMessage());
+            return;
         }
+        CompletedFuture.from(implementation.connectAsync(getContext(), address.get(), config))
+            .onSuccess(timing -> call.resolve(toJSConnectResult(timing)))
+            .onError(e -> call.reject(e.getMessage()))
+            .subscribe();
+    }
+
+    private static JSObject toJSConnectResult(ConnectTiming timing) {
+        JSObject result = new JSObject()
+            .put(
+                "timing",
+                new JSObject()
+                    .put("replace", timing.getReplace())
+                    .put("cancelDiscovery", timing.getCancelDiscovery())
+                    .put("createSocket", timing.getCreateSocket())
+                    .put("connect", timing.getConnect())
+                    .put("setup", timing.getSetup())
+                    .put("total", timing.getTotal())
+            )
+            .put("channelReused", timing.isChannelReused());
+        if (timing.getChannel() > 0) {
+            result.put("channel", timing.getChannel());
+        }
+        return result;
+    }
+
+    /**
+     * Reads the connection options shared by {@code connect} and {@code pairAll}.
+     *
+     * @throws IllegalArgumentException if an option is invalid
+     */
+    private static ConnectionConfig toConnectionConfig(PluginCall call) {
+        ConnectionConfig config = new ConnectionConfig();
+        Optional.ofNullable(call.getInt("timeout")).ifPresent(config::connectTimeout);
+        config.secure(call.getBoolean("secure", true));
+        config.reuseChannel(call.getBoolean("reuseChannel", false));
+        Optional.ofNullable(call.getInt("readBufferSize")).ifPresent(config::readBufferSize);
+        Optional.ofNullable(call.getString("overflowPolicy"))
+            .map(BluetoothClassicPlugin::toOverflowPolicy)
+            .ifPresent(config::overflowPolicy);
+        Optional.ofNullable(call.getInt("highWatermark")).ifPresent(config::highWatermark);
+        Optional.ofNullable(call.getInt("lowWatermark")).ifPresent(config::lowWatermark);
+        Optional.ofNullable(call.getInt("writeBatchSize")).ifPresent(config::writeBatchSize);
+        Optional.ofNullable(call.getInt("writeBatchDelay")).ifPresent(config::writeBatchDelay);
+        config.autoReconnect(call.getBoolean("autoReconnect", false));
+        Optional.ofNullable(call.getInt("reconnectDelay")).ifPresent(config::reconnectDelay);
+        Optional.ofNullable(call.getInt("reconnectMaxDelay")).ifPresent(config::reconnectMaxDelay);
+        Optional.ofNullable(call.getInt("reconnectMaxAttempts")).ifPresent(config::reconnectMaxAttempts);
+        return config;
+    }
+
+    private static OverflowPolicy toOverflowPolicy(String policy) {
+        return switch (policy) {
+            case "block" -> OverflowPolicy.BLOCK;
+            case "dropOldest" -> OverflowPolicy.DROP_OLDEST;
+            case "dropNewest" -> OverflowPolicy.DROP_NEWEST;
+            case "fail" -> OverflowPolicy.FAIL;
+            default -> throw new IllegalArgumentException("Invalid overflow policy: " + policy);
+        };
     }
 
     @PluginMethod
     public void write(PluginCall call) {
-        JSArray data = call.getArray("data", new JSArray());
-        if (data == null || data.length() == 0) {
-            call.reject("Attempted to write empty data");
+        byte[] data;
+        try {
+            data = getPayload(call, "data");
+        } catch (IllegalArgumentException e) {
+            call.reject("Invalid base64 data");
             return;
         }
-        try {
-            implementation.write(getBytes(data));
-            call.resolve();
-        } catch (IOException e) {
-            call.reject(e.getMessage());
+        if (data.length == 0) {
+            call.reject("Attempted to write empty data");
+            return;
         }
+        CompletedFuture.from(implementation.write(call.getString("address"), data))
+            .onSuccess(ignore -> call.resolve())
+            .onError(e -> call.reject(e.getMessage()))
+            .subscribe();
     }
 
     @PluginMethod
     public void read(PluginCall call) {
-        CompletableFuture<byte[]> result = Optional.ofNullable(call.getInt("timeout"))
-            .map(implementation::read)
-            .orElseGet(implementation::read);
-        CompletedFuture.from(result.thenApply(bytes -> new JSObject().put("data", toJSByteArray(bytes))))
+        String address = call.getString("address");
+        String encoding = call.getString("encoding", ENCODING_ARRAY);
+        int timeout = call.getInt("timeout", BluetoothClassic.DEFAULT_READ_TIMEOUT);
+        CompletableFuture<byte[]> result = implementation.read(address, timeout, call.getBoolean("untilClosed", false));
+        CompletedFuture.from(result.thenApply(bytes -> toJSPayload(bytes, encoding)))
             .onSuccess(call::resolve)
             .onError(e -> call.reject(e.getMessage()))
-            .await();
+            .subscribe();
     }
 
     @PluginMethod
@@ -187,14 +447,248 @@ public class BluetoothClassicPlugin extends Plugin {
             return;
         }
 
-        byte[] delimiter = getBytes(delimiterData);
+        byte[] delimiter = Payloads.getBytes(delimiterData);
+        String address = call.getString("address");
+        String encoding = call.getString("encoding", ENCODING_ARRAY);
         CompletableFuture<byte[]> result = Optional.ofNullable(call.getInt("timeout"))
-            .map(timeout -> implementation.readUntil(delimiter, timeout))
-            .orElseGet(() -> implementation.readUntil(delimiter));
-        CompletedFuture.from(result.thenApply(bytes -> new JSObject().put("data", toJSByteArray(bytes))))
+            .map(timeout -> implementation.readUntil(address, delimiter, timeout))
+            .orElseGet(() -> implementation.readUntil(address, delimiter));
+        CompletedFuture.from(result.thenApply(bytes -> toJSPayload(bytes, encoding)))
+            .onSuccess(call::resolve)
+            .onError(e -> call.reject(e.getMessage()))
+            .subscribe();
+    }
+
+    @PluginMethod
+    public void transact(PluginCall call) {
+        List<byte[]> commands;
+        try {
+            commands = getPayloads(call, "commands");
+        } catch (IllegalArgumentException e) {
+            call.reject("Invalid base64 data");
+            return;
+        }
+        if (commands.isEmpty()) {
+            call.reject("Attempted to transact without commands");
+            return;
+        }
+        JSArray delimiterData = call.getArray("delimiter");
+        byte[] delimiter = delimiterData == null || delimiterData.length() == 0 ? null : Payloads.getBytes(delimiterData);
+        String address = call.getString("address");
+        String encoding = call.getString("encoding", ENCODING_ARRAY);
+        CompletableFuture<List<byte[]>> result = Optional.ofNullable(call.getInt("timeout"))
+            .map(timeout -> implementation.transact(address, commands, delimiter, timeout))
+            .orElseGet(() -> implementation.transact(address, commands, delimiter));
+        CompletedFuture.from(
+            result.thenApply(replies -> {
+                JSArray values = new JSArray();
+                for (byte[] reply : replies) {
+                    values.put(toJSValue(reply, encoding));
+                }
+                return new JSObject().put("replies", values);
+            })
+        )
             .onSuccess(call::resolve)
             .onError(e -> call.reject(e.getMessage()))
-            .await();
+            .subscribe();
+    }
+
+    @PluginMethod
+    public void setFraming(PluginCall call) {
+        FrameDecoder decoder;
+        try {
+            decoder = toFrameDecoder(call);
+        } catch (IllegalArgumentException e) {
+            call.reject(e.getMessage());
+            return;
+        }
+        try {
+            implementation.setFraming(call.getString("address"), decoder);
+            call.resolve();
+        } catch (IOException e) {
+            call.reject(e.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void readFrame(PluginCall call) {
+        String address = call.getString("address");
+        String encoding = call.getString("encoding", ENCODING_ARRAY);
+        CompletableFuture<byte[]> result = Optional.ofNullable(call.getInt("timeout"))
+            .map(timeout -> implementation.readFrame(address, timeout))
+            .orElseGet(() -> implementation.readFrame(address));
+        CompletedFuture.from(result.thenApply(bytes -> toJSFrame(address, bytes, encoding)))
+            .onSuccess(call::resolve)
+            .onError(e -> call.reject(e.getMessage()))
+            .subscribe();
+    }
+
+    /**
+     * Sets the native stages received frames pass through before they reach JavaScript, so
+     * corrupt, unwanted and repeated frames are never marshalled. Replaces any earlier pipeline.
+     */
+    @PluginMethod
+    public void setPipeline(PluginCall call) {
+        List<FramePipeline.Stage> stages;
+        FramePipeline.Transform transform;
+        try {
+            stages = toPipelineStages(call.getArray("stages", new JSArray()));
+            transform = Optional.ofNullable(call.getString("transform")).map(BluetoothClassicPlugin::toTransform).orElse(null);
+        } catch (IllegalArgumentException e) {
+            call.reject(e.getMessage());
+            return;
+        }
+        try {
+            implementation.setPipeline(call.getString("address"), stages, transform);
+            call.resolve();
+        } catch (IOException e) {
+            call.reject(e.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void startNotifications(PluginCall call) {
+        int minChunkSize = call.getInt("minChunkSize", BluetoothClassic.DEFAULT_NOTIFY_MIN_CHUNK_SIZE);
+        int maxLatency = call.getInt("maxLatency", BluetoothClassic.DEFAULT_NOTIFY_MAX_LATENCY);
+        String encoding = call.getString("encoding", ENCODING_ARRAY);
+        try {
+            implementation.startNotifications(call.getString("address"), minChunkSize, maxLatency, (address, bytes) ->
+                notifyListeners("data", toJSFrame(address, bytes, encoding).put("address", address))
+            );
+            call.resolve();
+        } catch (IOException e) {
+            call.reject(e.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void stopNotifications(PluginCall call) {
+        try {
+            implementation.stopNotifications(call.getString("address"));
+            call.resolve();
+        } catch (IOException e) {
+            call.reject(e.getMessage());
+        }
+    }
+
+    @PluginMethod
+    public void getConnectedDevices(PluginCall call) {
+        call.resolve(new JSObject().put("addresses", new JSArray(implementation.getConnectedAddresses())));
+    }
+
+    @PluginMethod
+    public void getStats(PluginCall call) {
+        call.resolve(toJSStats());
+    }
+
+    @PluginMethod
+    public void resetStats(PluginCall call) {
+        implementation.resetStats();
+        call.resolve();
+    }
+
+    /**
+     * Emits a {@code stats} event every {@code interval} ms until {@link #stopStatsUpdates} is called.
+     */
+    @PluginMethod
+    public void startStatsUpdates(PluginCall call) {
+        int interval = Optional.ofNullable(call.getInt("interval")).orElse(DEFAULT_STATS_INTERVAL);
+        if (interval <= 0) {
+            call.reject("Interval must be positive");
+            return;
+        }
+        synchronized (statsLock) {
+            cancelStatsUpdates();
+            statsInterval = interval;
+            scheduleStatsUpdate();
+        }
+        call.resolve();
+    }
+
+    @PluginMethod
+    public void stopStatsUpdates(PluginCall call) {
+        synchronized (statsLock) {
+            cancelStatsUpdates();
+        }
+        call.resolve();
+    }
+
+    private void scheduleStatsUpdate() {
+        int generation = statsGeneration;
+        statsTimer = HashedTimerWheel.shared().schedule(
+            () -> {
+                synchronized (statsLock) {
+                    if (generation != statsGeneration) return;
+                    scheduleStatsUpdate();
+                }
+                notifyListeners("stats", toJSStats());
+            },
+            statsInterval,
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    private void cancelStatsUpdates() {
+        statsGeneration++;
+        if (statsTimer != null) {
+            statsTimer.cancel();
+            statsTimer = null;
+        }
+    }
+
+    /**
+     * Changes the native log level, and optionally whether caller info is logged, at runtime.
+     */
+    @PluginMethod
+    public void setLogLevel(PluginCall call) {
+        try {
+            Logger.setLevel(toLogLevel(call.getString("level", "")));
+        } catch (IllegalArgumentException e) {
+            call.reject(e.getMessage());
+            return;
+        }
+        Optional.ofNullable(call.getBoolean("callerInfo")).ifPresent(Logger::setCallerInfo);
+        call.resolve();
+    }
+
+    /**
+     * Buffers events per name and sends them as one {@code batch} array once {@code maxSize} are
+     * buffered or the oldest is {@code maxDelay} ms old. A delay of 0 sends every event on its own.
+     */
+    @PluginMethod
+    public void setEventBatching(PluginCall call) {
+        Set<String> bypass = DEFAULT_UNBATCHED_EVENTS;
+        JSArray names = call.getArray("bypass");
+        if (names != null) {
+            bypass = new HashSet<>();
+            for (int i = 0; i < names.length(); i++) {
+                bypass.add(names.optString(i));
+            }
+            if (bypass.contains("bluetoothState")) {
+                bypass.addAll(BLUETOOTH_STATES.values());
+            }
+        }
+        events.configure(call.getInt("maxSize", EventBatcher.DEFAULT_MAX_SIZE), call.getInt("maxDelay", 0), bypass);
+        call.resolve();
+    }
+
+    /**
+     * Sends every event through the batcher, which passes it straight on while batching is off.
+     */
+    @Override
+    protected void notifyListeners(String eventName, JSObject data) {
+        events.offer(eventName, data);
+    }
+
+    private static Logger.Level toLogLevel(String level) {
+        return switch (level) {
+            case "debug" -> Logger.Level.DEBUG;
+            case "info" -> Logger.Level.INFO;
+            case "warn" -> Logger.Level.WARN;
+            case "error" -> Logger.Level.ERROR;
+            case "none" -> Logger.Level.NONE;
+            default -> throw new IllegalArgumentException("Invalid log level: " + level);
+        };
     }
 
     @PluginMethod
@@ -224,14 +718,119 @@ public class BluetoothClassicPlugin extends Plugin {
             return;
         }
         boolean enabled = implementation.isEnabled();
-        Logger.info("Enable Bluetooth result: " + enabled);
+        Logger.info("Enable Bluetooth result: {}", enabled);
         call.resolve(new JSObject().put("enabled", enabled));
     }
 
     @PluginMethod
     public void disconnect(PluginCall call) {
         try {
-            implementation.disconnect(getContext());
+            implementation.disconnect(getContext(), call.getString("address"));
+        } catch (IOException e) {
+            call.reject(e.getMessage());
+            return;
+        }
+        call.resolve();
+    }
+
+    @PluginMethod
+    public void disconnectAll(PluginCall call) {
+        try {
+            implementation.disconnectAll();
+        } catch (IOException e) {
+            call.reject(e.getMessage());
+            return;
+        }
+        call.resolve();
+    }
+
+    /**
+     * Listens for devices connecting to this one. Each client can then be read from and written to
+     * by its address, and is reported through {@code clientConnected} and {@code clientDisconnected}
+     * events.
+     */
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    @PluginMethod
+    public void startServer(PluginCall call) {
+        ServerOptions options;
+        try {
+            options = new ServerOptions()
+                .name(call.getString("name", ServerOptions.DEFAULT_NAME))
+                .serviceId(Optional.ofNullable(call.getString("serviceId")).map(UUID::fromString).orElse(null))
+                .secure(call.getBoolean("secure", true))
+                .maxClients(call.getInt("maxClients", ServerOptions.DEFAULT_MAX_CLIENTS))
+                .connection(toConnectionConfig(call));
+        } catch (IllegalArgumentException e) {
+            call.reject(e.getMessage());
+            return;
+        }
+        try {
+            implementation.startServer(getContext(), options);
+        } catch (IOException | SecurityException e) {
+            call.reject(e.getMessage());
+            return;
+        }
+        call.resolve();
+    }
+
+    /**
+     * Stops listening and disconnects every client of the server.
+     */
+    @PluginMethod
+    public void stopServer(PluginCall call) {
+        try {
+            implementation.stopServer();
+        } catch (IOException e) {
+            call.reject(e.getMessage());
+            return;
+        }
+        call.resolve();
+    }
+
+    /**
+     * Streams a file path or content URI to a connection natively, emitting throttled
+     * {@code sendProgress} events. Resolves with the transfer rate once every byte is written.
+     */
+    @PluginMethod
+    public void sendFile(PluginCall call) {
+        String path = call.getString("path");
+        if (path == null || path.isEmpty()) {
+            call.reject("Path is required");
+            return;
+        }
+        FileInputStream source;
+        try {
+            source = openFile(path);
+        } catch (IOException | SecurityException e) {
+            call.reject(e.getMessage());
+            return;
+        }
+        long total = sizeOf(source);
+        CompletableFuture<FileSender> result = implementation.sendFile(
+            call.getString("address"),
+            source.getChannel(),
+            call.getInt("chunkSize", FileSender.DEFAULT_CHUNK_SIZE),
+            call.getInt("chunkDelay", 0),
+            call.getInt("progressInterval", FileSender.DEFAULT_PROGRESS_INTERVAL),
+            (address, sent) -> notifyListeners("sendProgress", new JSObject().put("address", address).put("sent", sent).put("total", total))
+        );
+        CompletedFuture.from(result)
+            .onSuccess(sender ->
+                call.resolve(
+                    new JSObject()
+                        .put("bytes", sender.getBytes())
+                        .put("duration", sender.getDuration())
+                        .put("bytesPerSecond", sender.getBytesPerSecond())
+                )
+            )
+            .onError(e -> call.reject(e.getMessage()))
+            .subscribe();
+    }
+
+    @PluginMethod
+    public void cancelSendFile(PluginCall call) {
+        try {
+            implementation.cancelSendFile(call.getString("address"));
         } catch (IOException e) {
             call.reject(e.getMessage());
             return;
@@ -239,6 +838,155 @@ public class BluetoothClassicPlugin extends Plugin {
         call.resolve();
     }
 
+    /**
+     * Streams inbound data to a file, by default in the app's cache directory, until a stop
+     * condition is met.
+     */
+    @PluginMethod
+    public void receiveToFile(PluginCall call) {
+        String path = Optional.ofNullable(call.getString("path")).orElseGet(() ->
+            new File(getContext().getCacheDir(), "bluetooth-classic-" + System.currentTimeMillis() + ".bin").getAbsolutePath()
+        );
+        byte[] delimiter = Optional.ofNullable(call.getArray("delimiter")).map(Payloads::getBytes).orElse(null);
+        FileOutputStream sink;
+        try {
+            sink = createFile(path);
+        } catch (IOException | SecurityException e) {
+            call.reject(e.getMessage());
+            return;
+        }
+        CompletableFuture<FileReceiver> result = implementation.receiveToFile(
+            call.getString("address"),
+            sink.getChannel(),
+            Optional.ofNullable(call.getDouble("maxBytes")).map(Double::longValue).orElse(0L),
+            delimiter,
+            call.getInt("idleTimeout", 0),
+            call.getInt("timeout", 0),
+            call.getInt("progressInterval", FileReceiver.DEFAULT_PROGRESS_INTERVAL),
+            (address, received) -> notifyListeners("receiveProgress", new JSObject().put("address", address).put("received", received))
+        );
+        CompletedFuture.from(result)
+            .onSuccess(receiver ->
+                call.resolve(
+                    new JSObject()
+                        .put("path", path)
+                        .put("bytes", receiver.getBytes())
+                        .put("duration", receiver.getDuration())
+                        .put("reason", receiver.getStopReason().name().toLowerCase(Locale.ROOT))
+                )
+            )
+            .onError(e -> call.reject(e.getMessage()))
+            .subscribe();
+    }
+
+    @PluginMethod
+    public void cancelReceiveToFile(PluginCall call) {
+        try {
+            implementation.cancelReceiveToFile(call.getString("address"));
+        } catch (IOException e) {
+            call.reject(e.getMessage());
+            return;
+        }
+        call.resolve();
+    }
+
+    /**
+     * Returns the size of an opened file, or -1 if it is unknown, as for some content providers.
+     */
+    private static long sizeOf(FileInputStream stream) {
+        try {
+            return stream.getChannel().size();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Opens a plain file path, or a {@code content://} or {@code file://} URI through the content
+     * resolver.
+     */
+    private FileInputStream openFile(String path) throws IOException {
+        if (!path.startsWith("content://") && !path.startsWith("file://")) {
+            return new FileInputStream(path);
+        }
+        ParcelFileDescriptor descriptor = getContext().getContentResolver().openFileDescriptor(Uri.parse(path), "r");
+        if (descriptor == null) {
+            throw new FileNotFoundException("Unable to open " + path);
+        }
+        return new ParcelFileDescriptor.AutoCloseInputStream(descriptor);
+    }
+
+    /**
+     * Creates or truncates a plain file path, or a {@code content://} or {@code file://} URI
+     * through the content resolver.
+     */
+    private FileOutputStream createFile(String path) throws IOException {
+        if (!path.startsWith("content://") && !path.startsWith("file://")) {
+            return new FileOutputStream(path);
+        }
+        ParcelFileDescriptor descriptor = getContext().getContentResolver().openFileDescriptor(Uri.parse(path), "wt");
+        if (descriptor == null) {
+            throw new FileNotFoundException("Unable to open " + path);
+        }
+        return new ParcelFileDescriptor.AutoCloseOutputStream(descriptor);
+    }
+
+    /**
+     * Records the traffic of a connection to a trace file, by default in the app's cache directory.
+     */
+    @PluginMethod
+    public void startCapture(PluginCall call) {
+        File file = Optional.ofNullable(call.getString("path"))
+            .map(File::new)
+            .orElseGet(() -> new File(getContext().getCacheDir(), "bluetooth-classic-" + System.currentTimeMillis() + ".trace"));
+        try {
+            implementation.startCapture(call.getString("address"), file, call.getInt("maxSize", TraceRecorder.DEFAULT_MAX_SIZE));
+        } catch (IOException | IllegalArgumentException e) {
+            call.reject(e.getMessage());
+            return;
+        }
+        call.resolve(new JSObject().put("path", file.getAbsolutePath()));
+    }
+
+    @PluginMethod
+    public void stopCapture(PluginCall call) {
+        TraceRecorder recorder;
+        try {
+            recorder = implementation.stopCapture(call.getString("address"));
+        } catch (IOException e) {
+            call.reject(e.getMessage());
+            return;
+        }
+        call.resolve(
+            new JSObject()
+                .put("path", recorder.getFile().getAbsolutePath())
+                .put("records", recorder.records())
+                .put("bytes", recorder.bytes())
+                .put("dropped", recorder.dropped())
+        );
+    }
+
+    /**
+     * Plays a trace back as a connection, which stays open until it is disconnected.
+     */
+    @PluginMethod
+    public void replayCapture(PluginCall call) {
+        String path = call.getString("path");
+        if (path == null || path.isEmpty()) {
+            call.reject("Path is required");
+            return;
+        }
+        ConnectionConfig config = new ConnectionConfig();
+        Optional.ofNullable(call.getInt("readBufferSize")).ifPresent(config::readBufferSize);
+        double speed = Optional.ofNullable(call.getDouble("speed")).orElse(1.0);
+        try {
+            String address = implementation.replay(new File(path), call.getString("address"), speed, config);
+            call.resolve(new JSObject().put("address", address));
+        } catch (IOException e) {
+            call.reject(e.getMessage());
+        }
+    }
+
     @PluginMethod
     public void checkPermissions(PluginCall call) {
         Logger.debug("Checking Bluetooth permissions");
@@ -262,7 +1010,7 @@ public class BluetoothClassicPlugin extends Plugin {
             status = locationGranted ? "granted" : "denied";
         }
 
-        Logger.info("Permission status: " + status);
+        Logger.info("Permission status: {}", status);
         call.resolve(new JSObject().put("status", status));
     }
 
@@ -271,7 +1019,10 @@ public class BluetoothClassicPlugin extends Plugin {
         Logger.info("Plugin destroying");
         try {
             unRegisterBluetoothStateReceiver();
-            implementation.disconnect(getContext());
+            synchronized (statsLock) {
+                cancelStatsUpdates();
+            }
+            implementation.disconnectAll();
         } catch (Exception e) {
             Logger.error("Error during plugin destruction", e);
         }
@@ -289,17 +1040,24 @@ public class BluetoothClassicPlugin extends Plugin {
 
     @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
     private JSObject toJSONDevice(BluetoothDevice device) {
-        return new JSObject()
-            .put("name", device.getName())
-            .put("type", getDeviceType(device))
-            .put("address", device.getAddress())
-            .put("addressType", getAddressType(device))
-            .put("state", getBondState(device));
+        return toJSONDevice(implementation.describe(device));
     }
 
-    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
-    private String getDeviceType(BluetoothDevice device) {
-        return switch (device.getType()) {
+    private JSObject toJSONDevice(CachedDevice device) {
+        JSObject result = new JSObject()
+            .put("name", device.name)
+            .put("type", getDeviceType(device.type))
+            .put("address", device.address)
+            .put("addressType", getAddressType(device.addressType))
+            .put("state", getBondState(device.bondState));
+        if (device.lastSeen > 0) {
+            result.put("lastSeen", device.lastSeen);
+        }
+        return result;
+    }
+
+    private String getDeviceType(int type) {
+        return switch (type) {
             case BluetoothDevice.DEVICE_TYPE_CLASSIC -> "classic";
             case BluetoothDevice.DEVICE_TYPE_LE -> "le";
             case BluetoothDevice.DEVICE_TYPE_DUAL -> "dual";
@@ -307,23 +1065,17 @@ public class BluetoothClassicPlugin extends Plugin {
         };
     }
 
-    @SuppressLint("SwitchIntDef")
-    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
-    private String getAddressType(BluetoothDevice device) {
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.VANILLA_ICE_CREAM) {
-            return switch (device.getAddressType()) {
-                case BluetoothDevice.ADDRESS_TYPE_PUBLIC -> "public";
-                case BluetoothDevice.ADDRESS_TYPE_RANDOM -> "random";
-                case BluetoothDevice.ADDRESS_TYPE_ANONYMOUS -> "anonymous";
-                default -> "unknown";
-            };
-        }
-        return "unknown";
+    private String getAddressType(int addressType) {
+        return switch (addressType) {
+            case BluetoothDevice.ADDRESS_TYPE_PUBLIC -> "public";
+            case BluetoothDevice.ADDRESS_TYPE_RANDOM -> "random";
+            case BluetoothDevice.ADDRESS_TYPE_ANONYMOUS -> "anonymous";
+            default -> "unknown";
+        };
     }
 
-    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
-    private String getBondState(BluetoothDevice device) {
-        return switch (device.getBondState()) {
+    private String getBondState(int bondState) {
+        return switch (bondState) {
             case BluetoothDevice.BOND_BONDED -> "bonded";
             case BluetoothDevice.BOND_BONDING -> "bonding";
             case BluetoothDevice.BOND_NONE -> "none";
@@ -331,19 +1083,195 @@ public class BluetoothClassicPlugin extends Plugin {
         };
     }
 
-    private byte[] getBytes(JSArray data) {
-        byte[] bytes = new byte[data.length()];
-        for (int i = 0; i < data.length(); i++) {
-            bytes[i] = (byte) data.optInt(i);
+    private FrameDecoder toFrameDecoder(PluginCall call) {
+        String type = call.getString("type", "none");
+        return switch (type) {
+            case "none" -> null;
+            case "delimiter" -> {
+                JSArray delimiter = call.getArray("delimiter", new JSArray());
+                if (delimiter == null || delimiter.length() == 0) {
+                    throw new IllegalArgumentException("Invalid delimiter");
+                }
+                yield new DelimiterFrameDecoder(Payloads.getBytes(delimiter), call.getBoolean("includeDelimiter", false));
+            }
+            case "length" -> new LengthFieldFrameDecoder(
+                call.getInt("lengthFieldSize", 2),
+                call.getBoolean("littleEndian", false),
+                call.getBoolean("lengthIncludesHeader", false),
+                call.getInt("maxFrameLength", ConnectionConfig.DEFAULT_READ_BUFFER_SIZE)
+            );
+            case "fixed" -> new FixedLengthFrameDecoder(call.getInt("frameSize", 0));
+            case "slip" -> new SlipFrameDecoder();
+            case "cobs" -> new CobsFrameDecoder();
+            default -> throw new IllegalArgumentException("Unknown framing type: " + type);
+        };
+    }
+
+    private static List<FramePipeline.Stage> toPipelineStages(JSArray values) {
+        List<FramePipeline.Stage> stages = new ArrayList<>();
+        for (int i = 0; values != null && i < values.length(); i++) {
+            JSONObject stage = values.optJSONObject(i);
+            if (stage == null) {
+                throw new IllegalArgumentException("Invalid pipeline stage at index " + i);
+            }
+            String type = stage.optString("type", "");
+            stages.add(
+                switch (type) {
+                    case "checksum" -> FramePipeline.checksum(
+                        toChecksum(stage.optString("algorithm", "")),
+                        stage.optBoolean("littleEndian", false),
+                        stage.optInt("offset", 0),
+                        stage.optBoolean("strip", true)
+                    );
+                    case "dropPrefix" -> FramePipeline.dropPrefix(getStageBytes(stage, "prefix"));
+                    case "dropMask" -> FramePipeline.dropMask(getStageBytes(stage, "mask"), getStageBytes(stage, "value"));
+                    case "dedup" -> {
+                        int window = stage.optInt("window", 0);
+                        if (window <= 0) {
+                            throw new IllegalArgumentException("Dedup window must be positive");
+                        }
+                        yield FramePipeline.dedup(window);
+                    }
+                    default -> throw new IllegalArgumentException("Unknown pipeline stage: " + type);
+                }
+            );
         }
-        return bytes;
+        return stages;
     }
 
-    private JSArray toJSByteArray(byte[] bytes) {
-        JSArray data = new JSArray();
-        for (byte theByte : bytes) {
-            data.put(((int) theByte) & 0xFF);
+    private static byte[] getStageBytes(JSONObject stage, String key) {
+        JSONArray data = stage.optJSONArray(key);
+        if (data == null || data.length() == 0) {
+            throw new IllegalArgumentException("Invalid " + key);
         }
-        return data;
+        return Payloads.getBytes(data);
+    }
+
+    private static Checksum toChecksum(String algorithm) {
+        return switch (algorithm) {
+            case "crc8" -> Checksum.CRC8;
+            case "crc16" -> Checksum.CRC16;
+            case "crc16ccitt" -> Checksum.CRC16_CCITT;
+            case "crc32" -> Checksum.CRC32;
+            case "xor" -> Checksum.XOR;
+            default -> throw new IllegalArgumentException("Unknown checksum algorithm: " + algorithm);
+        };
+    }
+
+    private static FramePipeline.Transform toTransform(String transform) {
+        return switch (transform) {
+            case "hex" -> FramePipeline.Transform.HEX;
+            case "ascii" -> FramePipeline.Transform.ASCII;
+            default -> throw new IllegalArgumentException("Unknown transform: " + transform);
+        };
+    }
+
+    /**
+     * Reads a binary payload sent either as a JSON byte array or, when the call's {@code encoding}
+     * is {@code base64}, as a base64 string.
+     *
+     * @throws IllegalArgumentException if the base64 string is malformed
+     */
+    private byte[] getPayload(PluginCall call, String key) {
+        if (ENCODING_BASE64.equals(call.getString("encoding"))) {
+            return Payloads.fromBase64(call.getString(key, ""));
+        }
+        JSArray data = call.getArray(key, new JSArray());
+        return data == null ? new byte[0] : Payloads.getBytes(data);
+    }
+
+    private List<byte[]> getPayloads(PluginCall call, String key) {
+        JSArray values = call.getArray(key, new JSArray());
+        if (values == null) {
+            return new ArrayList<>();
+        }
+        boolean base64 = ENCODING_BASE64.equals(call.getString("encoding"));
+        List<byte[]> payloads = new ArrayList<>(values.length());
+        for (int i = 0; i < values.length(); i++) {
+            if (base64) {
+                payloads.add(Payloads.fromBase64(values.optString(i, "")));
+            } else {
+                JSONArray bytes = values.optJSONArray(i);
+                payloads.add(bytes == null ? new byte[0] : Payloads.getBytes(bytes));
+            }
+        }
+        return payloads;
+    }
+
+    private JSObject toJSPayload(byte[] bytes, String encoding) {
+        return new JSObject().put("data", toJSValue(bytes, encoding));
+    }
+
+    /**
+     * Converts received data, as text instead of bytes when it is a frame and the connection's
+     * pipeline has a transform.
+     */
+    private JSObject toJSFrame(String address, byte[] bytes, String encoding) {
+        FramePipeline.Transform transform = implementation.getFrameTransform(address);
+        if (transform == null) {
+            return toJSPayload(bytes, encoding);
+        }
+        String text = transform == FramePipeline.Transform.HEX ? Payloads.toHex(bytes) : Payloads.toAscii(bytes);
+        return new JSObject().put("text", text);
+    }
+
+    private Object toJSValue(byte[] bytes, String encoding) {
+        if (ENCODING_BASE64.equals(encoding)) {
+            return Payloads.toBase64(bytes);
+        }
+        return Payloads.toJSByteArray(bytes);
+    }
+
+    private JSObject toJSStats() {
+        long now = System.currentTimeMillis();
+        double elapsed = Math.max(1, now - implementation.getStatsSince()) / 1000.0;
+        Set<String> connected = implementation.getConnectedAddresses();
+        JSArray devices = new JSArray();
+        for (Map.Entry<String, ConnectionStats> entry : implementation.getConnectionStats().entrySet()) {
+            ConnectionStats stats = entry.getValue();
+            long bytesIn = stats.bytesIn.sum();
+            long bytesOut = stats.bytesOut.sum();
+            devices.put(
+                new JSObject()
+                    .put("address", entry.getKey())
+                    .put("connected", connected.contains(entry.getKey()))
+                    .put("bytesIn", bytesIn)
+                    .put("bytesOut", bytesOut)
+                    .put("bytesDropped", stats.bytesDropped.sum())
+                    .put("framesDropped", stats.framesDropped.sum())
+                    .put("bytesInPerSecond", bytesIn / elapsed)
+                    .put("bytesOutPerSecond", bytesOut / elapsed)
+                    .put("connect", toJSOperationStats(stats.connect, elapsed))
+                    .put("write", toJSOperationStats(stats.write, elapsed))
+                    .put("read", toJSOperationStats(stats.read, elapsed))
+                    .put("readUntil", toJSOperationStats(stats.readUntil, elapsed))
+                    .put("readFrame", toJSOperationStats(stats.readFrame, elapsed))
+                    .put("transact", toJSOperationStats(stats.transact, elapsed))
+            );
+        }
+        return new JSObject()
+            .put("since", implementation.getStatsSince())
+            .put("elapsed", now - implementation.getStatsSince())
+            .put("scan", toJSOperationStats(implementation.getScanStats(), elapsed))
+            .put("devices", devices);
+    }
+
+    private JSObject toJSOperationStats(OperationStats stats, double elapsed) {
+        LatencyHistogram latency = stats.latency;
+        long count = stats.count();
+        return new JSObject()
+            .put("count", count)
+            .put("errors", stats.errors.sum())
+            .put("timeouts", stats.timeouts.sum())
+            .put("opsPerSecond", count / elapsed)
+            .put("mean", toMillis(latency.mean()))
+            .put("p50", toMillis(latency.percentile(50)))
+            .put("p95", toMillis(latency.percentile(95)))
+            .put("p99", toMillis(latency.percentile(99)))
+            .put("max", toMillis(latency.max()));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1e6;
     }
 }
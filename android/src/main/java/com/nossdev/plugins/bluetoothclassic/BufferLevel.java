@@ -0,0 +1,20 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+/**
+ * Inbound buffer events reported to the buffer level listener.
+ */
+public enum BufferLevel {
+    /**
+     * The buffer filled up to the high watermark. Data should be consumed faster.
+     */
+    HIGH,
+    /**
+     * After a {@link #HIGH}, the buffer drained down to the low watermark.
+     */
+    LOW,
+    /**
+     * Received data did not fit and was handled by the {@link OverflowPolicy}. Reported once until
+     * the buffer drains down to the low watermark.
+     */
+    OVERFLOW
+}
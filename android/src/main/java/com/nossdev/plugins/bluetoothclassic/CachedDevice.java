@@ -0,0 +1,66 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import android.Manifest;
+import android.bluetooth.BluetoothClass;
+import android.bluetooth.BluetoothDevice;
+import android.os.Build;
+import androidx.annotation.RequiresPermission;
+
+/**
+ * Immutable snapshot of a device's properties. Reading them from {@link BluetoothDevice} is a binder
+ * call each time, so they are captured once and reused until the device is seen again.
+ */
+final class CachedDevice {
+
+    static final int UNKNOWN = -1;
+
+    final BluetoothDevice device;
+    final String address;
+    final String name;
+    final int type;
+    final int addressType;
+    final int bondState;
+    final int deviceClass;
+    final int majorDeviceClass;
+    /**
+     * Wall-clock time in ms the device was last reported by discovery, or 0 if it never was.
+     */
+    final long lastSeen;
+
+    private CachedDevice(BluetoothDevice device, String name, int type, int addressType, int bondState, BluetoothClass bluetoothClass, long lastSeen) {
+        this.device = device;
+        this.address = device.getAddress();
+        this.name = name;
+        this.type = type;
+        this.addressType = addressType;
+        this.bondState = bondState;
+        this.deviceClass = bluetoothClass != null ? bluetoothClass.getDeviceClass() : UNKNOWN;
+        this.majorDeviceClass = bluetoothClass != null ? bluetoothClass.getMajorDeviceClass() : UNKNOWN;
+        this.lastSeen = lastSeen;
+    }
+
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    static CachedDevice of(BluetoothDevice device, long lastSeen) {
+        int addressType = Build.VERSION.SDK_INT >= Build.VERSION_CODES.VANILLA_ICE_CREAM ? device.getAddressType() : UNKNOWN;
+        return new CachedDevice(
+            device,
+            device.getName(),
+            device.getType(),
+            addressType,
+            device.getBondState(),
+            device.getBluetoothClass(),
+            lastSeen
+        );
+    }
+
+    boolean isBonded() {
+        return bondState == BluetoothDevice.BOND_BONDED;
+    }
+
+    /**
+     * Whether discovery reported the device within the last {@code maxAge} ms.
+     */
+    boolean isNearby(long now, long maxAge) {
+        return lastSeen > 0 && now - lastSeen <= maxAge;
+    }
+}
@@ -0,0 +1,99 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.util.zip.CRC32;
+
+/**
+ * Checksums found at the end of serial device frames. The CRC-8 and CRC-16 variants use
+ * 256-entry lookup tables, so each byte costs one table lookup. CRC-32 uses
+ * {@link java.util.zip.CRC32}, which the runtime already accelerates.
+ */
+enum Checksum {
+    /**
+     * CRC-8/SMBUS: polynomial 0x07, initial value 0.
+     */
+    CRC8(1),
+    /**
+     * CRC-16/MODBUS: reflected polynomial 0x8005, initial value 0xFFFF.
+     */
+    CRC16(2),
+    /**
+     * CRC-16/CCITT-FALSE: polynomial 0x1021, initial value 0xFFFF.
+     */
+    CRC16_CCITT(2),
+    /**
+     * CRC-32 as used by zlib and Ethernet.
+     */
+    CRC32(4),
+    /**
+     * All bytes XORed together, as in NMEA sentences.
+     */
+    XOR(1);
+
+    private static final int[] CRC8_TABLE = new int[256];
+    private static final int[] CRC16_TABLE = new int[256];
+    private static final int[] CRC16_CCITT_TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int crc8 = i;
+            int crc16 = i;
+            int ccitt = i << 8;
+            for (int bit = 0; bit < 8; bit++) {
+                crc8 = (crc8 & 0x80) != 0 ? (crc8 << 1) ^ 0x07 : crc8 << 1;
+                crc16 = (crc16 & 1) != 0 ? (crc16 >>> 1) ^ 0xA001 : crc16 >>> 1;
+                ccitt = (ccitt & 0x8000) != 0 ? (ccitt << 1) ^ 0x1021 : ccitt << 1;
+            }
+            CRC8_TABLE[i] = crc8 & 0xFF;
+            CRC16_TABLE[i] = crc16;
+            CRC16_CCITT_TABLE[i] = ccitt & 0xFFFF;
+        }
+    }
+
+    /**
+     * Size of the checksum in bytes.
+     */
+    final int size;
+
+    Checksum(int size) {
+        this.size = size;
+    }
+
+    long compute(byte[] data, int offset, int length) {
+        int end = offset + length;
+        return switch (this) {
+            case CRC8 -> {
+                int crc = 0;
+                for (int i = offset; i < end; i++) {
+                    crc = CRC8_TABLE[(crc ^ data[i]) & 0xFF];
+                }
+                yield crc;
+            }
+            case CRC16 -> {
+                int crc = 0xFFFF;
+                for (int i = offset; i < end; i++) {
+                    crc = (crc >>> 8) ^ CRC16_TABLE[(crc ^ data[i]) & 0xFF];
+                }
+                yield crc;
+            }
+            case CRC16_CCITT -> {
+                int crc = 0xFFFF;
+                for (int i = offset; i < end; i++) {
+                    crc = ((crc << 8) ^ CRC16_CCITT_TABLE[((crc >>> 8) ^ data[i]) & 0xFF]) & 0xFFFF;
+                }
+                yield crc;
+            }
+            case CRC32 -> {
+                CRC32 crc = new CRC32();
+                crc.update(data, offset, length);
+                yield crc.getValue();
+            }
+            case XOR -> {
+                int xor = 0;
+                for (int i = offset; i < end; i++) {
+                    xor ^= data[i];
+                }
+                yield xor & 0xFF;
+            }
+        };
+    }
+}
@@ -0,0 +1,55 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.io.IOException;
+
+/**
+ * Consistent Overhead Byte Stuffing frames terminated by a zero byte. Empty frames are dropped.
+ */
+final class CobsFrameDecoder implements FrameDecoder {
+
+    private int position;
+    private int frameLength = -1;
+
+    @Override
+    public int match(RingBuffer buffer) {
+        if (frameLength >= 0) return frameLength;
+        int size = buffer.size();
+        for (; position < size; position++) {
+            if (buffer.get(position) == 0) {
+                frameLength = position + 1;
+                return frameLength;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public byte[] decode(RingBuffer buffer, int length) throws IOException {
+        if (length <= 1) return null;
+        byte[] frame = buffer.peek(length - 1);
+        byte[] payload = new byte[frame.length];
+        int out = 0;
+        int i = 0;
+        while (i < frame.length) {
+            int code = frame[i++] & 0xFF;
+            if (code == 0 || i + code - 1 > frame.length) {
+                throw new IOException("Invalid COBS frame");
+            }
+            System.arraycopy(frame, i, payload, out, code - 1);
+            out += code - 1;
+            i += code - 1;
+            if (code < 0xFF && i < frame.length) {
+                payload[out++] = 0;
+            }
+        }
+        byte[] result = new byte[out];
+        System.arraycopy(payload, 0, result, 0, out);
+        return result;
+    }
+
+    @Override
+    public void reset() {
+        position = 0;
+        frameLength = -1;
+    }
+}
@@ -30,12 +30,23 @@ public final class CompletedFuture<T> {
         return this;
     }
 
-    public void await() {
-        try {
-            T result = future.join(); // blocking
-            successHandler.accept(result);
-        } catch (CompletionException e) {
-            errorHandler.accept(e.getCause());
-        }
+    /**
+     * Runs the success or error handler once the future completes, without blocking the calling thread.
+     * If the success handler throws, the error handler receives the exception instead, so the call
+     * is still settled.
+     */
+    public void subscribe() {
+        future.whenComplete((result, error) -> {
+            if (error == null) {
+                try {
+                    successHandler.accept(result);
+                } catch (RuntimeException e) {
+                    Logger.error("Success handler failed", e);
+                    errorHandler.accept(e);
+                }
+            } else {
+                errorHandler.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            }
+        });
     }
 }
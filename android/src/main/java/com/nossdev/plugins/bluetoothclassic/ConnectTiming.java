@@ -0,0 +1,75 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+/**
+ * How long each phase of establishing a connection took, in ms.
+ */
+public final class ConnectTiming {
+
+    private final long start = System.nanoTime();
+    private long mark = start;
+    double replace;
+    double cancelDiscovery;
+    double createSocket;
+    double connect;
+    double setup;
+    int channel = -1;
+    boolean channelReused;
+
+    /**
+     * Returns the time since the previous phase ended and starts the next one.
+     */
+    double lap() {
+        long now = System.nanoTime();
+        double elapsed = (now - mark) / 1e6;
+        mark = now;
+        return elapsed;
+    }
+
+    /**
+     * Time spent waiting for another connect to the same device to finish and closing the
+     * connection this one replaces.
+     */
+    public double getReplace() {
+        return replace;
+    }
+
+    /**
+     * Time spent stopping a running device discovery, which otherwise slows RFCOMM setup.
+     */
+    public double getCancelDiscovery() {
+        return cancelDiscovery;
+    }
+
+    public double getCreateSocket() {
+        return createSocket;
+    }
+
+    /**
+     * Time spent in the socket connect, including the SDP lookup unless a cached channel was used.
+     */
+    public double getConnect() {
+        return connect;
+    }
+
+    /**
+     * Time spent opening the streams and starting the connection's reader and writer.
+     */
+    public double getSetup() {
+        return setup;
+    }
+
+    public double getTotal() {
+        return (mark - start) / 1e6;
+    }
+
+    /**
+     * The RFCOMM channel the socket connected on, or -1 if it could not be determined.
+     */
+    public int getChannel() {
+        return channel;
+    }
+
+    public boolean isChannelReused() {
+        return channelReused;
+    }
+}
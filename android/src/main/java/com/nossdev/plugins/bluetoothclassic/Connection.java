@@ -0,0 +1,400 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * A single open link to a remote device. Every connection owns its streams, reader thread and
+ * locks, so slow I/O on one device never blocks another.
+ * <p>
+ * A managed connection, created with a {@link Link.Connector}, outlives the loss of its link: it
+ * reconnects in the background with exponential backoff while reads and writes are held.
+ */
+final class Connection {
+
+    private static final long MIN_RECONNECT_DELAY = 100;
+
+    private final String address;
+    private final ConnectionConfig config;
+    private final Link.Connector connector;
+    private final ConnectionStats stats;
+    private final SocketReader reader;
+    private final SocketWriter writer;
+    private final Object stateLock = new Object();
+    private volatile Consumer<ConnectionState> stateListener = state -> {};
+    private volatile ObjIntConsumer<BufferLevel> bufferListener = (level, size) -> {};
+    private volatile FramePipeline pipeline;
+    private Link link;
+    private TraceRecorder capture;
+    private boolean closed;
+
+    Connection(String address, Closeable socket, InputStream inputStream, OutputStream outputStream, ConnectionConfig config) {
+        this(address, new Link(socket, inputStream, outputStream), config, null, new ConnectionStats());
+    }
+
+    /**
+     * @param connector opens a replacement link after link loss, or {@code null} to close the
+     *                  connection instead
+     * @param stats     receives traffic and write statistics
+     */
+    Connection(String address, Link link, ConnectionConfig config, Link.Connector connector, ConnectionStats stats) {
+        this.address = address;
+        this.link = link;
+        this.config = config;
+        this.connector = connector;
+        this.stats = stats;
+        boolean managed = connector != null;
+        this.reader = new SocketReader(
+            address,
+            link.inputStream,
+            config.readBufferSize,
+            config.overflowPolicy,
+            managed,
+            this::onStreamLost,
+            stats.bytesIn,
+            stats.bytesDropped
+        );
+        reader.setWatermarks(config.highWatermark, config.lowWatermark, (level, size) -> bufferListener.accept(level, size));
+        this.writer = new SocketWriter(
+            address,
+            link.outputStream,
+            config.writeBatchSize,
+            config.writeBatchDelay,
+            managed,
+            this::onStreamLost
+        );
+    }
+
+    String getAddress() {
+        return address;
+    }
+
+    /**
+     * Sets the listener told about every state change. Must be set before {@link #start()}.
+     */
+    void setStateListener(Consumer<ConnectionState> stateListener) {
+        this.stateListener = stateListener;
+    }
+
+    /**
+     * Sets the listener told about inbound buffer watermark crossings and overflows, with the
+     * number of bytes buffered at the time. It is called on the reader thread with the buffer
+     * locked, so it must return quickly.
+     */
+    void setBufferListener(ObjIntConsumer<BufferLevel> bufferListener) {
+        this.bufferListener = bufferListener;
+    }
+
+    void start() {
+        reader.start();
+        writer.start();
+        stateListener.accept(ConnectionState.CONNECTED);
+    }
+
+    boolean isOpen() {
+        synchronized (stateLock) {
+            return !closed;
+        }
+    }
+
+    /**
+     * Whether inbound data has ended. This happens just before the connection closes, so it is
+     * already true when pending reads fail because the link went away.
+     */
+    boolean isInputClosed() {
+        return reader.isClosed();
+    }
+
+    CompletableFuture<Void> write(byte[] data) {
+        return stats.write.track(send(data));
+    }
+
+    private CompletableFuture<Void> send(byte[] data) {
+        CompletableFuture<Void> result = writer.write(data);
+        result.thenRun(() -> stats.bytesOut.add(data.length));
+        return result;
+    }
+
+    CompletableFuture<byte[]> read() {
+        return stats.read.track(reader.read());
+    }
+
+    CompletableFuture<byte[]> readUntilClosed() {
+        return stats.read.track(reader.readUntilClosed());
+    }
+
+    byte[] drain(int max) {
+        return reader.drain(max);
+    }
+
+    CompletableFuture<byte[]> readUntil(byte[] delimiter) {
+        return stats.readUntil.track(reader.readUntil(delimiter));
+    }
+
+    /**
+     * Reserves inbound data for a file receiver, rejecting every other read until
+     * {@link #stopReceiving()}.
+     */
+    void startReceiving() throws IOException {
+        reader.startReceiving();
+    }
+
+    void stopReceiving() {
+        reader.stopReceiving();
+    }
+
+    CompletableFuture<byte[]> receive(FrameDecoder decoder) {
+        return reader.receive(decoder);
+    }
+
+    /**
+     * Pipelines {@code commands} onto the socket and completes with one reply per command, in order.
+     * Replies still outstanding when the transaction fails are abandoned.
+     */
+    CompletableFuture<List<byte[]>> transact(List<byte[]> commands, byte[] delimiter) {
+        List<CompletableFuture<byte[]>> replies = reader.readReplies(commands.size(), delimiter);
+        CompletableFuture<List<byte[]>> result = stats.transact.track(new CompletableFuture<>());
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                for (CompletableFuture<byte[]> reply : replies) {
+                    reply.completeExceptionally(error);
+                }
+            }
+        });
+        CompletableFuture.allOf(replies.toArray(new CompletableFuture<?>[0])).whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error instanceof CompletionException ? error.getCause() : error);
+                return;
+            }
+            List<byte[]> values = new ArrayList<>(replies.size());
+            for (CompletableFuture<byte[]> reply : replies) {
+                values.add(reply.join());
+            }
+            result.complete(values);
+        });
+        if (!result.isDone()) {
+            for (byte[] command : commands) {
+                send(command).whenComplete((value, error) -> {
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    }
+                });
+            }
+        }
+        return result;
+    }
+
+    CompletableFuture<byte[]> readFrame() {
+        return stats.readFrame.track(reader.readFrame());
+    }
+
+    void setFrameDecoder(FrameDecoder decoder) {
+        reader.setFrameDecoder(decoder);
+    }
+
+    boolean hasFraming() {
+        return reader.hasFraming();
+    }
+
+    /**
+     * Sets the pipeline run on every frame from the configured framing, or removes it when
+     * {@code pipeline} is null. Kept across reconnects.
+     */
+    void setPipeline(FramePipeline pipeline) {
+        this.pipeline = pipeline;
+        reader.setPipeline(pipeline);
+    }
+
+    FramePipeline getPipeline() {
+        return pipeline;
+    }
+
+    void startNotifications(int minChunkSize, int maxLatency, Consumer<byte[]> listener) throws IOException {
+        reader.startNotifications(minChunkSize, maxLatency, listener);
+    }
+
+    void stopNotifications() {
+        reader.stopNotifications();
+    }
+
+    /**
+     * Records every chunk sent and received from now on to {@code recorder}, replacing and closing
+     * any capture already running. Recording survives reconnects.
+     */
+    void startCapture(TraceRecorder recorder) throws IOException {
+        TraceRecorder previous;
+        synchronized (stateLock) {
+            if (closed) {
+                throw new IOException("Not connected");
+            }
+            previous = capture;
+            capture = recorder;
+            reader.setTrace(recorder);
+            writer.setTrace(recorder);
+        }
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Ends the running capture and returns its closed recorder, or {@code null} if none is running.
+     */
+    TraceRecorder stopCapture() throws IOException {
+        TraceRecorder recorder;
+        synchronized (stateLock) {
+            recorder = capture;
+            capture = null;
+            reader.setTrace(null);
+            writer.setTrace(null);
+        }
+        if (recorder != null) {
+            recorder.close();
+        }
+        return recorder;
+    }
+
+    /**
+     * Reports that the current link has gone away, for example because the system dropped the
+     * ACL link. A managed connection starts reconnecting; any other connection closes.
+     */
+    void linkLost(IOException cause) {
+        onStreamLost(null, cause);
+    }
+
+    /**
+     * Handles a failure on {@code stream}, ignoring it unless the stream belongs to the current
+     * link. A {@code null} stream always refers to the current link.
+     */
+    private void onStreamLost(Closeable stream, IOException cause) {
+        Link lost;
+        synchronized (stateLock) {
+            if (closed || link == null) return;
+            if (stream != null && stream != link.inputStream && stream != link.outputStream) return;
+            lost = link;
+            if (connector != null) {
+                link = null;
+            }
+        }
+        if (connector == null) {
+            Logger.warn("Connection to {} lost: {}", address, cause.getMessage());
+            try {
+                close();
+            } catch (IOException e) {
+                Logger.error("Failed to close lost connection", e);
+            }
+            return;
+        }
+
+        Logger.warn("Connection to {} lost, reconnecting: {}", address, cause.getMessage());
+        reader.suspend();
+        writer.suspend();
+        try {
+            lost.close();
+        } catch (IOException ignore) {}
+        stateListener.accept(ConnectionState.RECONNECTING);
+        Thread thread = new Thread(this::reconnect, "BluetoothClassic-reconnect-" + address);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Opens replacement links until one succeeds, the connection is closed, or the attempt limit
+     * is reached. Waits grow exponentially and are randomised so devices that dropped together do
+     * not retry in lockstep.
+     */
+    private void reconnect() {
+        long delay = Math.max(0, config.reconnectDelay);
+        long maxDelay = Math.max(MIN_RECONNECT_DELAY, config.reconnectMaxDelay);
+        for (int attempt = 1;; attempt++) {
+            if (!pause(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1))) return;
+            Link next;
+            try {
+                next = connector.open();
+            } catch (IOException e) {
+                Logger.warn("Reconnect attempt {} to {} failed: {}", attempt, address, e.getMessage());
+                if (config.reconnectMaxAttempts > 0 && attempt >= config.reconnectMaxAttempts) {
+                    Logger.error("Giving up on {} after {} reconnect attempt(s)", address, attempt);
+                    try {
+                        close();
+                    } catch (IOException ignore) {}
+                    return;
+                }
+                delay = Math.min(Math.max(delay * 2, MIN_RECONNECT_DELAY), maxDelay);
+                continue;
+            }
+
+            synchronized (stateLock) {
+                if (!closed) {
+                    link = next;
+                }
+            }
+            if (!isOpen()) {
+                try {
+                    next.close();
+                } catch (IOException ignore) {}
+                return;
+            }
+            reader.resume(next.inputStream);
+            writer.resume(next.outputStream);
+            Logger.info("Reconnected to {} after {} attempt(s)", address, attempt);
+            stateListener.accept(ConnectionState.CONNECTED);
+            return;
+        }
+    }
+
+    /**
+     * Waits {@code millis} ms. Returns {@code false} early if the connection is closed meanwhile.
+     */
+    private boolean pause(long millis) {
+        synchronized (stateLock) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+            long remaining;
+            try {
+                while (!closed && (remaining = deadline - System.nanoTime()) > 0) {
+                    TimeUnit.NANOSECONDS.timedWait(stateLock, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return !closed;
+        }
+    }
+
+    void close() throws IOException {
+        Link current;
+        synchronized (stateLock) {
+            if (closed) return;
+            closed = true;
+            current = link;
+            link = null;
+            stateLock.notifyAll();
+        }
+        reader.stop();
+        writer.stop();
+        try {
+            stopCapture();
+        } catch (IOException e) {
+            Logger.error("Failed to close capture", e);
+        }
+        try {
+            if (current != null) {
+                current.close();
+            }
+        } finally {
+            Logger.debug("Connection closed: {}", address);
+            stateListener.accept(ConnectionState.DISCONNECTED);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+/**
+ * Per-connection tuning supplied to {@link BluetoothClassic#connect}. Unset values keep their defaults.
+ */
+public final class ConnectionConfig {
+
+    static final int DEFAULT_READ_BUFFER_SIZE = 64 * 1024;
+    static final int DEFAULT_WRITE_BATCH_SIZE = 4 * 1024;
+    static final int DEFAULT_WRITE_BATCH_DELAY = 0;
+    static final int DEFAULT_RECONNECT_DELAY = 500;
+    static final int DEFAULT_RECONNECT_MAX_DELAY = 30_000;
+    static final int DEFAULT_CONNECT_TIMEOUT = 0;
+
+    int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    boolean secure = true;
+    boolean reuseChannel;
+    int readBufferSize = DEFAULT_READ_BUFFER_SIZE;
+    OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    int highWatermark;
+    int lowWatermark;
+    int writeBatchSize = DEFAULT_WRITE_BATCH_SIZE;
+    int writeBatchDelay = DEFAULT_WRITE_BATCH_DELAY;
+    boolean autoReconnect;
+    int reconnectDelay = DEFAULT_RECONNECT_DELAY;
+    int reconnectMaxDelay = DEFAULT_RECONNECT_MAX_DELAY;
+    int reconnectMaxAttempts;
+
+    /**
+     * Time in ms after which a connect attempt is aborted. 0 leaves it to the system, which also
+     * waits while a pairing prompt is shown.
+     */
+    public ConnectionConfig connectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+        return this;
+    }
+
+    /**
+     * Whether to use an authenticated, encrypted RFCOMM socket. Insecure sockets connect to devices
+     * without a bond and avoid the pairing prompt.
+     */
+    public ConnectionConfig secure(boolean secure) {
+        this.secure = secure;
+        return this;
+    }
+
+    /**
+     * Connect straight to the RFCOMM channel found on a previous connect to the device, skipping
+     * the SDP service lookup. Falls back to the lookup when the channel does not answer.
+     */
+    public ConnectionConfig reuseChannel(boolean reuseChannel) {
+        this.reuseChannel = reuseChannel;
+        return this;
+    }
+
+    /**
+     * Capacity in bytes of the inbound buffer that holds received data until it is read.
+     */
+    public ConnectionConfig readBufferSize(int readBufferSize) {
+        this.readBufferSize = readBufferSize;
+        return this;
+    }
+
+    /**
+     * How received data that does not fit in the full inbound buffer is handled.
+     */
+    public ConnectionConfig overflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+        return this;
+    }
+
+    /**
+     * Number of buffered bytes at which {@link BufferLevel#HIGH} is reported. 0 reports no
+     * watermarks.
+     */
+    public ConnectionConfig highWatermark(int highWatermark) {
+        this.highWatermark = highWatermark;
+        return this;
+    }
+
+    /**
+     * Number of buffered bytes at or below which {@link BufferLevel#LOW} is reported after a
+     * {@link BufferLevel#HIGH}.
+     */
+    public ConnectionConfig lowWatermark(int lowWatermark) {
+        this.lowWatermark = lowWatermark;
+        return this;
+    }
+
+    /**
+     * Largest number of queued bytes merged into a single socket write.
+     */
+    public ConnectionConfig writeBatchSize(int writeBatchSize) {
+        this.writeBatchSize = writeBatchSize;
+        return this;
+    }
+
+    /**
+     * Time in ms the writer waits for more queued data before flushing a batch smaller than
+     * {@link #writeBatchSize(int)}. 0 only merges writes that are already queued.
+     */
+    public ConnectionConfig writeBatchDelay(int writeBatchDelay) {
+        this.writeBatchDelay = writeBatchDelay;
+        return this;
+    }
+
+    /**
+     * Keeps the connection open across link loss by reconnecting in the background. Queued writes
+     * and pending reads are held until the link is back.
+     * <p>
+     * Writes are delivered at most once. The batch being written when the link dropped fails with
+     * the write error even though some of it may have reached the device; resending it is up to
+     * the caller, which then risks duplicating those bytes. Writes still queued behind it are sent
+     * once the link is back.
+     */
+    public ConnectionConfig autoReconnect(boolean autoReconnect) {
+        this.autoReconnect = autoReconnect;
+        return this;
+    }
+
+    /**
+     * Delay in ms before the first reconnect attempt. It doubles after every failed attempt, up to
+     * {@link #reconnectMaxDelay(int)}, and each wait is randomised by up to half its length.
+     */
+    public ConnectionConfig reconnectDelay(int reconnectDelay) {
+        this.reconnectDelay = reconnectDelay;
+        return this;
+    }
+
+    public ConnectionConfig reconnectMaxDelay(int reconnectMaxDelay) {
+        this.reconnectMaxDelay = reconnectMaxDelay;
+        return this;
+    }
+
+    /**
+     * Number of failed reconnect attempts after which the connection is closed. 0 retries forever.
+     */
+    public ConnectionConfig reconnectMaxAttempts(int reconnectMaxAttempts) {
+        this.reconnectMaxAttempts = reconnectMaxAttempts;
+        return this;
+    }
+}
@@ -0,0 +1,14 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+/**
+ * Lifecycle of a connection as reported to the connection state listener.
+ */
+public enum ConnectionState {
+    CONNECTED,
+    /**
+     * The link was lost and a managed connection is trying to restore it. Writes are held and
+     * pending reads keep waiting until it is back.
+     */
+    RECONNECTING,
+    DISCONNECTED
+}
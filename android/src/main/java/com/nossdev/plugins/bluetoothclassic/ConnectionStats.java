@@ -0,0 +1,37 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Traffic and per-operation statistics for one device address. They are kept across reconnects
+ * and replacement connections until reset.
+ */
+final class ConnectionStats {
+
+    final LongAdder bytesIn = new LongAdder();
+    final LongAdder bytesOut = new LongAdder();
+    /**
+     * Received bytes discarded because the inbound buffer was full.
+     */
+    final LongAdder bytesDropped = new LongAdder();
+    /**
+     * Received frames dropped by the frame pipeline.
+     */
+    final LongAdder framesDropped = new LongAdder();
+    final OperationStats connect = new OperationStats();
+    final OperationStats write = new OperationStats();
+    final OperationStats read = new OperationStats();
+    final OperationStats readUntil = new OperationStats();
+    final OperationStats readFrame = new OperationStats();
+    final OperationStats transact = new OperationStats();
+
+    void reset() {
+        bytesIn.reset();
+        bytesOut.reset();
+        bytesDropped.reset();
+        framesDropped.reset();
+        for (OperationStats operation : new OperationStats[] { connect, write, read, readUntil, readFrame, transact }) {
+            operation.reset();
+        }
+    }
+}
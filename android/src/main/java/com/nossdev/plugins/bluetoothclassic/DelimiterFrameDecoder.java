@@ -0,0 +1,79 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+/**
+ * Splits frames on a delimiter using Knuth-Morris-Pratt matching, so every byte is examined
+ * once and overlapping delimiters such as {@code 10 10 03} are found correctly.
+ */
+final class DelimiterFrameDecoder implements FrameDecoder {
+
+    private final byte[] delimiter;
+    private final int[] failure;
+    private final boolean includeDelimiter;
+    private int position;
+    private int matched;
+    private int frameLength = -1;
+
+    DelimiterFrameDecoder(byte[] delimiter, boolean includeDelimiter) {
+        if (delimiter.length == 0) {
+            throw new IllegalArgumentException("Delimiter must not be empty");
+        }
+        this.delimiter = delimiter.clone();
+        this.failure = failureTable(this.delimiter);
+        this.includeDelimiter = includeDelimiter;
+    }
+
+    @Override
+    public int match(RingBuffer buffer) {
+        if (frameLength >= 0) return frameLength;
+        int size = buffer.size();
+        for (; position < size; position++) {
+            byte b = buffer.get(position);
+            while (matched > 0 && b != delimiter[matched]) {
+                matched = failure[matched - 1];
+            }
+            if (b == delimiter[matched]) {
+                matched++;
+                if (matched == delimiter.length) {
+                    frameLength = position + 1;
+                    return frameLength;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns how many of the last scanned bytes could be the start of a delimiter. Only meaningful
+     * after {@link #match} has returned -1.
+     */
+    int partialMatch() {
+        return matched;
+    }
+
+    @Override
+    public byte[] decode(RingBuffer buffer, int length) {
+        return buffer.peek(includeDelimiter ? length : length - delimiter.length);
+    }
+
+    @Override
+    public void reset() {
+        position = 0;
+        matched = 0;
+        frameLength = -1;
+    }
+
+    private static int[] failureTable(byte[] pattern) {
+        int[] table = new int[pattern.length];
+        int k = 0;
+        for (int i = 1; i < pattern.length; i++) {
+            while (k > 0 && pattern[i] != pattern[k]) {
+                k = table[k - 1];
+            }
+            if (pattern[i] == pattern[k]) {
+                k++;
+            }
+            table[i] = k;
+        }
+        return table;
+    }
+}
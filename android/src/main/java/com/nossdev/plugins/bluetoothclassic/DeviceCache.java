@@ -0,0 +1,121 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import android.Manifest;
+import android.bluetooth.BluetoothAdapter;
+import android.bluetooth.BluetoothDevice;
+import androidx.annotation.RequiresPermission;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Known devices keyed by address. Bonded devices are kept for as long as they stay bonded;
+ * devices that were only discovered are evicted once they have not been seen for {@code ttl} ms.
+ */
+final class DeviceCache {
+
+    static final long DEFAULT_TTL = 60_000;
+
+    private final Map<String, CachedDevice> devices = new ConcurrentHashMap<>();
+    private volatile long ttl = DEFAULT_TTL;
+    private volatile boolean seeded;
+
+    long getTtl() {
+        return ttl;
+    }
+
+    void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * Replaces the bonded entries with the adapter's current bond list.
+     */
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    void seed(BluetoothAdapter adapter) {
+        Set<BluetoothDevice> bonded = adapter.getBondedDevices();
+        if (bonded == null) return;
+        for (BluetoothDevice device : bonded) {
+            CachedDevice previous = devices.get(device.getAddress());
+            devices.put(device.getAddress(), CachedDevice.of(device, previous != null ? previous.lastSeen : 0));
+        }
+        for (Iterator<CachedDevice> it = devices.values().iterator(); it.hasNext();) {
+            CachedDevice entry = it.next();
+            if (entry.isBonded() && !bonded.contains(entry.device)) {
+                it.remove();
+            }
+        }
+        seeded = true;
+        Logger.debug("Device cache seeded with {} bonded device(s)", bonded.size());
+    }
+
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    void seedIfNeeded(BluetoothAdapter adapter) {
+        if (!seeded) {
+            seed(adapter);
+        }
+    }
+
+    /**
+     * Records that discovery has just reported {@code device} and returns its fresh snapshot.
+     */
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    CachedDevice discovered(BluetoothDevice device) {
+        CachedDevice entry = CachedDevice.of(device, System.currentTimeMillis());
+        devices.put(entry.address, entry);
+        return entry;
+    }
+
+    /**
+     * Returns the snapshot for {@code device}, taking one if the device is not cached.
+     */
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    CachedDevice describe(BluetoothDevice device) {
+        CachedDevice entry = get(device.getAddress());
+        if (entry != null) {
+            return entry;
+        }
+        entry = CachedDevice.of(device, 0);
+        if (entry.isBonded()) {
+            devices.putIfAbsent(entry.address, entry);
+        }
+        return entry;
+    }
+
+    CachedDevice get(String address) {
+        CachedDevice entry = devices.get(address);
+        if (entry != null && isExpired(entry, System.currentTimeMillis())) {
+            devices.remove(address, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    List<CachedDevice> getAll() {
+        long now = System.currentTimeMillis();
+        List<CachedDevice> result = new ArrayList<>(devices.size());
+        for (Iterator<CachedDevice> it = devices.values().iterator(); it.hasNext();) {
+            CachedDevice entry = it.next();
+            if (isExpired(entry, now)) {
+                it.remove();
+            } else {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Drops the snapshot of a device whose properties are about to change, such as its bond state.
+     */
+    void invalidate(String address) {
+        devices.remove(address);
+    }
+
+    private boolean isExpired(CachedDevice entry, long now) {
+        return !entry.isBonded() && !entry.isNearby(now, ttl);
+    }
+}
@@ -0,0 +1,103 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Collects outgoing events per event name and hands them on as one batch once {@code maxSize}
+ * events are buffered or the first of them is {@code maxDelay} ms old. Crossing the WebView bridge
+ * costs about the same for one event as for a hundred, so batching lets high-rate events through.
+ * <p>
+ * Bypassed events go out straight away, but only after every pending batch, so listeners still see
+ * events in the order they were raised. Emitting happens with the batcher locked for the same
+ * reason; the emitters must not call back into it.
+ */
+final class EventBatcher<T> {
+
+    static final int DEFAULT_MAX_SIZE = 64;
+
+    private final BiConsumer<String, T> emitter;
+    private final BiConsumer<String, List<T>> batchEmitter;
+    private final HashedTimerWheel timer;
+    private final Map<String, Batch> batches = new LinkedHashMap<>();
+    private int maxSize = DEFAULT_MAX_SIZE;
+    private long maxDelay;
+    private Set<String> bypass = Collections.emptySet();
+
+    /**
+     * @param emitter      sends a single event
+     * @param batchEmitter sends the buffered events of one name, oldest first
+     */
+    EventBatcher(BiConsumer<String, T> emitter, BiConsumer<String, List<T>> batchEmitter, HashedTimerWheel timer) {
+        this.emitter = emitter;
+        this.batchEmitter = batchEmitter;
+        this.timer = timer;
+    }
+
+    /**
+     * Applies new limits, flushing whatever is buffered first. A {@code maxDelay} of 0 turns
+     * batching off.
+     *
+     * @param bypass names of events that are never batched
+     */
+    synchronized void configure(int maxSize, long maxDelay, Set<String> bypass) {
+        flushAll();
+        this.maxSize = Math.max(1, maxSize);
+        this.maxDelay = Math.max(0, maxDelay);
+        this.bypass = new HashSet<>(bypass);
+    }
+
+    synchronized void offer(String name, T event) {
+        if (maxDelay <= 0 || bypass.contains(name)) {
+            flushAll();
+            emitter.accept(name, event);
+            return;
+        }
+        Batch batch = batches.get(name);
+        if (batch == null) {
+            batch = new Batch();
+            batches.put(name, batch);
+            Batch scheduled = batch;
+            batch.timeout = timer.schedule(() -> flush(name, scheduled), maxDelay, TimeUnit.MILLISECONDS);
+        }
+        batch.events.add(event);
+        if (batch.events.size() >= maxSize) {
+            batches.remove(name);
+            batch.timeout.cancel();
+            batchEmitter.accept(name, batch.events);
+        }
+    }
+
+    /**
+     * Sends every buffered event, batches with the oldest first event first.
+     */
+    synchronized void flushAll() {
+        Iterator<Map.Entry<String, Batch>> pending = batches.entrySet().iterator();
+        while (pending.hasNext()) {
+            Map.Entry<String, Batch> entry = pending.next();
+            pending.remove();
+            entry.getValue().timeout.cancel();
+            batchEmitter.accept(entry.getKey(), entry.getValue().events);
+        }
+    }
+
+    private synchronized void flush(String name, Batch batch) {
+        if (batches.remove(name, batch)) {
+            batchEmitter.accept(name, batch.events);
+        }
+    }
+
+    private final class Batch {
+
+        final List<T> events = new ArrayList<>();
+        HashedTimerWheel.Timeout timeout;
+    }
+}
@@ -0,0 +1,295 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.LongConsumer;
+
+/**
+ * Streams inbound bytes from a connection into a channel on its own thread until a stop condition
+ * is met. Bytes are taken from the read buffer as soon as they arrive and gathered into a fixed
+ * write buffer, so memory stays flat however much is received.
+ */
+final class FileReceiver implements Runnable {
+
+    static final int DEFAULT_PROGRESS_INTERVAL = 100;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Why a transfer ended.
+     */
+    enum StopReason {
+        /**
+         * The requested number of bytes was received.
+         */
+        COUNT,
+        /**
+         * The delimiter was received. It is the last thing written to the file.
+         */
+        DELIMITER,
+        /**
+         * Nothing arrived for the idle timeout.
+         */
+        IDLE,
+        /**
+         * The overall timeout elapsed.
+         */
+        TIMEOUT,
+        /**
+         * The connection closed.
+         */
+        DISCONNECTED
+    }
+
+    private final Connection connection;
+    private final WritableByteChannel sink;
+    private final long maxBytes;
+    private final byte[] delimiter;
+    private final long idleTimeoutNanos;
+    private final long timeoutNanos;
+    private final long progressIntervalNanos;
+    private final LongConsumer progressListener;
+    private final CompletableFuture<FileReceiver> result = new CompletableFuture<>();
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+    private final Thread thread;
+    private volatile boolean cancelled;
+    private volatile long received;
+    private long elapsedNanos;
+    private StopReason stopReason;
+
+    /**
+     * Every condition is optional, but at least one must be given.
+     *
+     * @param maxBytes         stop after this many bytes, or 0 for no limit
+     * @param delimiter        stop after this sequence, or {@code null}
+     * @param idleTimeout      stop once nothing has arrived for this many ms, or 0 to wait forever
+     * @param timeout          stop after this many ms in total, or 0 for no limit
+     * @param progressInterval minimum time in ms between progress reports
+     * @param progressListener told the number of bytes written so far
+     */
+    FileReceiver(
+        Connection connection,
+        WritableByteChannel sink,
+        long maxBytes,
+        byte[] delimiter,
+        int idleTimeout,
+        int timeout,
+        int progressInterval,
+        LongConsumer progressListener
+    ) {
+        if (maxBytes <= 0 && (delimiter == null || delimiter.length == 0) && idleTimeout <= 0 && timeout <= 0) {
+            throw new IllegalArgumentException("At least one stop condition is required");
+        }
+        this.connection = connection;
+        this.sink = sink;
+        this.maxBytes = Math.max(0, maxBytes);
+        this.delimiter = delimiter == null || delimiter.length == 0 ? null : delimiter.clone();
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, idleTimeout));
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, timeout));
+        this.progressIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, progressInterval));
+        this.progressListener = progressListener;
+        this.thread = new Thread(this, "BluetoothClassic-receive-" + connection.getAddress());
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts receiving. The returned future completes once a stop condition is met, or fails with
+     * a {@link CancellationException} after {@link #cancel()}. Whatever was received before a
+     * failure stays in the channel. Other reads on the connection are rejected until the transfer
+     * stops, so none of its bytes can go elsewhere.
+     */
+    CompletableFuture<FileReceiver> start() {
+        try {
+            connection.startReceiving();
+        } catch (IOException e) {
+            try {
+                sink.close();
+            } catch (IOException ignore) {}
+            result.completeExceptionally(e);
+            return result;
+        }
+        thread.start();
+        return result;
+    }
+
+    void cancel() {
+        cancelled = true;
+        thread.interrupt();
+    }
+
+    long getBytes() {
+        return received;
+    }
+
+    /**
+     * Time in ms from the start until the transfer stopped.
+     */
+    long getDuration() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    StopReason getStopReason() {
+        return stopReason;
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        try (WritableByteChannel channel = sink) {
+            try {
+                receive(channel, start);
+            } finally {
+                connection.stopReceiving();
+                // Keep whatever arrived, even if the transfer failed.
+                flush(channel);
+            }
+            elapsedNanos = System.nanoTime() - start;
+            progressListener.accept(received);
+            result.complete(this);
+        } catch (InterruptedException | CancellationException e) {
+            elapsedNanos = System.nanoTime() - start;
+            result.completeExceptionally(new CancellationException("Transfer cancelled"));
+        } catch (IOException e) {
+            elapsedNanos = System.nanoTime() - start;
+            // Interrupting a channel write closes the channel.
+            result.completeExceptionally(cancelled ? new CancellationException("Transfer cancelled") : e);
+        }
+    }
+
+    private void receive(WritableByteChannel channel, long start) throws IOException, InterruptedException {
+        long deadline = start + timeoutNanos;
+        long lastProgress = start;
+        while (stopReason == null) {
+            if (cancelled) throw new CancellationException("Transfer cancelled");
+            long limit = maxBytes > 0 ? maxBytes - received : Integer.MAX_VALUE;
+            if (limit <= 0) {
+                stopReason = StopReason.COUNT;
+                break;
+            }
+            Chunk chunk = new Chunk((int) Math.min(limit, Integer.MAX_VALUE), delimiter);
+            byte[] data = next(chunk, deadline);
+            if (data == null) break;
+            write(channel, data);
+            received += data.length;
+            if (chunk.delimited) {
+                stopReason = StopReason.DELIMITER;
+            }
+            long now = System.nanoTime();
+            if (now - lastProgress >= progressIntervalNanos) {
+                lastProgress = now;
+                progressListener.accept(received);
+            }
+        }
+        if (delimiter != null && stopReason != StopReason.DELIMITER && stopReason != StopReason.COUNT) {
+            // Bytes held back as a possible start of the delimiter will not be settled any more.
+            byte[] rest = connection.drain((int) Math.min(maxBytes > 0 ? maxBytes - received : Integer.MAX_VALUE, Integer.MAX_VALUE));
+            write(channel, rest);
+            received += rest.length;
+        }
+    }
+
+    /**
+     * Waits for the next chunk of inbound data. Returns {@code null} and sets {@link #stopReason}
+     * when the connection goes idle, the deadline passes or the connection closes.
+     */
+    private byte[] next(Chunk chunk, long deadline) throws IOException, InterruptedException {
+        CompletableFuture<byte[]> read = connection.receive(chunk);
+        long remaining = timeoutNanos > 0 ? deadline - System.nanoTime() : Long.MAX_VALUE;
+        long wait = idleTimeoutNanos > 0 ? Math.min(idleTimeoutNanos, remaining) : remaining;
+        try {
+            try {
+                return read.get(Math.max(0, wait), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // Abandon the read unless it completed just now, in which case its bytes are consumed.
+                if (!read.cancel(false)) return read.get();
+                stopReason = wait < remaining ? StopReason.IDLE : StopReason.TIMEOUT;
+                return null;
+            }
+        } catch (InterruptedException e) {
+            read.cancel(false);
+            throw e;
+        } catch (ExecutionException e) {
+            if (!connection.isInputClosed()) {
+                throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+            }
+            stopReason = StopReason.DISCONNECTED;
+            return null;
+        }
+    }
+
+    private void write(WritableByteChannel channel, byte[] data) throws IOException {
+        if (data.length > writeBuffer.remaining()) {
+            flush(channel);
+        }
+        if (data.length >= writeBuffer.capacity()) {
+            ByteBuffer source = ByteBuffer.wrap(data);
+            while (source.hasRemaining()) {
+                channel.write(source);
+            }
+            return;
+        }
+        writeBuffer.put(data);
+    }
+
+    private void flush(WritableByteChannel channel) throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            channel.write(writeBuffer);
+        }
+        writeBuffer.clear();
+    }
+
+    /**
+     * Matches every buffered byte as soon as it arrives, up to a byte limit and through the first
+     * delimiter. Bytes that could be the start of a delimiter are held back until the next byte
+     * settles it, or until the transfer stops for another reason and they are drained.
+     */
+    private static final class Chunk implements FrameDecoder {
+
+        private final int limit;
+        private final DelimiterFrameDecoder delimiter;
+        /**
+         * Whether the matched bytes end with the delimiter.
+         */
+        boolean delimited;
+
+        Chunk(int limit, byte[] delimiter) {
+            this.limit = limit;
+            this.delimiter = delimiter == null ? null : new DelimiterFrameDecoder(delimiter, true);
+        }
+
+        @Override
+        public int match(RingBuffer buffer) {
+            int length = Math.min(buffer.size(), limit);
+            if (delimiter != null) {
+                int frame = delimiter.match(buffer);
+                if (frame >= 0 && frame <= length) {
+                    delimited = true;
+                    return frame;
+                }
+                if (frame < 0 && length < limit) {
+                    length -= delimiter.partialMatch();
+                }
+            }
+            return length > 0 ? length : -1;
+        }
+
+        @Override
+        public byte[] decode(RingBuffer buffer, int length) {
+            return buffer.peek(length);
+        }
+
+        @Override
+        public void reset() {
+            delimited = false;
+            if (delimiter != null) {
+                delimiter.reset();
+            }
+        }
+    }
+}
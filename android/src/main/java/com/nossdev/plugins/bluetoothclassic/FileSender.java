@@ -0,0 +1,148 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * Streams a channel to a connection on its own thread, a chunk at a time, without ever holding
+ * more than two chunks: the next chunk is read while the previous one is being written, and a
+ * buffer is only refilled once its write has completed. That keeps memory flat however large the
+ * file, and paces reading to the speed of the link.
+ */
+final class FileSender implements Runnable {
+
+    static final int DEFAULT_CHUNK_SIZE = 4 * 1024;
+    static final int DEFAULT_PROGRESS_INTERVAL = 100;
+
+    private final Connection connection;
+    private final ReadableByteChannel source;
+    private final int chunkSize;
+    private final long chunkDelayNanos;
+    private final long progressIntervalNanos;
+    private final LongConsumer progressListener;
+    private final CompletableFuture<FileSender> result = new CompletableFuture<>();
+    private final AtomicLong sent = new AtomicLong();
+    private final Thread thread;
+    private volatile boolean cancelled;
+    private long elapsedNanos;
+
+    /**
+     * @param chunkDelay       pause in ms after each chunk is written, for slow peers
+     * @param progressInterval minimum time in ms between progress reports
+     * @param progressListener told the number of bytes written so far
+     */
+    FileSender(
+        Connection connection,
+        ReadableByteChannel source,
+        int chunkSize,
+        int chunkDelay,
+        int progressInterval,
+        LongConsumer progressListener
+    ) {
+        this.connection = connection;
+        this.source = source;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunkDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, chunkDelay));
+        this.progressIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, progressInterval));
+        this.progressListener = progressListener;
+        this.thread = new Thread(this, "BluetoothClassic-send-" + connection.getAddress());
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts sending. The returned future completes once every byte has been written, or fails
+     * with a {@link CancellationException} after {@link #cancel()}.
+     */
+    CompletableFuture<FileSender> start() {
+        thread.start();
+        return result;
+    }
+
+    void cancel() {
+        cancelled = true;
+        thread.interrupt();
+    }
+
+    long getBytes() {
+        return sent.get();
+    }
+
+    /**
+     * Time in ms from the start until the last byte was written.
+     */
+    long getDuration() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    double getBytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : sent.get() * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        long lastProgress = start;
+        byte[][] buffers = { new byte[chunkSize], new byte[chunkSize] };
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        CompletableFuture<Void>[] writes = new CompletableFuture[2];
+        try (ReadableByteChannel channel = source) {
+            for (int slot = 0;; slot ^= 1) {
+                if (cancelled) throw new CancellationException("Transfer cancelled");
+                if (writes[slot] != null) {
+                    writes[slot].get();
+                }
+                long now = System.nanoTime();
+                if (now - lastProgress >= progressIntervalNanos) {
+                    lastProgress = now;
+                    progressListener.accept(sent.get());
+                }
+                int count = readChunk(channel, buffers[slot]);
+                if (count <= 0) break;
+                byte[] chunk = count == chunkSize ? buffers[slot] : Arrays.copyOf(buffers[slot], count);
+                writes[slot] = connection.write(chunk).thenRun(() -> sent.addAndGet(count));
+                if (chunkDelayNanos > 0) {
+                    writes[slot].get();
+                    TimeUnit.NANOSECONDS.sleep(chunkDelayNanos);
+                }
+            }
+            for (CompletableFuture<Void> write : writes) {
+                if (write != null) {
+                    write.get();
+                }
+            }
+            elapsedNanos = System.nanoTime() - start;
+            progressListener.accept(sent.get());
+            result.complete(this);
+        } catch (InterruptedException | CancellationException e) {
+            elapsedNanos = System.nanoTime() - start;
+            result.completeExceptionally(new CancellationException("Transfer cancelled"));
+        } catch (ExecutionException e) {
+            elapsedNanos = System.nanoTime() - start;
+            result.completeExceptionally(e.getCause());
+        } catch (IOException e) {
+            elapsedNanos = System.nanoTime() - start;
+            // Interrupting a channel read closes the channel.
+            result.completeExceptionally(cancelled ? new CancellationException("Transfer cancelled") : e);
+        }
+    }
+
+    /**
+     * Fills {@code chunk} unless the channel ends first. Returns the number of bytes read, or -1
+     * at the end of the channel.
+     */
+    private static int readChunk(ReadableByteChannel channel, byte[] chunk) throws IOException {
+        ByteBuffer target = ByteBuffer.wrap(chunk);
+        while (target.hasRemaining()) {
+            if (channel.read(target) < 0) break;
+        }
+        return target.position() == 0 ? -1 : target.position();
+    }
+}
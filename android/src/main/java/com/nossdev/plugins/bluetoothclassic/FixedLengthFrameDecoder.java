@@ -0,0 +1,29 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+/**
+ * Frames of a constant size.
+ */
+final class FixedLengthFrameDecoder implements FrameDecoder {
+
+    private final int frameSize;
+
+    FixedLengthFrameDecoder(int frameSize) {
+        if (frameSize <= 0) {
+            throw new IllegalArgumentException("Frame size must be positive: " + frameSize);
+        }
+        this.frameSize = frameSize;
+    }
+
+    @Override
+    public int match(RingBuffer buffer) {
+        return buffer.size() >= frameSize ? frameSize : -1;
+    }
+
+    @Override
+    public byte[] decode(RingBuffer buffer, int length) {
+        return buffer.peek(length);
+    }
+
+    @Override
+    public void reset() {}
+}
@@ -0,0 +1,32 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.io.IOException;
+
+/**
+ * Incrementally splits buffered inbound bytes into frames.
+ * <p>
+ * Decoding is two-phase so a frame is only consumed once it has been handed off: {@link #match}
+ * locates the next frame, {@link #decode} builds its payload without consuming anything, and the
+ * caller then skips the matched bytes and calls {@link #reset}. Implementations may keep scan
+ * state between {@code match} calls, which stays valid as long as the buffer is only appended to.
+ */
+interface FrameDecoder {
+    /**
+     * Returns how many of the oldest buffered bytes make up the next complete frame, or -1 if
+     * more data is needed. Repeated calls without a {@link #reset} return the same length.
+     *
+     * @throws IOException if the stream cannot be framed and should be discarded
+     */
+    int match(RingBuffer buffer) throws IOException;
+
+    /**
+     * Builds the payload of the frame occupying the first {@code length} buffered bytes, or
+     * returns {@code null} if the frame carries nothing and should be dropped.
+     */
+    byte[] decode(RingBuffer buffer, int length) throws IOException;
+
+    /**
+     * Forgets any scan state. Called whenever bytes are consumed from the buffer.
+     */
+    void reset();
+}
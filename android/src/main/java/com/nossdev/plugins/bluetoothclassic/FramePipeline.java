@@ -0,0 +1,171 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stages run on every received frame before it is handed out, so frames nobody wants never cross
+ * the bridge. Each stage passes a frame on, possibly changed, or drops it. Stages run on the
+ * reader thread with its buffer locked and must be quick.
+ * <p>
+ * The optional {@link Transform} is applied later, when a frame is marshalled for JavaScript.
+ */
+final class FramePipeline {
+
+    /**
+     * Text form in which frames are delivered instead of bytes.
+     */
+    enum Transform {
+        HEX,
+        ASCII
+    }
+
+    private final List<Stage> stages;
+    private final Transform transform;
+    private final LongAdder framesDropped;
+
+    /**
+     * @param transform     text form for delivered frames, or {@code null} to deliver bytes
+     * @param framesDropped counts every frame a stage drops
+     */
+    FramePipeline(List<Stage> stages, Transform transform, LongAdder framesDropped) {
+        this.stages = new ArrayList<>(stages);
+        this.transform = transform;
+        this.framesDropped = framesDropped;
+    }
+
+    Transform getTransform() {
+        return transform;
+    }
+
+    /**
+     * Runs {@code frame} through every stage. Returns the frame to deliver, or {@code null} if a
+     * stage dropped it.
+     */
+    byte[] apply(byte[] frame) {
+        for (Stage stage : stages) {
+            frame = stage.apply(frame);
+            if (frame == null) {
+                framesDropped.increment();
+                return null;
+            }
+        }
+        return frame;
+    }
+
+    interface Stage {
+        /**
+         * Returns the frame to pass on, or {@code null} to drop it.
+         */
+        byte[] apply(byte[] frame);
+    }
+
+    /**
+     * Drops frames whose trailing checksum does not match. The checksum covers everything after
+     * the first {@code offset} bytes and before the checksum itself.
+     *
+     * @param strip whether to remove the checksum from frames that pass
+     */
+    static Stage checksum(Checksum checksum, boolean littleEndian, int offset, boolean strip) {
+        return frame -> {
+            int length = frame.length - checksum.size - offset;
+            if (length < 0) {
+                Logger.debug("Dropping frame too short for {}: {} bytes", checksum, frame.length);
+                return null;
+            }
+            long expected = 0;
+            for (int i = 0; i < checksum.size; i++) {
+                int index = littleEndian ? frame.length - 1 - i : frame.length - checksum.size + i;
+                expected = (expected << 8) | (frame[index] & 0xFF);
+            }
+            long actual = checksum.compute(frame, offset, length);
+            if (actual != expected) {
+                Logger.debug(
+                    "Dropping frame with bad {}: expected {} but was {}",
+                    checksum,
+                    Long.toHexString(expected),
+                    Long.toHexString(actual)
+                );
+                return null;
+            }
+            return strip ? Arrays.copyOf(frame, frame.length - checksum.size) : frame;
+        };
+    }
+
+    /**
+     * Drops frames that start with {@code prefix}, such as keep-alives.
+     */
+    static Stage dropPrefix(byte[] prefix) {
+        return frame -> {
+            if (frame.length < prefix.length) return frame;
+            for (int i = 0; i < prefix.length; i++) {
+                if (frame[i] != prefix[i]) return frame;
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Drops frames whose leading bytes, ANDed with {@code mask}, equal {@code value}.
+     */
+    static Stage dropMask(byte[] mask, byte[] value) {
+        if (mask.length != value.length) {
+            throw new IllegalArgumentException("Mask and value must have the same length");
+        }
+        return frame -> {
+            if (frame.length < mask.length) return frame;
+            for (int i = 0; i < mask.length; i++) {
+                if ((frame[i] & mask[i]) != value[i]) return frame;
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Drops a frame identical to one passed on less than {@code window} ms earlier. A frame that
+     * keeps repeating therefore still gets through once per window.
+     */
+    static Stage dedup(int window) {
+        return new Dedup(TimeUnit.MILLISECONDS.toNanos(window));
+    }
+
+    private static final class Dedup implements Stage {
+
+        /**
+         * Distinct frames remembered at once. Older ones are forgotten first.
+         */
+        private static final int MAX_ENTRIES = 64;
+
+        private final long windowNanos;
+        private final Map<ByteBuffer, Long> seen = new LinkedHashMap<>();
+
+        Dedup(long windowNanos) {
+            this.windowNanos = windowNanos;
+        }
+
+        @Override
+        public byte[] apply(byte[] frame) {
+            long now = System.nanoTime();
+            ByteBuffer key = ByteBuffer.wrap(frame);
+            Long passed = seen.get(key);
+            if (passed != null && now - passed < windowNanos) return null;
+            seen.remove(key);
+            seen.put(key, now);
+            // Insertion order is also time order, so expired entries are all at the front.
+            Iterator<Long> oldest = seen.values().iterator();
+            while (oldest.hasNext()) {
+                long time = oldest.next();
+                if (seen.size() <= MAX_ENTRIES && now - time < windowNanos) break;
+                oldest.remove();
+            }
+            return frame;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timer wheel used for read timeouts and other short delays. A single worker thread is
+ * started on first use and parks while nothing is scheduled, so idle connections cost no wakeups.
+ * Scheduling and cancelling are O(1) and never create threads.
+ */
+final class HashedTimerWheel {
+
+    private static final long DEFAULT_TICK_MILLIS = 10;
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final class Holder {
+
+        static final HashedTimerWheel SHARED = new HashedTimerWheel(DEFAULT_TICK_MILLIS, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+    }
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger activeTimeouts = new AtomicInteger();
+    private final Object idleLock = new Object();
+    private Thread worker;
+    private boolean idle;
+
+    HashedTimerWheel(long tickDuration, TimeUnit unit, int wheelSize) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickNanos = Math.max(1, unit.toNanos(tickDuration));
+        this.wheel = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = wheelSize - 1;
+    }
+
+    static HashedTimerWheel shared() {
+        return Holder.SHARED;
+    }
+
+    Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Timeout timeout = new Timeout(this, task, System.nanoTime() + unit.toNanos(Math.max(0, delay)));
+        activeTimeouts.incrementAndGet();
+        pendingTimeouts.add(timeout);
+        synchronized (idleLock) {
+            if (worker == null) {
+                worker = new Thread(this::run, "BluetoothClassic-timer");
+                worker.setDaemon(true);
+                worker.start();
+            } else if (idle) {
+                idleLock.notifyAll();
+            }
+        }
+        return timeout;
+    }
+
+    /**
+     * Fails {@code future} with a {@link TimeoutException} unless it completes within
+     * {@code timeout} ms. The timeout is cancelled as soon as the future completes.
+     */
+    void failAfter(CompletableFuture<?> future, int timeout) {
+        if (future.isDone()) return;
+        Timeout handle = schedule(
+            () -> {
+                if (future.completeExceptionally(new TimeoutException("Timed out after " + timeout + " ms"))) {
+                    Logger.warn("Operation timed out after {}ms", timeout);
+                }
+            },
+            timeout,
+            TimeUnit.MILLISECONDS
+        );
+        future.whenComplete((value, error) -> handle.cancel());
+    }
+
+    /**
+     * Number of timeouts that have neither fired nor been cancelled.
+     */
+    int pendingCount() {
+        return activeTimeouts.get();
+    }
+
+    private void run() {
+        long startTime = System.nanoTime();
+        long tick = 0;
+        while (true) {
+            if (activeTimeouts.get() == 0) {
+                removeCancelled();
+                if (!awaitWork()) return;
+                startTime = System.nanoTime();
+                tick = 0;
+            }
+            long deadline = startTime + (tick + 1) * tickNanos;
+            long sleep;
+            while ((sleep = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+            removeCancelled();
+            transferPending(startTime, tick);
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    /**
+     * Parks the worker until a timeout is scheduled. Returns {@code false} if interrupted.
+     */
+    private boolean awaitWork() {
+        synchronized (idleLock) {
+            idle = true;
+            try {
+                while (activeTimeouts.get() == 0) {
+                    idleLock.wait();
+                }
+            } catch (InterruptedException e) {
+                worker = null;
+                return false;
+            } finally {
+                idle = false;
+            }
+        }
+        return true;
+    }
+
+    private void transferPending(long startTime, long tick) {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.state.get() != Timeout.ST_INIT) continue;
+            long calculated = Math.max(0, (timeout.deadline - startTime) / tickNanos);
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            wheel[(int) (Math.max(calculated, tick) & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    static final class Timeout {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final HashedTimerWheel owner;
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+        // Bucket links, only touched by the worker thread.
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout next;
+        private Timeout prev;
+
+        private Timeout(HashedTimerWheel owner, Runnable task, long deadline) {
+            this.owner = owner;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the timeout if it has not fired yet. Returns {@code true} if this call cancelled it.
+         */
+        boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) return false;
+            owner.activeTimeouts.decrementAndGet();
+            owner.cancelledTimeouts.add(this);
+            return true;
+        }
+
+        boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(ST_INIT, ST_EXPIRED)) return;
+            owner.activeTimeouts.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                Logger.error("Timer task failed", t);
+            }
+        }
+    }
+
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire() {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) return;
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = timeout.next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
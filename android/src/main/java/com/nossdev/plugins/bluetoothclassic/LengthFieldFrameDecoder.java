@@ -0,0 +1,51 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.io.IOException;
+
+/**
+ * Frames prefixed with an unsigned 1, 2 or 4 byte length field. The returned payload excludes
+ * the header.
+ */
+final class LengthFieldFrameDecoder implements FrameDecoder {
+
+    private final int fieldSize;
+    private final boolean littleEndian;
+    private final boolean lengthIncludesHeader;
+    private final int maxFrameLength;
+
+    LengthFieldFrameDecoder(int fieldSize, boolean littleEndian, boolean lengthIncludesHeader, int maxFrameLength) {
+        if (fieldSize != 1 && fieldSize != 2 && fieldSize != 4) {
+            throw new IllegalArgumentException("Length field size must be 1, 2 or 4: " + fieldSize);
+        }
+        this.fieldSize = fieldSize;
+        this.littleEndian = littleEndian;
+        this.lengthIncludesHeader = lengthIncludesHeader;
+        this.maxFrameLength = maxFrameLength;
+    }
+
+    @Override
+    public int match(RingBuffer buffer) throws IOException {
+        if (buffer.size() < fieldSize) return -1;
+        long value = 0;
+        for (int i = 0; i < fieldSize; i++) {
+            int b = buffer.get(littleEndian ? fieldSize - 1 - i : i) & 0xFF;
+            value = (value << 8) | b;
+        }
+        long frameLength = lengthIncludesHeader ? value : value + fieldSize;
+        if (frameLength < fieldSize || frameLength > maxFrameLength) {
+            throw new IOException("Invalid frame length: " + value);
+        }
+        return buffer.size() >= frameLength ? (int) frameLength : -1;
+    }
+
+    @Override
+    public byte[] decode(RingBuffer buffer, int length) {
+        byte[] frame = buffer.peek(length);
+        byte[] payload = new byte[length - fieldSize];
+        System.arraycopy(frame, fieldSize, payload, 0, payload.length);
+        return payload;
+    }
+
+    @Override
+    public void reset() {}
+}
@@ -0,0 +1,50 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * One established transport to a device: the socket and the streams opened on it. A managed
+ * {@link Connection} replaces its link every time it reconnects.
+ */
+final class Link implements Closeable {
+
+    final Closeable socket;
+    final InputStream inputStream;
+    final OutputStream outputStream;
+
+    Link(Closeable socket, InputStream inputStream, OutputStream outputStream) {
+        this.socket = socket;
+        this.inputStream = inputStream;
+        this.outputStream = outputStream;
+    }
+
+    /**
+     * Closes both streams and the socket, rethrowing the first failure once all have been closed.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Closeable closeable : new Closeable[] { inputStream, outputStream, socket }) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Opens a new link to the same device.
+     */
+    interface Connector {
+        Link open() throws IOException;
+    }
+}
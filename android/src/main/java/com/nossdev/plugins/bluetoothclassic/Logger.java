@@ -1,54 +1,171 @@
 package com.nossdev.plugins.bluetoothclassic;
 
 import android.util.Log;
-import java.util.Objects;
+import java.util.function.Supplier;
 
+/**
+ * Level-gated logging. A call below the current level returns after a single field read: messages
+ * are only built from their {@code {}} templates, arguments or suppliers once they will be logged.
+ * Caller file and line are off by default because capturing them walks the stack on every call.
+ */
 public final class Logger {
 
+    public enum Level {
+        DEBUG,
+        INFO,
+        WARN,
+        ERROR,
+        NONE
+    }
+
     private static final String TAG = "BluetoothClassic";
     private static final String EMOJI_PREFIX = "📡";
 
+    private static volatile Level level = Level.INFO;
+    private static volatile boolean callerInfo;
+
     private Logger() {}
 
+    public static Level getLevel() {
+        return level;
+    }
+
+    public static void setLevel(Level level) {
+        Logger.level = level;
+    }
+
+    /**
+     * Prefixes every message with the file, method and line it was logged from.
+     */
+    public static void setCallerInfo(boolean callerInfo) {
+        Logger.callerInfo = callerInfo;
+    }
+
+    public static boolean isEnabled(Level candidate) {
+        return candidate.compareTo(level) >= 0;
+    }
+
+    public static boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
     public static void debug(String message) {
-        Log.d(TAG, String.format("%s %s %s", EMOJI_PREFIX, getCallerInfo(), message));
+        if (isEnabled(Level.DEBUG)) log(Level.DEBUG, message, null);
+    }
+
+    public static void debug(String template, Object arg) {
+        if (isEnabled(Level.DEBUG)) log(Level.DEBUG, format(template, arg, null, null, 1), null);
+    }
+
+    public static void debug(String template, Object arg1, Object arg2) {
+        if (isEnabled(Level.DEBUG)) log(Level.DEBUG, format(template, arg1, arg2, null, 2), null);
+    }
+
+    public static void debug(String template, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(Level.DEBUG)) log(Level.DEBUG, format(template, arg1, arg2, arg3, 3), null);
+    }
+
+    public static void debug(Supplier<String> message) {
+        if (isEnabled(Level.DEBUG)) log(Level.DEBUG, message.get(), null);
     }
 
     public static void info(String message) {
-        Log.i(TAG, String.format("%s %s %s", EMOJI_PREFIX, getCallerInfo(), message));
+        if (isEnabled(Level.INFO)) log(Level.INFO, message, null);
+    }
+
+    public static void info(String template, Object arg) {
+        if (isEnabled(Level.INFO)) log(Level.INFO, format(template, arg, null, null, 1), null);
+    }
+
+    public static void info(String template, Object arg1, Object arg2) {
+        if (isEnabled(Level.INFO)) log(Level.INFO, format(template, arg1, arg2, null, 2), null);
+    }
+
+    public static void info(String template, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(Level.INFO)) log(Level.INFO, format(template, arg1, arg2, arg3, 3), null);
+    }
+
+    public static void info(Supplier<String> message) {
+        if (isEnabled(Level.INFO)) log(Level.INFO, message.get(), null);
     }
 
     public static void warn(String message) {
-        Log.w(TAG, String.format("%s %s %s", EMOJI_PREFIX, getCallerInfo(), message));
+        if (isEnabled(Level.WARN)) log(Level.WARN, message, null);
+    }
+
+    public static void warn(String template, Object arg) {
+        if (isEnabled(Level.WARN)) log(Level.WARN, format(template, arg, null, null, 1), null);
+    }
+
+    public static void warn(String template, Object arg1, Object arg2) {
+        if (isEnabled(Level.WARN)) log(Level.WARN, format(template, arg1, arg2, null, 2), null);
+    }
+
+    public static void warn(String template, Object arg1, Object arg2, Object arg3) {
+        if (isEnabled(Level.WARN)) log(Level.WARN, format(template, arg1, arg2, arg3, 3), null);
     }
 
     public static void error(String message, Throwable e) {
-        Log.e(TAG, String.format("%s %s %s", EMOJI_PREFIX, getCallerInfo(e), message), e);
+        if (isEnabled(Level.ERROR)) log(Level.ERROR, message, e);
     }
 
     public static void error(String message) {
-        Log.e(TAG, String.format("%s %s %s", EMOJI_PREFIX, getCallerInfo(), message));
+        if (isEnabled(Level.ERROR)) log(Level.ERROR, message, null);
+    }
+
+    public static void error(String template, Object arg) {
+        if (isEnabled(Level.ERROR)) log(Level.ERROR, format(template, arg, null, null, 1), null);
     }
 
-    private static String getCallerInfo(Throwable t) {
-        StackTraceElement[] stackTrace = t.getStackTrace();
-        if (stackTrace.length > 0) {
-            return getCallerInfo(stackTrace[0]);
+    public static void error(String template, Object arg1, Object arg2) {
+        if (isEnabled(Level.ERROR)) log(Level.ERROR, format(template, arg1, arg2, null, 2), null);
+    }
+
+    /**
+     * Replaces the first {@code count} {@code {}} placeholders in {@code template} with the
+     * arguments, in order. Surplus placeholders are kept as they are.
+     */
+    static String format(String template, Object arg1, Object arg2, Object arg3, int count) {
+        StringBuilder result = new StringBuilder(template.length() + 16 * count);
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int placeholder = template.indexOf("{}", start);
+            if (placeholder < 0) break;
+            result.append(template, start, placeholder).append(i == 0 ? arg1 : i == 1 ? arg2 : arg3);
+            start = placeholder + 2;
         }
-        return "[Unknown]";
+        return result.append(template, start, template.length()).toString();
     }
 
-    private static String getCallerInfo() {
-        StackTraceElement[] stackTrace = new Throwable().getStackTrace();
-        if (stackTrace.length >= 4) {
-            // stackTrace[3] is the caller of the logging method.
-            return getCallerInfo(stackTrace[3]);
+    private static void log(Level messageLevel, String message, Throwable e) {
+        StringBuilder line = new StringBuilder(message.length() + 48).append(EMOJI_PREFIX).append(' ');
+        if (callerInfo) {
+            // [0] is this method, [1] the public logging method, [2] its caller.
+            StackTraceElement[] stackTrace = e != null ? e.getStackTrace() : new Throwable().getStackTrace();
+            StackTraceElement caller = e != null ? first(stackTrace) : stackTrace.length > 2 ? stackTrace[2] : null;
+            line.append(describe(caller)).append(' ');
+        }
+        String text = line.append(message).toString();
+        switch (messageLevel) {
+            case DEBUG -> Log.d(TAG, text);
+            case INFO -> Log.i(TAG, text);
+            case WARN -> Log.w(TAG, text);
+            default -> {
+                if (e != null) {
+                    Log.e(TAG, text, e);
+                } else {
+                    Log.e(TAG, text);
+                }
+            }
         }
-        return "[Unknown]";
     }
 
-    private static String getCallerInfo(StackTraceElement caller) {
-        if (Objects.isNull(caller)) return "[Unknown]";
+    private static StackTraceElement first(StackTraceElement[] stackTrace) {
+        return stackTrace.length > 0 ? stackTrace[0] : null;
+    }
+
+    private static String describe(StackTraceElement caller) {
+        if (caller == null) return "[Unknown]";
         if (caller.getMethodName().contains("lambda")) {
             return "[lambda]";
         }
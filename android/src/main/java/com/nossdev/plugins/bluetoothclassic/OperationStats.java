@@ -0,0 +1,52 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.net.SocketTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome counters and the latency of successful calls for one kind of operation.
+ */
+final class OperationStats {
+
+    final LatencyHistogram latency = new LatencyHistogram();
+    final LongAdder errors = new LongAdder();
+    final LongAdder timeouts = new LongAdder();
+
+    /**
+     * Records the outcome of an operation that started at {@code startNanos}.
+     */
+    void record(long startNanos, Throwable error) {
+        if (error == null) {
+            latency.record(System.nanoTime() - startNanos);
+            return;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException || cause instanceof SocketTimeoutException) {
+            timeouts.increment();
+        } else {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Records the outcome of {@code future} once it completes, timing it from now.
+     */
+    <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+        long start = System.nanoTime();
+        future.whenComplete((value, error) -> record(start, error));
+        return future;
+    }
+
+    long count() {
+        return latency.count() + errors.sum() + timeouts.sum();
+    }
+
+    void reset() {
+        latency.reset();
+        errors.reset();
+        timeouts.reset();
+    }
+}
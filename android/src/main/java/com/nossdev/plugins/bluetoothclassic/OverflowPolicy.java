@@ -0,0 +1,25 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+/**
+ * What a connection does with received data that does not fit in its full inbound buffer.
+ */
+public enum OverflowPolicy {
+    /**
+     * Stops reading from the socket until the buffer drains, so the device is slowed down by
+     * RFCOMM flow control and nothing is lost.
+     */
+    BLOCK,
+    /**
+     * Discards the oldest buffered bytes to make room, keeping the most recent data.
+     */
+    DROP_OLDEST,
+    /**
+     * Discards the bytes that do not fit, keeping what is already buffered.
+     */
+    DROP_NEWEST,
+    /**
+     * Discards everything buffered and fails the pending read, or the next one if none is pending,
+     * so the gap cannot go unnoticed.
+     */
+    FAIL
+}
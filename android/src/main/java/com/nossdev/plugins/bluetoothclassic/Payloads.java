@@ -0,0 +1,66 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import android.util.Base64;
+import com.getcapacitor.JSArray;
+import org.json.JSONArray;
+
+/**
+ * Conversions between native byte arrays and the JSON byte arrays or base64 strings exchanged with
+ * JavaScript. Kept free of plugin state so the benchmark module can exercise them directly.
+ */
+final class Payloads {
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private Payloads() {}
+
+    static byte[] getBytes(JSONArray data) {
+        byte[] bytes = new byte[data.length()];
+        for (int i = 0; i < data.length(); i++) {
+            bytes[i] = (byte) data.optInt(i);
+        }
+        return bytes;
+    }
+
+    static JSArray toJSByteArray(byte[] bytes) {
+        JSArray data = new JSArray();
+        for (byte theByte : bytes) {
+            data.put(((int) theByte) & 0xFF);
+        }
+        return data;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code encoded} is not valid base64
+     */
+    static byte[] fromBase64(String encoded) {
+        return Base64.decode(encoded, Base64.DEFAULT);
+    }
+
+    static String toBase64(byte[] bytes) {
+        return Base64.encodeToString(bytes, Base64.NO_WRAP);
+    }
+
+    static String toHex(byte[] bytes) {
+        char[] text = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            text[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            text[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(text);
+    }
+
+    /**
+     * Decodes {@code bytes} as ASCII, showing control characters other than tab, CR and LF, and
+     * bytes above 0x7E, as {@code '.'}.
+     */
+    static String toAscii(byte[] bytes) {
+        char[] text = new char[bytes.length];
+        for (int i = 0; i < bytes.length; i++) {
+            int value = bytes[i] & 0xFF;
+            boolean printable = (value >= 0x20 && value < 0x7F) || value == '\t' || value == '\r' || value == '\n';
+            text[i] = printable ? (char) value : '.';
+        }
+        return new String(text);
+    }
+}
@@ -0,0 +1,67 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+/**
+ * Controls a batch run of {@link BluetoothClassic#pairAll}. By default devices are only bonded;
+ * setting {@link #connect(ConnectionConfig)} also opens a connection to each one, optionally
+ * checked with a handshake.
+ */
+public final class ProvisionOptions {
+
+    static final int DEFAULT_CONCURRENCY = 4;
+    static final int MAX_CONCURRENCY = 16;
+    static final int DEFAULT_BOND_TIMEOUT = 30_000;
+    static final int DEFAULT_HANDSHAKE_TIMEOUT = 5_000;
+
+    int concurrency = DEFAULT_CONCURRENCY;
+    int bondTimeout = DEFAULT_BOND_TIMEOUT;
+    ConnectionConfig connect;
+    byte[] handshake;
+    byte[] handshakeDelimiter;
+    int handshakeTimeout = DEFAULT_HANDSHAKE_TIMEOUT;
+    boolean keepConnected;
+
+    /**
+     * Number of devices provisioned at the same time, at most {@value #MAX_CONCURRENCY}.
+     */
+    public ProvisionOptions concurrency(int concurrency) {
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Time in ms to wait for a device to finish bonding, including any pairing prompt.
+     */
+    public ProvisionOptions bondTimeout(int bondTimeout) {
+        this.bondTimeout = bondTimeout;
+        return this;
+    }
+
+    /**
+     * Connects to every device once it is bonded, or only bonds when {@code null}.
+     */
+    public ProvisionOptions connect(ConnectionConfig connect) {
+        this.connect = connect;
+        return this;
+    }
+
+    /**
+     * Sends {@code command} after connecting and waits up to {@code timeout} ms for a reply ending
+     * with {@code delimiter}, or for any data when it is {@code null}. A device that does not answer
+     * fails.
+     */
+    public ProvisionOptions handshake(byte[] command, byte[] delimiter, int timeout) {
+        this.handshake = command;
+        this.handshakeDelimiter = delimiter;
+        this.handshakeTimeout = timeout;
+        return this;
+    }
+
+    /**
+     * Leaves the connections open afterwards. By default each one is closed as soon as its device
+     * is done, which keeps the number of open links within what the controller supports.
+     */
+    public ProvisionOptions keepConnected(boolean keepConnected) {
+        this.keepConnected = keepConnected;
+        return this;
+    }
+}
@@ -0,0 +1,250 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import android.annotation.SuppressLint;
+import android.bluetooth.BluetoothAdapter;
+import android.bluetooth.BluetoothDevice;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Bonds, and optionally connects to, a batch of devices with a bounded number in flight. Each
+ * worker thread takes the next queued device as soon as it is done with one, so the batch takes
+ * roughly its size divided by the concurrency times the time per device.
+ * <p>
+ * A bond counts as complete only once {@link BluetoothDevice#ACTION_BOND_STATE_CHANGED} reports
+ * it, not when {@link BluetoothDevice#createBond()} returns. One receiver serves the whole batch.
+ */
+final class Provisioner extends BroadcastReceiver {
+
+    enum Stage {
+        QUEUED,
+        BONDING,
+        BONDED,
+        CONNECTING,
+        CONNECTED,
+        DONE,
+        FAILED
+    }
+
+    /**
+     * Progress of one device. Only its worker thread writes it.
+     */
+    static final class Result {
+
+        final String address;
+        Stage stage = Stage.QUEUED;
+        /**
+         * Whether the device was bonded before the batch started.
+         */
+        boolean alreadyBonded;
+        byte[] reply;
+        String error;
+        long duration;
+
+        Result(String address) {
+            this.address = address;
+        }
+    }
+
+    private final BluetoothClassic classic;
+    private final Context context;
+    private final BluetoothAdapter adapter;
+    private final ProvisionOptions options;
+    private final ObjIntConsumer<Result> listener;
+    private final List<Result> results = new ArrayList<>();
+    private final Queue<Result> queue = new ConcurrentLinkedQueue<>();
+    private final Map<String, CompletableFuture<Void>> bonds = new ConcurrentHashMap<>();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final CompletableFuture<List<Result>> result = new CompletableFuture<>();
+
+    /**
+     * @param listener told about every stage a device reaches, with the number of devices done so far
+     */
+    Provisioner(
+        BluetoothClassic classic,
+        Context context,
+        BluetoothAdapter adapter,
+        List<String> addresses,
+        ProvisionOptions options,
+        ObjIntConsumer<Result> listener
+    ) {
+        this.classic = classic;
+        this.context = context.getApplicationContext();
+        this.adapter = adapter;
+        this.options = options;
+        this.listener = listener;
+        for (String address : addresses) {
+            results.add(new Result(address));
+        }
+        queue.addAll(results);
+    }
+
+    /**
+     * Starts the workers. The returned future completes with one result per address, in order,
+     * once every device has succeeded or failed.
+     */
+    CompletableFuture<List<Result>> start() {
+        if (results.isEmpty()) {
+            result.complete(Collections.emptyList());
+            return result;
+        }
+        context.registerReceiver(this, new IntentFilter(BluetoothDevice.ACTION_BOND_STATE_CHANGED));
+        int concurrency = Math.max(1, Math.min(options.concurrency, ProvisionOptions.MAX_CONCURRENCY));
+        int workers = Math.min(results.size(), concurrency);
+        running.set(workers);
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::work, "BluetoothClassic-provision-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return result;
+    }
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (!BluetoothDevice.ACTION_BOND_STATE_CHANGED.equals(intent.getAction())) return;
+        BluetoothDevice device = intent.getParcelableExtra(BluetoothDevice.EXTRA_DEVICE);
+        CompletableFuture<Void> bond = device == null ? null : bonds.get(device.getAddress());
+        if (bond == null) return;
+        int state = intent.getIntExtra(BluetoothDevice.EXTRA_BOND_STATE, BluetoothDevice.ERROR);
+        int previous = intent.getIntExtra(BluetoothDevice.EXTRA_PREVIOUS_BOND_STATE, BluetoothDevice.ERROR);
+        if (state == BluetoothDevice.BOND_BONDED) {
+            bond.complete(null);
+        } else if (state == BluetoothDevice.BOND_NONE && previous == BluetoothDevice.BOND_BONDING) {
+            bond.completeExceptionally(new IOException("Bonding failed or was rejected"));
+        }
+    }
+
+    private void work() {
+        try {
+            Result next;
+            while ((next = queue.poll()) != null) {
+                try {
+                    provision(next);
+                } catch (RuntimeException e) {
+                    // Only the progress listener can throw here; the device itself is settled.
+                    Logger.error("Provisioning listener failed", e);
+                }
+            }
+        } finally {
+            if (running.decrementAndGet() == 0) {
+                try {
+                    context.unregisterReceiver(this);
+                } catch (IllegalArgumentException ignore) {}
+                Logger.info("Provisioning finished: {} of {} device(s) succeeded", succeeded(), results.size());
+                result.complete(results);
+            }
+        }
+    }
+
+    @SuppressLint("MissingPermission")
+    private void provision(Result device) {
+        long start = System.nanoTime();
+        boolean connected = false;
+        Stage stage;
+        try {
+            bond(device);
+            advance(device, Stage.BONDED);
+            if (options.connect != null) {
+                advance(device, Stage.CONNECTING);
+                classic.connect(context, device.address, options.connect);
+                connected = true;
+                advance(device, Stage.CONNECTED);
+                if (options.handshake != null) {
+                    device.reply = handshake(device.address);
+                }
+            }
+            stage = Stage.DONE;
+        } catch (IOException | RuntimeException e) {
+            device.error = e.getMessage() != null ? e.getMessage() : e.toString();
+            stage = Stage.FAILED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            device.error = "Interrupted";
+            stage = Stage.FAILED;
+        }
+        if (connected && !options.keepConnected) {
+            try {
+                classic.disconnect(context, device.address);
+            } catch (IOException e) {
+                Logger.warn("Failed to disconnect {} after provisioning: {}", device.address, e.getMessage());
+            }
+        }
+        device.duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        if (stage == Stage.FAILED) {
+            Logger.warn("Provisioning {} failed: {}", device.address, device.error);
+        }
+        device.stage = stage;
+        listener.accept(device, completed.incrementAndGet());
+    }
+
+    @SuppressLint("MissingPermission")
+    private void bond(Result device) throws IOException, InterruptedException {
+        BluetoothDevice remote = adapter.getRemoteDevice(device.address);
+        if (remote.getBondState() == BluetoothDevice.BOND_BONDED) {
+            device.alreadyBonded = true;
+            return;
+        }
+        // Registered before createBond so a fast bond cannot be missed.
+        CompletableFuture<Void> bonded = new CompletableFuture<>();
+        bonds.put(remote.getAddress(), bonded);
+        try {
+            advance(device, Stage.BONDING);
+            if (!remote.createBond() && remote.getBondState() != BluetoothDevice.BOND_BONDING) {
+                throw new IOException("Bonding sequence not started");
+            }
+            bonded.get(options.bondTimeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IOException("Bonding timed out after " + options.bondTimeout + " ms");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        } finally {
+            bonds.remove(remote.getAddress());
+        }
+    }
+
+    private byte[] handshake(String address) throws IOException, InterruptedException {
+        try {
+            if (options.handshakeDelimiter != null) {
+                List<byte[]> command = Collections.singletonList(options.handshake);
+                return classic.transact(address, command, options.handshakeDelimiter, options.handshakeTimeout).get().get(0);
+            }
+            classic.write(address, options.handshake).get();
+            return classic.read(address, options.handshakeTimeout).get();
+        } catch (ExecutionException e) {
+            throw new IOException("Handshake failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void advance(Result device, Stage stage) {
+        device.stage = stage;
+        listener.accept(device, completed.get());
+    }
+
+    private int succeeded() {
+        int count = 0;
+        for (Result device : results) {
+            if (device.stage == Stage.DONE) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
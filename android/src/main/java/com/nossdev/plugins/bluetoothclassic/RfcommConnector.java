@@ -0,0 +1,149 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import android.Manifest;
+import android.bluetooth.BluetoothAdapter;
+import android.bluetooth.BluetoothDevice;
+import android.bluetooth.BluetoothSocket;
+import androidx.annotation.RequiresPermission;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Opens RFCOMM links. The channel a device's service was found on is remembered, so later connects
+ * with {@link ConnectionConfig#reuseChannel(boolean)} can skip the SDP lookup.
+ * <p>
+ * Connecting to a channel directly relies on the non-SDK {@code createRfcommSocket(int)} API. When
+ * it is unavailable or the cached channel no longer works, the regular service lookup is used.
+ */
+final class RfcommConnector {
+
+    private final UUID serviceId;
+    private final Runnable discoveryCanceller;
+    private final Map<String, Integer> channels = new ConcurrentHashMap<>();
+
+    /**
+     * @param discoveryCanceller stops any running device discovery before a connect
+     */
+    RfcommConnector(UUID serviceId, Runnable discoveryCanceller) {
+        this.serviceId = serviceId;
+        this.discoveryCanceller = discoveryCanceller;
+    }
+
+    @RequiresPermission(Manifest.permission.BLUETOOTH_CONNECT)
+    Link open(String address, ConnectionConfig config, ConnectTiming timing) throws IOException {
+        discoveryCanceller.run();
+        timing.cancelDiscovery = timing.lap();
+
+        BluetoothDevice device = BluetoothAdapter.getDefaultAdapter().getRemoteDevice(address);
+        Integer channel = config.reuseChannel ? channels.get(address) : null;
+        if (channel != null) {
+            try {
+                BluetoothSocket socket = createSocket(device, channel, config.secure);
+                timing.createSocket = timing.lap();
+                connect(socket, config.connectTimeout);
+                timing.connect = timing.lap();
+                timing.channel = channel;
+                timing.channelReused = true;
+                Logger.debug("Connected to {} on cached channel {}", address, channel);
+                return open(socket);
+            } catch (IOException e) {
+                Logger.warn("Cached channel {} failed for {}, looking up service: {}", channel, address, e.getMessage());
+                channels.remove(address, channel);
+                timing.lap();
+            }
+        }
+
+        BluetoothSocket socket = config.secure
+            ? device.createRfcommSocketToServiceRecord(serviceId)
+            : device.createInsecureRfcommSocketToServiceRecord(serviceId);
+        timing.createSocket = timing.lap();
+        connect(socket, config.connectTimeout);
+        timing.connect = timing.lap();
+        timing.channel = getChannel(socket);
+        if (timing.channel > 0) {
+            channels.put(address, timing.channel);
+        }
+        return open(socket);
+    }
+
+    /**
+     * Connects {@code socket}, closing it to abort the attempt once {@code timeout} ms have passed.
+     * A timeout of 0 leaves the attempt to the system, which may be waiting on a pairing prompt.
+     */
+    private static void connect(BluetoothSocket socket, int timeout) throws IOException {
+        AtomicBoolean timedOut = new AtomicBoolean();
+        HashedTimerWheel.Timeout timer = timeout <= 0
+            ? null
+            : HashedTimerWheel.shared().schedule(
+                () -> {
+                    timedOut.set(true);
+                    closeQuietly(socket);
+                },
+                timeout,
+                TimeUnit.MILLISECONDS
+            );
+        try {
+            socket.connect();
+        } catch (IOException e) {
+            closeQuietly(socket);
+            if (timedOut.get()) {
+                SocketTimeoutException timeoutException = new SocketTimeoutException("Connect timed out after " + timeout + "ms");
+                timeoutException.initCause(e);
+                throw timeoutException;
+            }
+            throw e;
+        } finally {
+            if (timer != null) {
+                timer.cancel();
+            }
+        }
+        if (timedOut.get()) {
+            closeQuietly(socket);
+            throw new SocketTimeoutException("Connect timed out after " + timeout + "ms");
+        }
+    }
+
+    private static Link open(BluetoothSocket socket) throws IOException {
+        try {
+            return new Link(socket, socket.getInputStream(), socket.getOutputStream());
+        } catch (IOException e) {
+            closeQuietly(socket);
+            throw e;
+        }
+    }
+
+    private static BluetoothSocket createSocket(BluetoothDevice device, int channel, boolean secure) throws IOException {
+        try {
+            return (BluetoothSocket) BluetoothDevice.class
+                .getMethod(secure ? "createRfcommSocket" : "createInsecureRfcommSocket", int.class)
+                .invoke(device, channel);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IOException("Connecting by channel is not supported", e);
+        }
+    }
+
+    private static int getChannel(BluetoothSocket socket) {
+        try {
+            Field port = BluetoothSocket.class.getDeclaredField("mPort");
+            port.setAccessible(true);
+            return port.getInt(socket);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static void closeQuietly(BluetoothSocket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignore) {}
+    }
+}
@@ -0,0 +1,148 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import android.bluetooth.BluetoothServerSocket;
+import android.bluetooth.BluetoothSocket;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Accepts incoming RFCOMM connections on a listening socket. The accept loop runs on its own
+ * thread and sets up each client inline: opening the streams of an accepted socket does not block,
+ * and the client's reads and writes then run on the reader and writer threads of its own
+ * connection, as for an outgoing one. Threads therefore grow with the number of clients, which
+ * {@code maxClients} bounds; there is no shared worker pool.
+ */
+final class RfcommServer {
+
+    private final BluetoothServerSocket serverSocket;
+    private final int maxClients;
+    private final Handler handler;
+    private final Thread thread;
+    /**
+     * Token per accepted client, so releasing a client replaced by a newer one from the same
+     * address leaves the newer one counted.
+     */
+    private final Map<String, Object> clients = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    RfcommServer(BluetoothServerSocket serverSocket, ServerOptions options, Handler handler) {
+        this.serverSocket = serverSocket;
+        this.maxClients = Math.max(1, Math.min(options.maxClients, ServerOptions.MAX_CLIENTS));
+        this.handler = handler;
+        this.thread = new Thread(this::acceptLoop, "BluetoothClassic-server");
+        thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    Set<String> getClients() {
+        return new HashSet<>(clients.keySet());
+    }
+
+    int getClientCount() {
+        return clients.size();
+    }
+
+    private void acceptLoop() {
+        IOException failure = null;
+        while (!closed) {
+            BluetoothSocket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (IOException e) {
+                if (!closed) {
+                    failure = e;
+                }
+                break;
+            }
+            String address = socket.getRemoteDevice().getAddress().toUpperCase(Locale.ROOT);
+            if (clients.size() >= maxClients) {
+                Logger.warn("Rejecting {}: {} client(s) already connected", address, clients.size());
+                closeQuietly(socket);
+                continue;
+            }
+            Object token = new Object();
+            clients.put(address, token);
+            setUp(address, socket, release(address, token));
+        }
+        if (failure != null) {
+            Logger.error("Server stopped accepting clients", failure);
+        }
+        close();
+        handler.onStopped(this, failure);
+    }
+
+    private void setUp(String address, BluetoothSocket socket, Runnable release) {
+        if (closed) {
+            closeQuietly(socket);
+            release.run();
+            return;
+        }
+        Link link;
+        try {
+            link = new Link(socket, socket.getInputStream(), socket.getOutputStream());
+        } catch (IOException e) {
+            Logger.warn("Failed to open streams for {}: {}", address, e.getMessage());
+            closeQuietly(socket);
+            release.run();
+            return;
+        }
+        try {
+            handler.onClient(this, address, link, release);
+            Logger.info("Client connected: {} ({} of {})", address, clients.size(), maxClients);
+        } catch (IOException | RuntimeException e) {
+            Logger.warn("Failed to set up client {}: {}", address, e.getMessage());
+            closeQuietly(link);
+            release.run();
+        }
+    }
+
+    /**
+     * Returns a one-shot callback freeing the client's slot.
+     */
+    private Runnable release(String address, Object token) {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true) && clients.remove(address, token)) {
+                Logger.info("Client disconnected: {}", address);
+            }
+        };
+    }
+
+    /**
+     * Stops listening. Clients already connected are left to the handler.
+     */
+    void close() {
+        if (closed) return;
+        closed = true;
+        closeQuietly(serverSocket);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignore) {}
+    }
+
+    interface Handler {
+        /**
+         * Takes over an accepted client. {@code release} must be run once the client is gone to
+         * free its slot. If this throws, the link is closed and the slot freed.
+         */
+        void onClient(RfcommServer server, String address, Link link, Runnable release) throws IOException;
+
+        /**
+         * Called once the accept loop has ended, with the failure that ended it or {@code null}
+         * if the server was closed.
+         */
+        void onStopped(RfcommServer server, IOException cause);
+    }
+}
@@ -0,0 +1,107 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+/**
+ * Fixed capacity circular byte buffer. Not thread-safe, callers are expected to guard it.
+ */
+final class RingBuffer {
+
+    private final byte[] data;
+    private int head;
+    private int size;
+
+    RingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.data = new byte[capacity];
+    }
+
+    int capacity() {
+        return data.length;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int remaining() {
+        return data.length - size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the byte at the given offset from the oldest buffered byte without consuming it.
+     */
+    byte get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return data[(head + index) % data.length];
+    }
+
+    /**
+     * Appends up to {@code length} bytes and returns how many fit.
+     */
+    int write(byte[] src, int offset, int length) {
+        int count = Math.min(length, remaining());
+        int tail = (head + size) % data.length;
+        int first = Math.min(count, data.length - tail);
+        System.arraycopy(src, offset, data, tail, first);
+        System.arraycopy(src, offset + first, data, 0, count - first);
+        size += count;
+        return count;
+    }
+
+    /**
+     * Copies up to {@code length} of the oldest bytes into {@code dst} without consuming them.
+     */
+    int peek(byte[] dst, int offset, int length) {
+        int count = Math.min(length, size);
+        int first = Math.min(count, data.length - head);
+        System.arraycopy(data, head, dst, offset, first);
+        System.arraycopy(data, 0, dst, offset + first, count - first);
+        return count;
+    }
+
+    byte[] peek(int length) {
+        byte[] result = new byte[Math.min(length, size)];
+        peek(result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Consumes up to {@code length} bytes into {@code dst} and returns how many were copied.
+     */
+    int read(byte[] dst, int offset, int length) {
+        int count = peek(dst, offset, length);
+        skip(count);
+        return count;
+    }
+
+    byte[] read(int length) {
+        byte[] result = new byte[Math.min(length, size)];
+        read(result, 0, result.length);
+        return result;
+    }
+
+    byte[] readAll() {
+        return read(size);
+    }
+
+    void skip(int length) {
+        int count = Math.min(length, size);
+        head = (head + count) % data.length;
+        size -= count;
+        if (size == 0) {
+            head = 0;
+        }
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+}
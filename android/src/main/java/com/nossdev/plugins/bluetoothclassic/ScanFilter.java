@@ -0,0 +1,76 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import android.bluetooth.BluetoothClass;
+
+/**
+ * Narrows the devices reported by {@link BluetoothClassic#scan}. Every criterion that is set must
+ * match. Once {@link #maxResults(int)} matching devices are found, discovery stops early.
+ */
+public final class ScanFilter {
+
+    String namePrefix;
+    String address;
+    Integer deviceClass;
+    int maxResults;
+    boolean includeCached;
+
+    /**
+     * Only report devices whose name starts with {@code namePrefix}, ignoring case.
+     */
+    public ScanFilter namePrefix(String namePrefix) {
+        this.namePrefix = namePrefix;
+        return this;
+    }
+
+    /**
+     * Only report the device with this address.
+     */
+    public ScanFilter address(String address) {
+        this.address = address;
+        return this;
+    }
+
+    /**
+     * Only report devices of this {@link BluetoothClass.Device} class or {@link BluetoothClass.Device.Major} class.
+     */
+    public ScanFilter deviceClass(int deviceClass) {
+        this.deviceClass = deviceClass;
+        return this;
+    }
+
+    /**
+     * Stop discovery as soon as this many matching devices are found. 0 scans for the full duration.
+     */
+    public ScanFilter maxResults(int maxResults) {
+        this.maxResults = maxResults;
+        return this;
+    }
+
+    /**
+     * Report matching bonded and recently discovered devices from the device cache before discovery
+     * starts. When they already satisfy {@link #maxResults(int)}, no discovery is run at all.
+     */
+    public ScanFilter includeCached(boolean includeCached) {
+        this.includeCached = includeCached;
+        return this;
+    }
+
+    boolean matches(CachedDevice device) {
+        if (address != null && !address.equalsIgnoreCase(device.address)) {
+            return false;
+        }
+        if (namePrefix != null) {
+            if (device.name == null || !device.name.regionMatches(true, 0, namePrefix, 0, namePrefix.length())) {
+                return false;
+            }
+        }
+        if (deviceClass != null && device.deviceClass != deviceClass && device.majorDeviceClass != deviceClass) {
+            return false;
+        }
+        return true;
+    }
+
+    boolean isSatisfied(int found) {
+        return maxResults > 0 && found >= maxResults;
+    }
+}
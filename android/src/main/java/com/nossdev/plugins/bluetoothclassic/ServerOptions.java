@@ -0,0 +1,66 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.util.UUID;
+
+/**
+ * Controls the RFCOMM server started with {@link BluetoothClassic#startServer}. By default it
+ * advertises the serial port profile and accepts up to {@value #DEFAULT_MAX_CLIENTS} clients.
+ */
+public final class ServerOptions {
+
+    static final String DEFAULT_NAME = "BluetoothClassic";
+    static final int DEFAULT_MAX_CLIENTS = 4;
+    /**
+     * A piconet has at most seven active devices besides this one.
+     */
+    static final int MAX_CLIENTS = 7;
+
+    String name = DEFAULT_NAME;
+    UUID serviceId;
+    boolean secure = true;
+    int maxClients = DEFAULT_MAX_CLIENTS;
+    ConnectionConfig connection = new ConnectionConfig();
+
+    /**
+     * Service name published in the SDP record.
+     */
+    public ServerOptions name(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * Service UUID clients look up, or {@code null} for the serial port profile.
+     */
+    public ServerOptions serviceId(UUID serviceId) {
+        this.serviceId = serviceId;
+        return this;
+    }
+
+    /**
+     * Whether clients must use an authenticated, encrypted link. Insecure servers accept devices
+     * without a bond.
+     */
+    public ServerOptions secure(boolean secure) {
+        this.secure = secure;
+        return this;
+    }
+
+    /**
+     * Number of clients connected at the same time, at most {@value #MAX_CLIENTS}. Further clients
+     * are disconnected as soon as they are accepted.
+     */
+    public ServerOptions maxClients(int maxClients) {
+        this.maxClients = maxClients;
+        return this;
+    }
+
+    /**
+     * Tuning applied to every client connection. Reconnect settings are ignored, since clients
+     * dial in.
+     */
+    public ServerOptions connection(ConnectionConfig connection) {
+        this.connection = connection;
+        return this;
+    }
+}
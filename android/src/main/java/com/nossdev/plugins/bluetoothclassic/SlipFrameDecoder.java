@@ -0,0 +1,61 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.io.IOException;
+
+/**
+ * SLIP framing (RFC 1055). Frames end with {@code END} and escape {@code END}/{@code ESC} bytes.
+ * Empty frames, such as the leading {@code END} many senders emit, are dropped.
+ */
+final class SlipFrameDecoder implements FrameDecoder {
+
+    private static final byte END = (byte) 0xC0;
+    private static final byte ESC = (byte) 0xDB;
+    private static final byte ESC_END = (byte) 0xDC;
+    private static final byte ESC_ESC = (byte) 0xDD;
+
+    private int position;
+    private int frameLength = -1;
+
+    @Override
+    public int match(RingBuffer buffer) {
+        if (frameLength >= 0) return frameLength;
+        int size = buffer.size();
+        for (; position < size; position++) {
+            if (buffer.get(position) == END) {
+                frameLength = position + 1;
+                return frameLength;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public byte[] decode(RingBuffer buffer, int length) throws IOException {
+        if (length <= 1) return null;
+        byte[] frame = buffer.peek(length - 1);
+        int out = 0;
+        for (int i = 0; i < frame.length; i++) {
+            byte b = frame[i];
+            if (b == ESC) {
+                if (++i == frame.length) {
+                    throw new IOException("Truncated SLIP escape sequence");
+                }
+                b = switch (frame[i]) {
+                    case ESC_END -> END;
+                    case ESC_ESC -> ESC;
+                    default -> throw new IOException("Invalid SLIP escape sequence");
+                };
+            }
+            frame[out++] = b;
+        }
+        byte[] payload = new byte[out];
+        System.arraycopy(frame, 0, payload, 0, out);
+        return payload;
+    }
+
+    @Override
+    public void reset() {
+        position = 0;
+        frameLength = -1;
+    }
+}
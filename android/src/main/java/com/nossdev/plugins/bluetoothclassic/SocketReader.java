@@ -0,0 +1,715 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Long-lived reader that drains a socket input stream into a bounded {@link RingBuffer}.
+ * Pending reads are served in order from the buffer, so bytes are kept between calls and
+ * a timed out read never loses data.
+ * <p>
+ * While notifications are active the buffer is instead drained into a listener once it holds
+ * at least the configured minimum chunk, or once the oldest undelivered byte reaches the
+ * configured maximum latency.
+ * <p>
+ * When a {@link FrameDecoder} is configured, {@link #readFrame()} and notifications only ever
+ * hand out complete decoded frames, after they pass the {@link FramePipeline} if one is set.
+ * <p>
+ * A reader created with {@code holdOnLoss} survives the loss of its stream: buffered data,
+ * pending reads and notifications are kept until {@link #resume(InputStream)} supplies a new one.
+ * <p>
+ * The buffer never grows. Once it is full, the {@link OverflowPolicy} decides whether the reader
+ * waits for consumers or discards data, and watermark crossings are reported so consumers can
+ * keep up before that happens.
+ */
+final class SocketReader implements Runnable {
+
+    private static final int READ_CHUNK_SIZE = 8 * 1024;
+
+    private final RingBuffer buffer;
+    private final OverflowPolicy overflowPolicy;
+    private final boolean holdOnLoss;
+    private final BiConsumer<InputStream, IOException> lossListener;
+    private final LongAdder bytesReceived;
+    private final LongAdder bytesDropped;
+    private InputStream inputStream;
+    private final Object bufferLock = new Object();
+    private final Deque<PendingRead> pendingReads = new ArrayDeque<>();
+    private final Object notificationLock = new Object();
+    private final Thread thread;
+    private boolean closed;
+    private IOException failure;
+    private volatile Consumer<byte[]> dataListener;
+    private int notifyMinChunkSize;
+    private int notifyMaxLatency;
+    private HashedTimerWheel.Timeout pendingFlush;
+    private FrameDecoder frameDecoder;
+    private FramePipeline pipeline;
+    private volatile TraceRecorder trace;
+    private int highWatermark;
+    private int lowWatermark;
+    private ObjIntConsumer<BufferLevel> levelListener = (level, size) -> {};
+    private boolean aboveHighWatermark;
+    private boolean overflowReported;
+    private IOException overflow;
+    private boolean receiving;
+
+    SocketReader(String name, InputStream inputStream, int capacity) {
+        this(name, inputStream, capacity, OverflowPolicy.BLOCK, false, (stream, e) -> {}, new LongAdder(), new LongAdder());
+    }
+
+    /**
+     * @param lossListener  told when the stream fails or ends, with the stream it happened on
+     * @param bytesReceived counts every byte read from the stream
+     * @param bytesDropped  counts every byte discarded by the overflow policy
+     */
+    SocketReader(
+        String name,
+        InputStream inputStream,
+        int capacity,
+        OverflowPolicy overflowPolicy,
+        boolean holdOnLoss,
+        BiConsumer<InputStream, IOException> lossListener,
+        LongAdder bytesReceived,
+        LongAdder bytesDropped
+    ) {
+        this.inputStream = inputStream;
+        this.buffer = new RingBuffer(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.holdOnLoss = holdOnLoss;
+        this.lossListener = lossListener;
+        this.bytesReceived = bytesReceived;
+        this.bytesDropped = bytesDropped;
+        this.thread = new Thread(this, "BluetoothClassic-reader-" + name);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Stops accepting data and fails every pending read. The caller is responsible for closing
+     * the underlying stream, which unblocks the reader thread.
+     */
+    void stop() {
+        synchronized (bufferLock) {
+            if (closed) return;
+            closed = true;
+            failure = new IOException("Connection closed");
+            failPendingReads(failure);
+            consume(buffer.size());
+            clearNotifications();
+            bufferLock.notifyAll();
+        }
+    }
+
+    /**
+     * Detaches the current stream so a failure on it is no longer reported. The reader waits for
+     * {@link #resume(InputStream)}.
+     */
+    void suspend() {
+        synchronized (bufferLock) {
+            inputStream = null;
+        }
+    }
+
+    void resume(InputStream inputStream) {
+        synchronized (bufferLock) {
+            if (closed) return;
+            this.inputStream = inputStream;
+            bufferLock.notifyAll();
+        }
+    }
+
+    /**
+     * Reports {@link BufferLevel#HIGH} to {@code listener} when the buffer fills to
+     * {@code highWatermark} bytes, then {@link BufferLevel#LOW} once it drains to
+     * {@code lowWatermark}, along with every overflow. A high watermark of 0 reports overflows
+     * only. The listener is called with the buffer locked, so it must return quickly and must not
+     * call back into the reader.
+     */
+    void setWatermarks(int highWatermark, int lowWatermark, ObjIntConsumer<BufferLevel> listener) {
+        synchronized (bufferLock) {
+            this.highWatermark = Math.max(0, Math.min(highWatermark, buffer.capacity()));
+            this.lowWatermark = Math.max(0, Math.min(lowWatermark, this.highWatermark - 1));
+            this.levelListener = listener;
+        }
+    }
+
+    /**
+     * Whether the reader has stopped for good, so no read can succeed any more.
+     */
+    boolean isClosed() {
+        synchronized (bufferLock) {
+            return closed;
+        }
+    }
+
+    /**
+     * Records every chunk read from the stream to {@code trace}, or stops recording if {@code null}.
+     */
+    void setTrace(TraceRecorder trace) {
+        this.trace = trace;
+    }
+
+    void startNotifications(int minChunkSize, int maxLatency, Consumer<byte[]> listener) throws IOException {
+        synchronized (bufferLock) {
+            if (closed) {
+                throw new IOException("Not connected");
+            }
+            if (receiving) {
+                throw new IOException("A file is being received - wait for it to finish first");
+            }
+            clearNotifications();
+            notifyMinChunkSize = Math.max(1, Math.min(minChunkSize, buffer.capacity()));
+            notifyMaxLatency = Math.max(0, maxLatency);
+            dataListener = listener;
+            failPendingReads(new IOException("Notifications started"));
+        }
+        deliverNotification(false);
+    }
+
+    /**
+     * Reserves inbound data for a file receiver. Until {@link #stopReceiving()}, only reads made
+     * with {@link #receive(FrameDecoder)} are served and every other read is rejected. Pending
+     * reads are failed.
+     */
+    void startReceiving() throws IOException {
+        synchronized (bufferLock) {
+            if (dataListener != null) {
+                throw new IOException("Notifications are active - stop them before receiving");
+            }
+            receiving = true;
+            failPendingReads(new IOException("File receive started"));
+        }
+    }
+
+    void stopReceiving() {
+        synchronized (bufferLock) {
+            receiving = false;
+        }
+    }
+
+    /**
+     * Stops forwarding data. Anything not yet delivered stays buffered for subsequent reads.
+     */
+    void stopNotifications() {
+        synchronized (bufferLock) {
+            clearNotifications();
+        }
+    }
+
+    boolean isNotifying() {
+        return dataListener != null;
+    }
+
+    /**
+     * Replaces the frame decoder used by {@link #readFrame()} and notifications, or disables
+     * framing when {@code decoder} is null. Pending reads are failed.
+     */
+    void setFrameDecoder(FrameDecoder decoder) {
+        synchronized (bufferLock) {
+            failPendingReads(new IOException("Framing changed"));
+            if (decoder != null) {
+                decoder.reset();
+            }
+            frameDecoder = decoder;
+        }
+        if (dataListener != null) {
+            deliverNotification(false);
+        }
+    }
+
+    /**
+     * Replaces the pipeline run on decoded frames, or removes it when {@code pipeline} is null.
+     */
+    void setPipeline(FramePipeline pipeline) {
+        synchronized (bufferLock) {
+            this.pipeline = pipeline;
+        }
+    }
+
+    CompletableFuture<byte[]> read() {
+        return enqueue(new PendingRead(null, true));
+    }
+
+    /**
+     * Reads everything received until the stream ends. Fails if the inbound buffer fills up
+     * first.
+     */
+    CompletableFuture<byte[]> readUntilClosed() {
+        return enqueue(new PendingRead(null, true, true));
+    }
+
+    /**
+     * Takes up to {@code max} buffered bytes without waiting, including bytes left after the
+     * stream ended. Returns an empty array if nothing is buffered.
+     */
+    byte[] drain(int max) {
+        synchronized (bufferLock) {
+            int length = Math.min(buffer.size(), max);
+            byte[] data = buffer.peek(length);
+            consume(length);
+            return data;
+        }
+    }
+
+    CompletableFuture<byte[]> readUntil(byte[] delimiter) {
+        return enqueue(new PendingRead(new DelimiterFrameDecoder(delimiter, true), true));
+    }
+
+    /**
+     * Reads whatever {@code decoder} matches for the active file receiver, regardless of the
+     * configured framing. Bytes left when the stream ends are not handed out.
+     */
+    CompletableFuture<byte[]> receive(FrameDecoder decoder) {
+        return enqueue(new PendingRead(decoder, false), true);
+    }
+
+    boolean hasFraming() {
+        synchronized (bufferLock) {
+            return frameDecoder != null;
+        }
+    }
+
+    CompletableFuture<byte[]> readFrame() {
+        synchronized (bufferLock) {
+            if (frameDecoder == null) {
+                CompletableFuture<byte[]> result = new CompletableFuture<>();
+                result.completeExceptionally(new IOException("No framing configured"));
+                return result;
+            }
+            return enqueue(new PendingRead(frameDecoder, false));
+        }
+    }
+
+    /**
+     * Queues {@code count} consecutive reply reads in a single step, so no other read can take a
+     * reply in between. Replies are delimited by {@code delimiter}, or by the configured framing
+     * when it is {@code null}.
+     */
+    List<CompletableFuture<byte[]>> readReplies(int count, byte[] delimiter) {
+        List<CompletableFuture<byte[]>> replies = new ArrayList<>(count);
+        synchronized (bufferLock) {
+            IOException error = null;
+            if (closed && buffer.isEmpty()) {
+                error = failure;
+            } else if (dataListener != null) {
+                error = new IOException("Notifications are active - stop them before reading");
+            } else if (receiving) {
+                error = new IOException("A file is being received - wait for it to finish before reading");
+            } else if (delimiter == null && frameDecoder == null) {
+                error = new IOException("No framing configured - a reply delimiter is required");
+            } else if (overflow != null) {
+                error = overflow;
+                overflow = null;
+            }
+            for (int i = 0; i < count; i++) {
+                PendingRead pending = new PendingRead(delimiter == null ? frameDecoder : new DelimiterFrameDecoder(delimiter, true), false);
+                if (error != null) {
+                    pending.future.completeExceptionally(error);
+                } else {
+                    pendingReads.add(pending);
+                }
+                replies.add(pending.future);
+            }
+            servicePendingReads();
+        }
+        return replies;
+    }
+
+    @Override
+    public void run() {
+        Logger.debug("Reader started");
+        byte[] chunk = new byte[READ_CHUNK_SIZE];
+        try {
+            InputStream stream;
+            while ((stream = awaitStream()) != null) {
+                IOException loss;
+                try {
+                    int count = stream.read(chunk, 0, chunk.length); // blocks until data or error
+                    if (count != -1) {
+                        bytesReceived.add(count);
+                        TraceRecorder recorder = trace;
+                        if (recorder != null) {
+                            recorder.record(TraceRecorder.INBOUND, chunk, 0, count);
+                        }
+                        if (!append(chunk, count)) return;
+                        continue;
+                    }
+                    loss = new IOException("Connection closed by remote device");
+                } catch (IOException e) {
+                    loss = e;
+                }
+                if (!streamLost(stream, loss)) return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            Logger.debug("Reader stopped");
+        }
+    }
+
+    private InputStream awaitStream() throws InterruptedException {
+        synchronized (bufferLock) {
+            while (inputStream == null && !closed) {
+                bufferLock.wait();
+            }
+            return closed ? null : inputStream;
+        }
+    }
+
+    /**
+     * Handles the end of {@code stream}. Without {@code holdOnLoss} the reader closes: bytes left
+     * over go to pending reads that accept a remainder and the rest fail. Returns whether the
+     * reader should keep running.
+     */
+    private boolean streamLost(InputStream stream, IOException loss) {
+        synchronized (bufferLock) {
+            if (closed) return false;
+            if (inputStream != stream) return true;
+            inputStream = null;
+            if (!holdOnLoss) {
+                closed = true;
+                servicePendingReads();
+                failure = loss;
+                failPendingReads(loss);
+            }
+        }
+        Logger.warn("Link lost: {}", loss.getMessage());
+        lossListener.accept(stream, loss);
+        return holdOnLoss;
+    }
+
+    /**
+     * Copies the first {@code length} bytes of {@code chunk} into the buffer. Whenever it is full,
+     * consumers get the first chance to make room before the overflow policy applies. Returns
+     * {@code false} once the reader has been stopped.
+     */
+    private boolean append(byte[] chunk, int length) throws InterruptedException {
+        int offset = 0;
+        while (offset < length) {
+            synchronized (bufferLock) {
+                if (closed) return false;
+                if (buffer.remaining() == 0) {
+                    if (overflowPolicy == OverflowPolicy.BLOCK) {
+                        bufferLock.wait();
+                        continue;
+                    }
+                    offset += overflow(length - offset);
+                    continue;
+                }
+                offset += buffer.write(chunk, offset, length - offset);
+                if (highWatermark > 0 && !aboveHighWatermark && buffer.size() >= highWatermark) {
+                    aboveHighWatermark = true;
+                    levelListener.accept(BufferLevel.HIGH, buffer.size());
+                }
+                servicePendingReads();
+            }
+            if (dataListener != null) {
+                deliverNotification(false);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies the overflow policy to {@code pending} received bytes that do not fit in the full
+     * buffer, and returns how many of them were discarded.
+     */
+    private int overflow(int pending) {
+        if (!overflowReported) {
+            overflowReported = true;
+            levelListener.accept(BufferLevel.OVERFLOW, buffer.size());
+        }
+        switch (overflowPolicy) {
+            case DROP_OLDEST:
+                discard(Math.min(pending, buffer.size()));
+                return 0;
+            case DROP_NEWEST:
+                bytesDropped.add(pending);
+                return pending;
+            default:
+                int size = buffer.size();
+                discard(size);
+                bytesDropped.add(pending);
+                IOException e = new IOException("Inbound buffer overflow, " + (size + pending) + " bytes dropped");
+                Logger.warn(e.getMessage());
+                if (pendingReads.isEmpty()) {
+                    overflow = e;
+                } else {
+                    failPendingReads(e);
+                }
+                checkLowWatermark();
+                return pending;
+        }
+    }
+
+    /**
+     * Drops the oldest buffered bytes, restarting every scan that has seen them.
+     */
+    private void discard(int length) {
+        buffer.skip(length);
+        bytesDropped.add(length);
+        if (frameDecoder != null) {
+            frameDecoder.reset();
+        }
+        PendingRead head = pendingReads.peek();
+        if (head != null && head.decoder != null) {
+            head.decoder.reset();
+        }
+    }
+
+    /**
+     * Hands buffered data to the listener. The notification lock keeps chunks in order when
+     * the reader thread and a latency flush race each other.
+     */
+    private void deliverNotification(boolean flush) {
+        synchronized (notificationLock) {
+            while (true) {
+                Consumer<byte[]> listener;
+                byte[] data;
+                synchronized (bufferLock) {
+                    listener = dataListener;
+                    if (flush) {
+                        pendingFlush = null;
+                    }
+                    data = listener == null ? null : takeNotification(flush);
+                }
+                if (data == null) return;
+                listener.accept(data);
+                flush = false;
+            }
+        }
+    }
+
+    private byte[] takeNotification(boolean flush) {
+        if (frameDecoder != null) return takeFrame();
+        if (buffer.isEmpty()) return null;
+        if (flush || buffer.size() >= notifyMinChunkSize) {
+            if (pendingFlush != null) {
+                pendingFlush.cancel();
+                pendingFlush = null;
+            }
+            byte[] data = buffer.peek(buffer.size());
+            consume(data.length);
+            return data;
+        }
+        if (pendingFlush == null) {
+            pendingFlush = HashedTimerWheel.shared().schedule(() -> deliverNotification(true), notifyMaxLatency, TimeUnit.MILLISECONDS);
+        }
+        return null;
+    }
+
+    private byte[] takeFrame() {
+        while (true) {
+            int length;
+            try {
+                length = frameDecoder.match(buffer);
+            } catch (IOException e) {
+                Logger.warn("Discarding unframeable data: {}", e.getMessage());
+                consume(buffer.size());
+                return null;
+            }
+            if (length < 0) {
+                if (buffer.remaining() == 0) {
+                    Logger.warn("Discarding {} bytes without a complete frame", buffer.size());
+                    consume(buffer.size());
+                }
+                return null;
+            }
+            byte[] payload = filterFrame(decodeFrame(frameDecoder, length));
+            consume(length);
+            if (payload != null) return payload;
+        }
+    }
+
+    private byte[] decodeFrame(FrameDecoder decoder, int length) {
+        try {
+            return decoder.decode(buffer, length);
+        } catch (IOException e) {
+            Logger.warn("Dropping malformed frame: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Runs a frame from the configured framing through the pipeline. Returns {@code null} if
+     * {@code frame} is null or dropped.
+     */
+    private byte[] filterFrame(byte[] frame) {
+        return frame == null || pipeline == null ? frame : pipeline.apply(frame);
+    }
+
+    /**
+     * Removes bytes from the buffer, invalidating frame scan state and waking a blocked reader.
+     */
+    private void consume(int length) {
+        buffer.skip(length);
+        if (frameDecoder != null) {
+            frameDecoder.reset();
+        }
+        checkLowWatermark();
+        bufferLock.notifyAll();
+    }
+
+    private void checkLowWatermark() {
+        if (closed || buffer.size() > lowWatermark) return;
+        overflowReported = false;
+        if (aboveHighWatermark) {
+            aboveHighWatermark = false;
+            levelListener.accept(BufferLevel.LOW, buffer.size());
+        }
+    }
+
+    private void clearNotifications() {
+        dataListener = null;
+        if (pendingFlush != null) {
+            pendingFlush.cancel();
+            pendingFlush = null;
+        }
+    }
+
+    private CompletableFuture<byte[]> enqueue(PendingRead pending) {
+        return enqueue(pending, false);
+    }
+
+    /**
+     * Queues {@code pending}, or fails it straight away if it cannot be served. Only a read made
+     * for the file receiver is accepted while one is active.
+     */
+    private CompletableFuture<byte[]> enqueue(PendingRead pending, boolean receive) {
+        synchronized (bufferLock) {
+            if (closed && (buffer.isEmpty() || !pending.acceptsRemainder)) {
+                pending.future.completeExceptionally(failure);
+                return pending.future;
+            }
+            if (dataListener != null) {
+                pending.future.completeExceptionally(new IOException("Notifications are active - stop them before reading"));
+                return pending.future;
+            }
+            if (receiving && !receive) {
+                pending.future.completeExceptionally(new IOException("A file is being received - wait for it to finish before reading"));
+                return pending.future;
+            }
+            if (overflow != null) {
+                pending.future.completeExceptionally(overflow);
+                overflow = null;
+                return pending.future;
+            }
+            pendingReads.add(pending);
+            servicePendingReads();
+        }
+        return pending.future;
+    }
+
+    private void servicePendingReads() {
+        while (!pendingReads.isEmpty()) {
+            PendingRead head = pendingReads.peek();
+            if (head.future.isDone()) {
+                pendingReads.poll();
+                continue;
+            }
+            if (closed) {
+                if (buffer.isEmpty() || !head.acceptsRemainder) return;
+                int length = buffer.size();
+                if (head.future.complete(buffer.peek(length))) {
+                    consume(length);
+                }
+                pendingReads.poll();
+                continue;
+            }
+
+            int length;
+            try {
+                length = head.match(buffer);
+            } catch (IOException e) {
+                Logger.warn("Discarding unframeable data: {}", e.getMessage());
+                pendingReads.poll();
+                head.future.completeExceptionally(e);
+                consume(buffer.size());
+                continue;
+            }
+            if (length < 0) {
+                if (buffer.remaining() > 0) return;
+                pendingReads.poll();
+                head.future.completeExceptionally(
+                    new IOException("Inbound buffer full (" + buffer.capacity() + " bytes) before read could complete")
+                );
+                continue;
+            }
+
+            byte[] payload = head.decoder == null ? buffer.peek(length) : decodeFrame(head.decoder, length);
+            if (payload != null && head.decoder == frameDecoder) {
+                payload = filterFrame(payload);
+            }
+            if (payload == null) {
+                consume(length);
+                head.decoder.reset();
+                continue;
+            }
+            // Complete before consuming so a concurrent timeout cannot swallow the bytes.
+            if (head.future.complete(payload)) {
+                consume(length);
+            }
+            pendingReads.poll();
+        }
+    }
+
+    private void failPendingReads(IOException e) {
+        PendingRead pending;
+        while ((pending = pendingReads.poll()) != null) {
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Never matches, so a read using it only completes with the remainder when the stream ends.
+     */
+    private static final class PendingRead {
+
+        final CompletableFuture<byte[]> future = new CompletableFuture<>();
+        /**
+         * Decoder that delimits this read, or {@code null} to take everything buffered.
+         */
+        final FrameDecoder decoder;
+        /**
+         * Whether bytes left when the stream ends may complete this read.
+         */
+        final boolean acceptsRemainder;
+        /**
+         * Whether this read only completes when the stream ends, taking everything left.
+         */
+        final boolean untilClosed;
+
+        PendingRead(FrameDecoder decoder, boolean acceptsRemainder) {
+            this(decoder, acceptsRemainder, false);
+        }
+
+        PendingRead(FrameDecoder decoder, boolean acceptsRemainder, boolean untilClosed) {
+            this.decoder = decoder;
+            this.acceptsRemainder = acceptsRemainder;
+            this.untilClosed = untilClosed;
+        }
+
+        /**
+         * Returns the number of buffered bytes that satisfy this read, or -1 to keep waiting.
+         */
+        int match(RingBuffer buffer) throws IOException {
+            if (untilClosed) return -1;
+            if (decoder != null) return decoder.match(buffer);
+            return buffer.isEmpty() ? -1 : buffer.size();
+        }
+    }
+}
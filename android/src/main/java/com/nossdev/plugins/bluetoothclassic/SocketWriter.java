@@ -0,0 +1,230 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Outbound queue drained by a dedicated writer thread. Small queued payloads are merged into a
+ * single socket write of up to {@code maxBatchSize} bytes, optionally waiting up to
+ * {@code batchDelay} for more to arrive. Each write future completes once its bytes are flushed.
+ * <p>
+ * A writer created with {@code holdOnLoss} fails only the batch that was being written when the
+ * stream broke, and holds every write queued after it until {@link #resume(OutputStream)}
+ * supplies a new stream.
+ */
+final class SocketWriter implements Runnable {
+
+    private final int maxBatchSize;
+    private final long batchDelayNanos;
+    private final byte[] batch;
+    private final Object queueLock = new Object();
+    private final Deque<PendingWrite> queue = new ArrayDeque<>();
+    private final Thread thread;
+    private final boolean holdOnLoss;
+    private final BiConsumer<OutputStream, IOException> lossListener;
+    private OutputStream outputStream;
+    /**
+     * Stream the batch taken by {@link #takeBatch} is written to. Only used by the writer thread.
+     */
+    private OutputStream flushStream;
+    private int queuedBytes;
+    private volatile TraceRecorder trace;
+    private boolean closed;
+
+    SocketWriter(String name, OutputStream outputStream, int maxBatchSize, int batchDelay) {
+        this(name, outputStream, maxBatchSize, batchDelay, false, (stream, e) -> {});
+    }
+
+    /**
+     * @param lossListener told when a write fails, with the stream it failed on
+     */
+    SocketWriter(
+        String name,
+        OutputStream outputStream,
+        int maxBatchSize,
+        int batchDelay,
+        boolean holdOnLoss,
+        BiConsumer<OutputStream, IOException> lossListener
+    ) {
+        this.outputStream = outputStream;
+        this.holdOnLoss = holdOnLoss;
+        this.lossListener = lossListener;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.batchDelayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, batchDelay));
+        this.batch = new byte[this.maxBatchSize];
+        this.thread = new Thread(this, "BluetoothClassic-writer-" + name);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Fails every queued write and stops the writer thread. The caller closes the stream, which
+     * aborts a write that is already in progress.
+     */
+    void stop() {
+        synchronized (queueLock) {
+            if (closed) return;
+            closed = true;
+            IOException failure = new IOException("Connection closed");
+            PendingWrite pending;
+            while ((pending = queue.poll()) != null) {
+                pending.future.completeExceptionally(failure);
+            }
+            queuedBytes = 0;
+            queueLock.notifyAll();
+        }
+    }
+
+    /**
+     * Detaches the current stream. Writes stay queued until {@link #resume(OutputStream)}.
+     */
+    void suspend() {
+        synchronized (queueLock) {
+            outputStream = null;
+        }
+    }
+
+    void resume(OutputStream outputStream) {
+        synchronized (queueLock) {
+            if (closed) return;
+            this.outputStream = outputStream;
+            queueLock.notifyAll();
+        }
+    }
+
+    /**
+     * Records every batch written to the stream to {@code trace}, or stops recording if {@code null}.
+     */
+    void setTrace(TraceRecorder trace) {
+        this.trace = trace;
+    }
+
+    CompletableFuture<Void> write(byte[] data) {
+        PendingWrite pending = new PendingWrite(data);
+        synchronized (queueLock) {
+            if (closed) {
+                pending.future.completeExceptionally(new IOException("Connection closed"));
+                return pending.future;
+            }
+            queue.add(pending);
+            queuedBytes += data.length;
+            queueLock.notifyAll();
+        }
+        return pending.future;
+    }
+
+    @Override
+    public void run() {
+        List<PendingWrite> flushing = new ArrayList<>();
+        try {
+            while (true) {
+                int length = takeBatch(flushing);
+                if (length < 0) return;
+                OutputStream stream = flushStream;
+                try {
+                    byte[] data = length > 0 ? batch : flushing.get(0).data;
+                    int size = length > 0 ? length : data.length;
+                    stream.write(data, 0, size);
+                    stream.flush();
+                    TraceRecorder recorder = trace;
+                    if (recorder != null) {
+                        recorder.record(TraceRecorder.OUTBOUND, data, 0, size);
+                    }
+                    for (PendingWrite pending : flushing) {
+                        pending.future.complete(null);
+                    }
+                } catch (IOException e) {
+                    Logger.error("Write error", e);
+                    streamFailed(stream, flushing, e);
+                }
+                flushing.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fails the writes of a batch that could not be written. Part of it may already have reached
+     * the device, so it is never resent. With {@code holdOnLoss} the writes still queued behind it
+     * are kept for the replacement stream.
+     */
+    private void streamFailed(OutputStream stream, List<PendingWrite> failed, IOException e) {
+        boolean lost;
+        synchronized (queueLock) {
+            lost = outputStream == stream;
+            if (lost && holdOnLoss) {
+                outputStream = null;
+            }
+        }
+        for (PendingWrite pending : failed) {
+            pending.future.completeExceptionally(e);
+        }
+        if (lost) {
+            lossListener.accept(stream, e);
+        }
+    }
+
+    /**
+     * Moves the next writes into {@code flushing} and captures the stream to write them to in
+     * {@link #flushStream}. Returns the number of bytes merged into
+     * {@link #batch}, 0 when a single oversized payload should be written directly, or -1 once stopped.
+     */
+    private int takeBatch(List<PendingWrite> flushing) throws InterruptedException {
+        synchronized (queueLock) {
+            do {
+                while ((queue.isEmpty() || outputStream == null) && !closed) {
+                    queueLock.wait();
+                }
+                if (closed) return -1;
+                if (batchDelayNanos > 0 && queuedBytes < maxBatchSize) {
+                    long deadline = System.nanoTime() + batchDelayNanos;
+                    long remaining;
+                    while (!closed && queuedBytes < maxBatchSize && (remaining = deadline - System.nanoTime()) > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(queueLock, remaining);
+                    }
+                    if (closed) return -1;
+                }
+            } while (outputStream == null);
+
+            flushStream = outputStream;
+            PendingWrite first = queue.peek();
+            if (first.data.length >= maxBatchSize) {
+                queue.poll();
+                queuedBytes -= first.data.length;
+                flushing.add(first);
+                return 0;
+            }
+            int length = 0;
+            PendingWrite next;
+            while ((next = queue.peek()) != null && length + next.data.length <= maxBatchSize) {
+                queue.poll();
+                queuedBytes -= next.data.length;
+                System.arraycopy(next.data, 0, batch, length, next.data.length);
+                length += next.data.length;
+                flushing.add(next);
+            }
+            return length;
+        }
+    }
+
+    private static final class PendingWrite {
+
+        final byte[] data;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        PendingWrite(byte[] data) {
+            this.data = data;
+        }
+    }
+}
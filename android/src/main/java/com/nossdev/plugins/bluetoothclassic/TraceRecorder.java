@@ -0,0 +1,127 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Appends every chunk sent or received on a connection to a memory-mapped trace file. Recording
+ * only copies into the mapping, so the reader and writer threads never wait on file I/O; the
+ * kernel writes the pages back in the background. Once the file is full, the remaining chunks
+ * are counted as dropped, keeping the trace a gap-free prefix of the session.
+ * <p>
+ * The file is big-endian. A {@value #HEADER_SIZE} byte header holds {@link #MAGIC}, the format
+ * version, the capture start time in ms since the epoch and the length-prefixed device address.
+ * Then comes one record per chunk: length (int), direction (byte), time since the capture started
+ * in ns (long) and the bytes. The length is written last, so a zero length marks the end.
+ */
+final class TraceRecorder implements Closeable {
+
+    static final int MAGIC = 0x42435452; // "BCTR"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+    static final int RECORD_HEADER_SIZE = 13;
+    static final int MAX_ADDRESS_LENGTH = HEADER_SIZE - 18;
+    static final int DEFAULT_MAX_SIZE = 16 * 1024 * 1024;
+    static final byte INBOUND = 0;
+    static final byte OUTBOUND = 1;
+
+    private final File file;
+    private final RandomAccessFile access;
+    private final MappedByteBuffer buffer;
+    private final long startNanos = System.nanoTime();
+    private final AtomicInteger position = new AtomicInteger(HEADER_SIZE);
+    private final LongAdder records = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean full;
+    private volatile boolean closed;
+
+    /**
+     * Creates or truncates {@code file} and maps {@code maxSize} bytes of it. Unwritten space
+     * stays sparse on file systems that support it.
+     */
+    TraceRecorder(File file, String address, int maxSize) throws IOException {
+        if (maxSize < HEADER_SIZE + RECORD_HEADER_SIZE + 1) {
+            throw new IllegalArgumentException("Trace size too small: " + maxSize);
+        }
+        byte[] name = address.getBytes(StandardCharsets.US_ASCII);
+        if (name.length > MAX_ADDRESS_LENGTH) {
+            throw new IllegalArgumentException("Address too long: " + address);
+        }
+        this.file = file;
+        this.access = new RandomAccessFile(file, "rw");
+        try {
+            access.setLength(0);
+            buffer = access.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, maxSize);
+        } catch (IOException e) {
+            access.close();
+            throw e;
+        }
+        buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, System.currentTimeMillis()).putShort(16, (short) name.length);
+        ByteBuffer header = buffer.duplicate();
+        header.position(18);
+        header.put(name);
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    long records() {
+        return records.sum();
+    }
+
+    long bytes() {
+        return bytes.sum();
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Appends a chunk. Safe to call from the reader and writer threads at once.
+     */
+    void record(byte direction, byte[] data, int offset, int length) {
+        if (closed || length <= 0) return;
+        int size = RECORD_HEADER_SIZE + length;
+        int start;
+        do {
+            start = position.get();
+            if (full || size > buffer.capacity() - start) {
+                full = true;
+                dropped.increment();
+                return;
+            }
+        } while (!position.compareAndSet(start, start + size));
+
+        ByteBuffer record = buffer.duplicate();
+        record.position(start + 4);
+        record.put(direction).putLong(System.nanoTime() - startNanos).put(data, offset, length);
+        buffer.putInt(start, length);
+        records.increment();
+        bytes.add(length);
+    }
+
+    /**
+     * Stops recording and flushes the mapping to disk. Blocks, so call it off the I/O threads.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            buffer.force();
+        } finally {
+            access.close();
+        }
+    }
+}
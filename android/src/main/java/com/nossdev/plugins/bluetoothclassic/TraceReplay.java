@@ -0,0 +1,130 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays back the inbound chunks of a {@link TraceRecorder} file as a socket input stream, so they
+ * go through the same read, framing and notification path as live data. Outbound chunks are
+ * skipped. Once the trace is exhausted the stream stays open without data, like an idle device,
+ * until it is closed.
+ */
+final class TraceReplay extends InputStream {
+
+    private final ByteBuffer buffer;
+    private final String address;
+    private final double speed;
+    private final Object lock = new Object();
+    private long startNanos = -1;
+    private int remaining;
+    private boolean closed;
+
+    /**
+     * @param speed how much faster than recorded to play back: 1 keeps the original timing, 0
+     *              plays as fast as the data is read
+     * @throws IOException if the file is not a trace
+     */
+    TraceReplay(File file, double speed) throws IOException {
+        try (RandomAccessFile access = new RandomAccessFile(file, "r")) {
+            // The mapping stays valid after the channel is closed.
+            buffer = access.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, access.length());
+        }
+        if (buffer.capacity() < TraceRecorder.HEADER_SIZE || buffer.getInt(0) != TraceRecorder.MAGIC) {
+            throw new IOException("Not a trace file: " + file);
+        }
+        if (buffer.getInt(4) != TraceRecorder.VERSION) {
+            throw new IOException("Unsupported trace version: " + buffer.getInt(4));
+        }
+        int addressLength = Math.min(buffer.getShort(16), TraceRecorder.MAX_ADDRESS_LENGTH);
+        byte[] name = new byte[addressLength];
+        buffer.position(18);
+        buffer.get(name);
+        this.address = new String(name, StandardCharsets.US_ASCII);
+        this.speed = Math.max(0, speed);
+        buffer.position(TraceRecorder.HEADER_SIZE);
+    }
+
+    /**
+     * The address of the device the trace was recorded from.
+     */
+    String getAddress() {
+        return address;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] dst, int offset, int length) throws IOException {
+        if (length == 0) return 0;
+        synchronized (lock) {
+            try {
+                while (remaining == 0 && !nextInbound()) {
+                    if (closed) return -1;
+                    lock.wait();
+                }
+                if (closed) return -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            }
+            int count = Math.min(length, remaining);
+            buffer.get(dst, offset, count);
+            remaining -= count;
+            return count;
+        }
+    }
+
+    /**
+     * Moves to the next inbound record, waiting until it is due. Returns {@code false} at the end
+     * of the trace or once the stream is closed.
+     */
+    private boolean nextInbound() throws InterruptedException {
+        while (!closed && buffer.remaining() >= TraceRecorder.RECORD_HEADER_SIZE) {
+            int length = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining() - (TraceRecorder.RECORD_HEADER_SIZE - 4)) {
+                buffer.position(buffer.limit());
+                return false;
+            }
+            byte direction = buffer.get();
+            long time = buffer.getLong();
+            if (direction != TraceRecorder.INBOUND) {
+                buffer.position(buffer.position() + length);
+                continue;
+            }
+            awaitDue(time);
+            remaining = length;
+            return !closed;
+        }
+        return false;
+    }
+
+    private void awaitDue(long time) throws InterruptedException {
+        if (speed == 0) return;
+        long now = System.nanoTime();
+        if (startNanos < 0) {
+            startNanos = now - (long) (time / speed);
+        }
+        long due = startNanos + (long) (time / speed);
+        while (!closed && (now = System.nanoTime()) < due) {
+            TimeUnit.NANOSECONDS.timedWait(lock, due - now);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+    }
+}
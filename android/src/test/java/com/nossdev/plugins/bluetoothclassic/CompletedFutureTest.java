@@ -0,0 +1,56 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CompletedFutureTest {
+
+    private final AtomicReference<Object> settled = new AtomicReference<>();
+
+    @Before
+    public void silenceLogging() {
+        Logger.setLevel(Logger.Level.NONE);
+    }
+
+    @After
+    public void restoreLevel() {
+        Logger.setLevel(Logger.Level.INFO);
+    }
+
+    @Test
+    public void subscribe_passesResultToSuccessHandler() {
+        CompletedFuture.from(CompletableFuture.completedFuture("ok")).onSuccess(settled::set).onError(settled::set).subscribe();
+
+        assertEquals("ok", settled.get());
+    }
+
+    @Test
+    public void subscribe_unwrapsFailureForErrorHandler() {
+        IOException failure = new IOException("Not connected");
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletedFuture.from(future.thenApply(value -> value)).onSuccess(settled::set).onError(settled::set).subscribe();
+
+        future.completeExceptionally(failure);
+
+        assertSame(failure, settled.get());
+    }
+
+    @Test
+    public void subscribe_routesSuccessHandlerFailureToErrorHandler() {
+        IllegalStateException failure = new IllegalStateException("Bad payload");
+        CompletedFuture.from(CompletableFuture.completedFuture("ok"))
+            .onSuccess(value -> {
+                throw failure;
+            })
+            .onError(settled::set)
+            .subscribe();
+
+        assertSame(failure, settled.get());
+    }
+}
@@ -0,0 +1,260 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConnectionTest {
+
+    private static final String ADDRESS = "00:11:22:33:44:55";
+    private static final byte[] DELIMITER = { '\r', '\n' };
+
+    private final List<Connection> connections = new ArrayList<>();
+    private final BlockingQueue<ConnectionState> states = new LinkedBlockingQueue<>();
+
+    @Before
+    public void silenceLogging() {
+        Logger.setLevel(Logger.Level.NONE);
+    }
+
+    @After
+    public void close() throws Exception {
+        for (Connection connection : connections) {
+            connection.close();
+        }
+        Logger.setLevel(Logger.Level.INFO);
+    }
+
+    @Test
+    public void transact_returnsRepliesInCommandOrder() throws Exception {
+        PipedOutputStream device = new PipedOutputStream();
+        Connection connection = open(new Link(device, pipe(device), OutputStream.nullOutputStream()), null);
+
+        CompletableFuture<List<byte[]>> replies = connection.transact(commands("AT", "AT+VER", "AT+ID"), DELIMITER);
+        send(device, "OK\r\nV1.2\r\n");
+        send(device, "42\r\n");
+
+        assertEquals(Arrays.asList("OK\r\n", "V1.2\r\n", "42\r\n"), strings(replies.get(1, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void transact_joinsReplySplitAcrossChunks() throws Exception {
+        PipedOutputStream device = new PipedOutputStream();
+        Connection connection = open(new Link(device, pipe(device), OutputStream.nullOutputStream()), null);
+
+        CompletableFuture<List<byte[]>> replies = connection.transact(commands("AT+VER"), DELIMITER);
+        send(device, "V1");
+        Thread.sleep(50);
+        assertFalse(replies.isDone());
+        send(device, ".2\r\n");
+
+        assertEquals(Arrays.asList("V1.2\r\n"), strings(replies.get(1, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void transact_failsOutstandingRepliesWhenSendFails() throws Exception {
+        IOException failure = new IOException("Broken pipe");
+        PipedOutputStream device = new PipedOutputStream();
+        PipedOutputStream replacement = new PipedOutputStream();
+        Link next = new Link(replacement, pipe(replacement), OutputStream.nullOutputStream());
+        Connection connection = open(new Link(device, pipe(device), new FailingOutputStream(failure)), () -> next);
+
+        CompletableFuture<List<byte[]>> replies = connection.transact(commands("AT", "AT+VER"), DELIMITER);
+
+        assertSame(failure, cause(replies));
+        CompletableFuture<byte[]> read = connection.readUntil(DELIMITER);
+        send(replacement, "OK\r\n");
+        assertEquals("OK\r\n", new String(read.get(1, TimeUnit.SECONDS), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void reconnect_backsOffBetweenAttempts() throws Exception {
+        PipedOutputStream device = new PipedOutputStream();
+        PipedOutputStream replacement = new PipedOutputStream();
+        FlakyConnector connector = new FlakyConnector(3, new Link(replacement, pipe(replacement), OutputStream.nullOutputStream()));
+        open(new Link(device, pipe(device), OutputStream.nullOutputStream()), new ConnectionConfig().reconnectDelay(40), connector);
+        assertEquals(ConnectionState.CONNECTED, nextState());
+
+        long lostAt = System.nanoTime();
+        device.close();
+
+        assertEquals(ConnectionState.RECONNECTING, nextState());
+        assertEquals(ConnectionState.CONNECTED, nextState());
+        List<Long> attempts = connector.attempts();
+        assertEquals(4, attempts.size());
+        long previous = lostAt;
+        long delay = 40;
+        for (long attempt : attempts) {
+            assertTrue("Attempt after " + (attempt - previous) / 1_000_000 + " ms", attempt - previous >= TimeUnit.MILLISECONDS.toNanos(delay / 2));
+            previous = attempt;
+            delay = Math.max(delay * 2, 100);
+        }
+    }
+
+    @Test
+    public void reconnect_givesUpAfterMaxAttempts() throws Exception {
+        PipedOutputStream device = new PipedOutputStream();
+        FlakyConnector connector = new FlakyConnector(Integer.MAX_VALUE, null);
+        Connection connection = open(
+            new Link(device, pipe(device), OutputStream.nullOutputStream()),
+            new ConnectionConfig().reconnectDelay(0).reconnectMaxDelay(0).reconnectMaxAttempts(3),
+            connector
+        );
+        assertEquals(ConnectionState.CONNECTED, nextState());
+
+        device.close();
+
+        assertEquals(ConnectionState.RECONNECTING, nextState());
+        assertEquals(ConnectionState.DISCONNECTED, nextState());
+        assertEquals(3, connector.attempts().size());
+        assertFalse(connection.isOpen());
+    }
+
+    @Test
+    public void reconnect_resumesHeldReadOnNewLink() throws Exception {
+        PipedOutputStream device = new PipedOutputStream();
+        PipedOutputStream replacement = new PipedOutputStream();
+        FlakyConnector connector = new FlakyConnector(1, new Link(replacement, pipe(replacement), OutputStream.nullOutputStream()));
+        Connection connection = open(new Link(device, pipe(device), OutputStream.nullOutputStream()), connector);
+        CompletableFuture<byte[]> read = connection.readUntil(DELIMITER);
+        assertEquals(ConnectionState.CONNECTED, nextState());
+
+        device.close();
+        assertEquals(ConnectionState.RECONNECTING, nextState());
+        assertFalse(read.isDone());
+        assertEquals(ConnectionState.CONNECTED, nextState());
+        send(replacement, "OK\r\n");
+
+        assertEquals("OK\r\n", new String(read.get(1, TimeUnit.SECONDS), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void reconnect_failsInFlightWriteOnlyOnce() throws Exception {
+        IOException failure = new IOException("Broken pipe");
+        PipedOutputStream device = new PipedOutputStream();
+        PipedOutputStream replacement = new PipedOutputStream();
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        FlakyConnector connector = new FlakyConnector(0, new Link(replacement, pipe(replacement), written));
+        Connection connection = open(new Link(device, pipe(device), new FailingOutputStream(failure)), connector);
+
+        CompletableFuture<Void> lost = connection.write(new byte[] { 'x' });
+        assertSame(failure, cause(lost));
+        connection.write(new byte[] { 'y' }).get(1, TimeUnit.SECONDS);
+
+        assertEquals("y", written.toString("US-ASCII"));
+        assertEquals(1, connector.attempts().size());
+    }
+
+    private Connection open(Link link, Link.Connector connector) {
+        return open(link, new ConnectionConfig().reconnectDelay(0), connector);
+    }
+
+    private Connection open(Link link, ConnectionConfig config, Link.Connector connector) {
+        Connection connection = new Connection(ADDRESS, link, config, connector, new ConnectionStats());
+        connection.setStateListener(states::add);
+        connections.add(connection);
+        connection.start();
+        return connection;
+    }
+
+    private ConnectionState nextState() throws InterruptedException {
+        return states.poll(5, TimeUnit.SECONDS);
+    }
+
+    private static PipedInputStream pipe(PipedOutputStream device) throws IOException {
+        return new PipedInputStream(device, 1024);
+    }
+
+    private static void send(PipedOutputStream device, String data) throws IOException {
+        device.write(data.getBytes(StandardCharsets.US_ASCII));
+        device.flush();
+    }
+
+    private static List<byte[]> commands(String... commands) {
+        List<byte[]> result = new ArrayList<>();
+        for (String command : commands) {
+            result.add((command + "\r").getBytes(StandardCharsets.US_ASCII));
+        }
+        return result;
+    }
+
+    private static List<String> strings(List<byte[]> values) {
+        List<String> result = new ArrayList<>();
+        for (byte[] value : values) {
+            result.add(new String(value, StandardCharsets.US_ASCII));
+        }
+        return result;
+    }
+
+    private static Throwable cause(CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(1, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        throw new AssertionError("Operation did not fail");
+    }
+
+    /**
+     * Fails the first {@code failures} attempts, then returns {@code link}.
+     */
+    private static final class FlakyConnector implements Link.Connector {
+
+        private final int failures;
+        private final Link link;
+        private final List<Long> attempts = new ArrayList<>();
+
+        FlakyConnector(int failures, Link link) {
+            this.failures = failures;
+            this.link = link;
+        }
+
+        synchronized List<Long> attempts() {
+            return new ArrayList<>(attempts);
+        }
+
+        @Override
+        public synchronized Link open() throws IOException {
+            attempts.add(System.nanoTime());
+            if (attempts.size() <= failures) {
+                throw new IOException("Connect attempt " + attempts.size() + " failed");
+            }
+            return link;
+        }
+    }
+
+    private static final class FailingOutputStream extends OutputStream {
+
+        private final IOException failure;
+
+        FailingOutputStream(IOException failure) {
+            this.failure = failure;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            throw failure;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class EventBatcherTest {
+
+    private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    private final HashedTimerWheel wheel = new HashedTimerWheel(5, TimeUnit.MILLISECONDS, 64);
+    private final EventBatcher<String> batcher = new EventBatcher<>(
+        (name, event) -> sent.add(name + ":" + event),
+        (name, batch) -> sent.add(name + ":" + batch),
+        wheel
+    );
+
+    @Test
+    public void offer_sendsImmediatelyWhileDisabled() {
+        batcher.offer("data", "a");
+        batcher.offer("data", "b");
+
+        assertEquals(Arrays.asList("data:a", "data:b"), sent);
+    }
+
+    @Test
+    public void offer_flushesWhenBatchIsFull() {
+        batcher.configure(3, 10_000, Collections.emptySet());
+
+        batcher.offer("data", "a");
+        batcher.offer("data", "b");
+        assertTrue(sent.isEmpty());
+        batcher.offer("data", "c");
+
+        assertEquals(Collections.singletonList("data:[a, b, c]"), sent);
+        assertEquals(0, wheel.pendingCount());
+    }
+
+    @Test
+    public void offer_flushesWhenDelayElapses() throws Exception {
+        batcher.configure(100, 30, Collections.emptySet());
+
+        batcher.offer("data", "a");
+        batcher.offer("stats", "s");
+        batcher.offer("data", "b");
+        Thread.sleep(200);
+
+        assertEquals(Arrays.asList("data:[a, b]", "stats:[s]"), sent);
+    }
+
+    @Test
+    public void offer_sendsBypassedEventsAfterPendingBatches() {
+        batcher.configure(100, 10_000, Collections.singleton("connectionState"));
+
+        batcher.offer("data", "a");
+        batcher.offer("connectionState", "disconnected");
+
+        assertEquals(Arrays.asList("data:[a]", "connectionState:disconnected"), sent);
+    }
+}
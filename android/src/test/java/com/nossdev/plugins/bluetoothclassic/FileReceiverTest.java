@@ -0,0 +1,104 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileReceiverTest {
+
+    private static final byte[] DELIMITER = { '\r', '\n' };
+
+    private final ByteArrayOutputStream file = new ByteArrayOutputStream();
+    private PipedOutputStream device;
+    private Connection connection;
+
+    @Before
+    public void connect() throws Exception {
+        Logger.setLevel(Logger.Level.NONE);
+        device = new PipedOutputStream();
+        PipedInputStream input = new PipedInputStream(device, 1024);
+        connection = new Connection("00:11:22:33:44:55", input, input, OutputStream.nullOutputStream(), new ConnectionConfig());
+        connection.start();
+    }
+
+    @After
+    public void close() throws Exception {
+        connection.close();
+        Logger.setLevel(Logger.Level.INFO);
+    }
+
+    @Test
+    public void receive_stopsAfterDelimiter() throws Exception {
+        FileReceiver receiver = receiver(0);
+        send("line\r\nnext");
+
+        receiver.start().get();
+
+        assertEquals(FileReceiver.StopReason.DELIMITER, receiver.getStopReason());
+        assertEquals("line\r\n", file.toString("US-ASCII"));
+    }
+
+    @Test
+    public void receive_keepsDelimiterPrefixWhenIdle() throws Exception {
+        FileReceiver receiver = receiver(100);
+        send("dump\r");
+
+        receiver.start().get();
+
+        assertEquals(FileReceiver.StopReason.IDLE, receiver.getStopReason());
+        assertEquals("dump\r", file.toString("US-ASCII"));
+        assertEquals(5, receiver.getBytes());
+    }
+
+    @Test
+    public void receive_keepsDelimiterPrefixWhenDisconnected() throws Exception {
+        FileReceiver receiver = receiver(0);
+        send("dump\r");
+        device.close();
+
+        receiver.start().get();
+
+        assertEquals(FileReceiver.StopReason.DISCONNECTED, receiver.getStopReason());
+        assertEquals("dump\r", file.toString("US-ASCII"));
+    }
+
+    @Test
+    public void receive_rejectsOtherReadsUntilDone() throws Exception {
+        FileReceiver receiver = receiver(0);
+        CompletableFuture<FileReceiver> result = receiver.start();
+
+        CompletableFuture<byte[]> read = connection.read();
+        send("part");
+        send("\r\nnext");
+        result.get(1, TimeUnit.SECONDS);
+
+        try {
+            read.get(1, TimeUnit.SECONDS);
+            fail("Read was served during the transfer");
+        } catch (ExecutionException e) {
+            assertEquals("A file is being received - wait for it to finish before reading", e.getCause().getMessage());
+        }
+        assertEquals("part\r\n", file.toString("US-ASCII"));
+        assertEquals("next", new String(connection.read().get(1, TimeUnit.SECONDS), StandardCharsets.US_ASCII));
+    }
+
+    private FileReceiver receiver(int idleTimeout) {
+        return new FileReceiver(connection, Channels.newChannel(file), 0, DELIMITER, idleTimeout, 5_000, 100, bytes -> {});
+    }
+
+    private void send(String data) throws Exception {
+        device.write(data.getBytes(StandardCharsets.US_ASCII));
+        device.flush();
+    }
+}
@@ -0,0 +1,127 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FileSenderTest {
+
+    private static final int CHUNK_SIZE = 4;
+
+    private final RecordingOutputStream stream = new RecordingOutputStream();
+    private Connection connection;
+
+    @Before
+    public void connect() throws Exception {
+        Logger.setLevel(Logger.Level.NONE);
+        PipedInputStream input = new PipedInputStream(new PipedOutputStream());
+        connection = new Connection("00:11:22:33:44:55", input, input, stream, new ConnectionConfig().writeBatchSize(CHUNK_SIZE));
+        connection.start();
+    }
+
+    @After
+    public void close() throws Exception {
+        stream.flushGate.countDown();
+        connection.close();
+        Logger.setLevel(Logger.Level.INFO);
+    }
+
+    @Test
+    public void send_writesChunksInOrderWithPartialLastChunk() throws Exception {
+        FileSender sender = sender(new CountingChannel(10));
+
+        sender.start().get(1, TimeUnit.SECONDS);
+
+        assertEquals(Arrays.asList("[0, 1, 2, 3]", "[4, 5, 6, 7]", "[8, 9]"), stream.writes());
+        assertEquals(10, sender.getBytes());
+    }
+
+    @Test
+    public void send_readsAtMostOneChunkAhead() throws Exception {
+        stream.holdFlush();
+        CountingChannel source = new CountingChannel(20);
+        FileSender sender = sender(source);
+
+        CompletableFuture<FileSender> result = sender.start();
+        assertTrue(stream.flushing.await(1, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertEquals(2 * CHUNK_SIZE, source.read.get());
+        stream.flushGate.countDown();
+
+        result.get(1, TimeUnit.SECONDS);
+        assertEquals(20, source.read.get());
+        assertEquals(5, stream.writes().size());
+    }
+
+    @Test
+    public void cancel_failsTransferAndClosesSource() throws Exception {
+        stream.holdFlush();
+        CountingChannel source = new CountingChannel(20);
+        FileSender sender = sender(source);
+
+        CompletableFuture<FileSender> result = sender.start();
+        assertTrue(stream.flushing.await(1, TimeUnit.SECONDS));
+        sender.cancel();
+
+        try {
+            result.get(1, TimeUnit.SECONDS);
+            fail("Transfer was not cancelled");
+        } catch (CancellationException expected) {}
+        assertFalse(source.isOpen());
+        assertEquals(0, sender.getBytes());
+    }
+
+    private FileSender sender(ReadableByteChannel source) {
+        return new FileSender(connection, source, CHUNK_SIZE, 0, 0, bytes -> {});
+    }
+
+    /**
+     * Serves {@code length} bytes counting up from 0, and counts how many have been read.
+     */
+    private static final class CountingChannel implements ReadableByteChannel {
+
+        final AtomicInteger read = new AtomicInteger();
+        private final ReadableByteChannel channel;
+
+        CountingChannel(int length) {
+            byte[] data = new byte[length];
+            for (int i = 0; i < length; i++) {
+                data[i] = (byte) i;
+            }
+            channel = Channels.newChannel(new ByteArrayInputStream(data));
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            int count = channel.read(dst);
+            if (count > 0) {
+                read.addAndGet(count);
+            }
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class FrameDecoderTest {
+
+    @Test
+    public void delimiter_findsOverlappingDelimiter() throws Exception {
+        FrameDecoder decoder = new DelimiterFrameDecoder(bytes(0x10, 0x10, 0x03), true);
+
+        List<byte[]> frames = decodeAll(decoder, bytes(0x01, 0x10, 0x10, 0x10, 0x03, 0x02));
+
+        assertEquals(1, frames.size());
+        assertArrayEquals(bytes(0x01, 0x10, 0x10, 0x10, 0x03), frames.get(0));
+    }
+
+    @Test
+    public void delimiter_matchesAcrossChunks() throws Exception {
+        FrameDecoder decoder = new DelimiterFrameDecoder(bytes('\r', '\n'), false);
+        RingBuffer buffer = new RingBuffer(64);
+
+        append(buffer, bytes('o', 'k', '\r'));
+        assertEquals(-1, decoder.match(buffer));
+        append(buffer, bytes('\n', 'x'));
+        int length = decoder.match(buffer);
+
+        assertEquals(4, length);
+        assertEquals(4, decoder.match(buffer));
+        assertArrayEquals(bytes('o', 'k'), decoder.decode(buffer, length));
+    }
+
+    @Test
+    public void delimiter_reportsPartialMatchAtEnd() {
+        DelimiterFrameDecoder decoder = new DelimiterFrameDecoder(bytes('E', 'N', 'D'), true);
+        RingBuffer buffer = new RingBuffer(64);
+
+        append(buffer, bytes('x', 'E', 'N'));
+
+        assertEquals(-1, decoder.match(buffer));
+        assertEquals(2, decoder.partialMatch());
+    }
+
+    @Test
+    public void lengthField_decodesBigAndLittleEndianHeaders() throws Exception {
+        assertArrayEquals(
+            bytes(0xAA, 0xBB, 0xCC),
+            decodeAll(new LengthFieldFrameDecoder(2, false, false, 1024), bytes(0x00, 0x03, 0xAA, 0xBB, 0xCC)).get(0)
+        );
+        assertArrayEquals(
+            bytes(0xAA),
+            decodeAll(new LengthFieldFrameDecoder(4, true, true, 1024), bytes(0x05, 0x00, 0x00, 0x00, 0xAA)).get(0)
+        );
+    }
+
+    @Test
+    public void lengthField_waitsForCompleteFrame() throws Exception {
+        FrameDecoder decoder = new LengthFieldFrameDecoder(1, false, false, 1024);
+
+        assertTrue(decodeAll(decoder, bytes(0x04, 0x01, 0x02)).isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void lengthField_rejectsOversizedFrame() throws Exception {
+        decodeAll(new LengthFieldFrameDecoder(2, false, false, 16), bytes(0x01, 0x00));
+    }
+
+    @Test
+    public void fixedLength_splitsEvenly() throws Exception {
+        List<byte[]> frames = decodeAll(new FixedLengthFrameDecoder(2), bytes(1, 2, 3, 4, 5));
+
+        assertEquals(2, frames.size());
+        assertArrayEquals(bytes(3, 4), frames.get(1));
+    }
+
+    @Test
+    public void slip_unescapesAndSkipsEmptyFrames() throws Exception {
+        List<byte[]> frames = decodeAll(new SlipFrameDecoder(), bytes(0xC0, 0x01, 0xDB, 0xDC, 0xDB, 0xDD, 0x02, 0xC0));
+
+        assertEquals(1, frames.size());
+        assertArrayEquals(bytes(0x01, 0xC0, 0xDB, 0x02), frames.get(0));
+    }
+
+    @Test
+    public void cobs_decodesZeroBytes() throws Exception {
+        List<byte[]> frames = decodeAll(new CobsFrameDecoder(), bytes(0x03, 0x11, 0x22, 0x02, 0x33, 0x00, 0x01, 0x01, 0x00));
+
+        assertEquals(2, frames.size());
+        assertArrayEquals(bytes(0x11, 0x22, 0x00, 0x33), frames.get(0));
+        assertArrayEquals(bytes(0x00), frames.get(1));
+    }
+
+    @Test(expected = IOException.class)
+    public void cobs_rejectsTruncatedBlock() throws Exception {
+        decodeAll(new CobsFrameDecoder(), bytes(0x05, 0x11, 0x00));
+    }
+
+    private static List<byte[]> decodeAll(FrameDecoder decoder, byte[] input) throws IOException {
+        RingBuffer buffer = new RingBuffer(64);
+        append(buffer, input);
+        List<byte[]> frames = new ArrayList<>();
+        int length;
+        while ((length = decoder.match(buffer)) >= 0) {
+            byte[] frame = decoder.decode(buffer, length);
+            buffer.skip(length);
+            decoder.reset();
+            if (frame != null) {
+                frames.add(frame);
+            }
+        }
+        return frames;
+    }
+
+    private static void append(RingBuffer buffer, byte[] data) {
+        buffer.write(data, 0, data.length);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,72 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.Test;
+
+public class FramePipelineTest {
+
+    private static final byte[] CHECK_INPUT = "123456789".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    public void checksum_matchesStandardCheckValues() {
+        assertEquals(0xF4, Checksum.CRC8.compute(CHECK_INPUT, 0, CHECK_INPUT.length));
+        assertEquals(0x4B37, Checksum.CRC16.compute(CHECK_INPUT, 0, CHECK_INPUT.length));
+        assertEquals(0x29B1, Checksum.CRC16_CCITT.compute(CHECK_INPUT, 0, CHECK_INPUT.length));
+        assertEquals(0xCBF43926L, Checksum.CRC32.compute(CHECK_INPUT, 0, CHECK_INPUT.length));
+        assertEquals(0x31, Checksum.XOR.compute(CHECK_INPUT, 0, CHECK_INPUT.length));
+    }
+
+    @Test
+    public void checksum_stripsValidAndDropsCorruptFrames() {
+        LongAdder dropped = new LongAdder();
+        FramePipeline pipeline = pipeline(FramePipeline.checksum(Checksum.CRC16, true, 0, true), dropped);
+        byte[] frame = Arrays.copyOf(CHECK_INPUT, CHECK_INPUT.length + 2);
+        frame[9] = 0x37;
+        frame[10] = 0x4B;
+
+        assertArrayEquals(CHECK_INPUT, pipeline.apply(frame));
+        frame[0] ^= 1;
+        assertNull(pipeline.apply(frame));
+        assertEquals(1, dropped.sum());
+    }
+
+    @Test
+    public void filters_dropMatchingPrefixAndMask() {
+        FramePipeline prefix = pipeline(FramePipeline.dropPrefix(bytes(0xAA, 0x00)), new LongAdder());
+        FramePipeline mask = pipeline(FramePipeline.dropMask(bytes(0xF0), bytes(0x80)), new LongAdder());
+
+        assertNull(prefix.apply(bytes(0xAA, 0x00, 0x01)));
+        assertNotNull(prefix.apply(bytes(0xAA, 0x01)));
+        assertNull(mask.apply(bytes(0x8F, 0x01)));
+        assertNotNull(mask.apply(bytes(0x7F, 0x01)));
+    }
+
+    @Test
+    public void dedup_dropsRepeatsWithinWindow() throws Exception {
+        FramePipeline pipeline = pipeline(FramePipeline.dedup(50), new LongAdder());
+
+        assertNotNull(pipeline.apply(bytes(1, 2)));
+        assertNull(pipeline.apply(bytes(1, 2)));
+        assertNotNull(pipeline.apply(bytes(3)));
+        Thread.sleep(80);
+
+        assertNotNull(pipeline.apply(bytes(1, 2)));
+    }
+
+    private static FramePipeline pipeline(FramePipeline.Stage stage, LongAdder dropped) {
+        return new FramePipeline(Collections.singletonList(stage), null, dropped);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+}
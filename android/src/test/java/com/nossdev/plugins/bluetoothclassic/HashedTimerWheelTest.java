@@ -0,0 +1,103 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class HashedTimerWheelTest {
+
+    private static final byte[] BYTE = { 'x' };
+    private static final byte[] LINE = { 'o', 'k', '\n' };
+
+    @Test
+    public void schedule_firesAfterDelay() throws Exception {
+        HashedTimerWheel wheel = new HashedTimerWheel(5, TimeUnit.MILLISECONDS, 64);
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        wheel.schedule(fired::countDown, 50, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 50);
+        assertEquals(0, wheel.pendingCount());
+    }
+
+    @Test
+    public void schedule_firesDelaysLongerThanOneRotation() throws Exception {
+        HashedTimerWheel wheel = new HashedTimerWheel(1, TimeUnit.MILLISECONDS, 8);
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        wheel.schedule(fired::countDown, 40, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 40);
+    }
+
+    @Test
+    public void cancel_preventsTask() throws Exception {
+        HashedTimerWheel wheel = new HashedTimerWheel(5, TimeUnit.MILLISECONDS, 64);
+        AtomicInteger runs = new AtomicInteger();
+
+        HashedTimerWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        Thread.sleep(100);
+
+        assertEquals(0, runs.get());
+        assertTrue(timeout.isCancelled());
+        assertEquals(0, wheel.pendingCount());
+    }
+
+    @Test
+    public void completedReads_keepThreadCountFlat() throws Exception {
+        PipedOutputStream device = new PipedOutputStream();
+        PipedInputStream input = new PipedInputStream(device, 1024);
+        Connection connection = new Connection("00:11:22:33:44:55", input, input, OutputStream.nullOutputStream(), new ConnectionConfig());
+        connection.start();
+        try {
+            // Starts the reader and timer threads before counting.
+            receive(connection.read(), device, BYTE);
+            Set<Thread> baseline = Thread.getAllStackTraces().keySet();
+
+            for (int i = 0; i < 5_000; i++) {
+                assertEquals(BYTE.length, receive(connection.read(), device, BYTE).length);
+                assertEquals(LINE.length, receive(connection.readUntil(new byte[] { '\n' }), device, LINE).length);
+            }
+
+            Set<Thread> started = new HashSet<>(Thread.getAllStackTraces().keySet());
+            started.removeAll(baseline);
+            assertEquals(Collections.emptySet(), started);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            while (HashedTimerWheel.shared().pendingCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(0, HashedTimerWheel.shared().pendingCount());
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Arms a timeout on {@code read} the way the plugin does, then sends {@code data} and waits for
+     * the read to complete. Flushing wakes the reader thread, which otherwise polls the pipe once a
+     * second.
+     */
+    private static byte[] receive(CompletableFuture<byte[]> read, PipedOutputStream device, byte[] data) throws IOException {
+        HashedTimerWheel.shared().failAfter(read, 10_000);
+        device.write(data);
+        device.flush();
+        return read.join();
+    }
+}
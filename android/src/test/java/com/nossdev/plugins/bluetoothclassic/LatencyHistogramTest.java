@@ -0,0 +1,43 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void indexOf_roundTripsWithinBucketError() {
+        for (long value : new long[] { 0, 1, 7, 8, 15, 16, 1_000, 123_456, 10_000_000_000L, Long.MAX_VALUE / 2 }) {
+            long estimate = LatencyHistogram.valueOf(LatencyHistogram.indexOf(value));
+            assertTrue(value + " -> " + estimate, Math.abs(estimate - value) <= value / 8);
+        }
+    }
+
+    @Test
+    public void percentile_tracksUniformDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+        }
+
+        assertEquals(1000, histogram.count());
+        assertEquals(500_000, histogram.percentile(50), 500_000 / 8);
+        assertEquals(950_000, histogram.percentile(95), 950_000 / 8);
+        assertEquals(990_000, histogram.percentile(99), 990_000 / 8);
+        assertEquals(1_000_000, histogram.max());
+        assertEquals(500_500, histogram.mean());
+    }
+
+    @Test
+    public void reset_clearsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(42);
+
+        histogram.reset();
+
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(99));
+        assertEquals(0, histogram.max());
+    }
+}
@@ -0,0 +1,48 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class LoggerTest {
+
+    @After
+    public void restoreLevel() {
+        Logger.setLevel(Logger.Level.INFO);
+    }
+
+    @Test
+    public void format_substitutesPlaceholdersInOrder() {
+        assertEquals("Writing 3 bytes to AA:BB", Logger.format("Writing {} bytes to {}", 3, "AA:BB", null, 2));
+        assertEquals("a=1 b=null c=x", Logger.format("a={} b={} c={}", 1, null, "x", 3));
+    }
+
+    @Test
+    public void format_keepsSurplusPlaceholdersAndArguments() {
+        assertEquals("1 and {}", Logger.format("{} and {}", 1, null, null, 1));
+        assertEquals("no placeholders", Logger.format("no placeholders", 1, 2, null, 2));
+    }
+
+    @Test
+    public void isEnabled_followsLevel() {
+        Logger.setLevel(Logger.Level.WARN);
+
+        assertFalse(Logger.isDebugEnabled());
+        assertFalse(Logger.isEnabled(Logger.Level.INFO));
+        assertTrue(Logger.isEnabled(Logger.Level.WARN));
+        assertTrue(Logger.isEnabled(Logger.Level.ERROR));
+
+        Logger.setLevel(Logger.Level.NONE);
+        assertFalse(Logger.isEnabled(Logger.Level.ERROR));
+    }
+
+    @Test
+    public void debug_skipsSupplierWhenFiltered() {
+        Logger.setLevel(Logger.Level.INFO);
+
+        Logger.debug(() -> {
+            throw new AssertionError("supplier evaluated");
+        });
+    }
+}
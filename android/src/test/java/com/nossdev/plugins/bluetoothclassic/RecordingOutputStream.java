@@ -0,0 +1,56 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Records every write call, and can hold flushes or fail writes.
+ */
+final class RecordingOutputStream extends OutputStream {
+
+    final CountDownLatch flushing = new CountDownLatch(1);
+    final CountDownLatch flushGate = new CountDownLatch(1);
+    private final List<String> writes = new ArrayList<>();
+    private volatile boolean holdFlush;
+    private volatile IOException failure;
+
+    void holdFlush() {
+        holdFlush = true;
+    }
+
+    void failWith(IOException failure) {
+        this.failure = failure;
+    }
+
+    synchronized List<String> writes() {
+        return new ArrayList<>(writes);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (failure != null) throw failure;
+        synchronized (this) {
+            writes.add(Arrays.toString(Arrays.copyOfRange(b, off, off + len)));
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushing.countDown();
+        if (!holdFlush) return;
+        try {
+            flushGate.await();
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+}
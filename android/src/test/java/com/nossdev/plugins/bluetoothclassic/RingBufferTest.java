@@ -0,0 +1,93 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class RingBufferTest {
+
+    @Test
+    public void write_wrapsAroundEnd() {
+        RingBuffer buffer = new RingBuffer(8);
+        append(buffer, bytes(1, 2, 3, 4, 5, 6));
+        buffer.skip(4);
+
+        assertEquals(5, buffer.write(bytes(7, 8, 9, 10, 11, 12), 1, 5));
+
+        assertEquals(7, buffer.size());
+        assertEquals(1, buffer.remaining());
+        assertArrayEquals(bytes(5, 6, 8, 9, 10, 11, 12), buffer.readAll());
+    }
+
+    @Test
+    public void write_acceptsOnlyWhatFits() {
+        RingBuffer buffer = new RingBuffer(4);
+        append(buffer, bytes(1, 2, 3));
+        buffer.skip(2);
+
+        assertEquals(3, buffer.write(bytes(4, 5, 6, 7), 0, 4));
+
+        assertEquals(0, buffer.remaining());
+        assertArrayEquals(bytes(3, 4, 5, 6), buffer.readAll());
+    }
+
+    @Test
+    public void peek_readsAcrossEndWithoutConsuming() {
+        RingBuffer buffer = wrapped();
+
+        byte[] dst = new byte[7];
+        assertEquals(5, buffer.peek(dst, 2, 5));
+
+        assertArrayEquals(bytes(0, 0, 5, 6, 7, 8, 9), dst);
+        assertArrayEquals(bytes(5, 6, 7), buffer.peek(3));
+        assertEquals(5, buffer.size());
+        assertEquals(9, buffer.get(4));
+    }
+
+    @Test
+    public void skip_movesHeadAcrossEnd() {
+        RingBuffer buffer = wrapped();
+
+        buffer.skip(4);
+
+        assertEquals(1, buffer.size());
+        assertEquals(9, buffer.get(0));
+        append(buffer, bytes(10, 11, 12, 13, 14));
+        assertArrayEquals(bytes(9, 10, 11, 12, 13, 14), buffer.readAll());
+    }
+
+    @Test
+    public void skip_pastSizeEmptiesBuffer() {
+        RingBuffer buffer = wrapped();
+
+        buffer.skip(100);
+
+        assertTrue(buffer.isEmpty());
+        assertEquals(6, buffer.remaining());
+        append(buffer, bytes(1, 2, 3, 4, 5, 6));
+        assertArrayEquals(bytes(1, 2, 3, 4, 5, 6), buffer.readAll());
+    }
+
+    /**
+     * Returns a 6 byte buffer holding 5 to 9, with 7 to 9 wrapped to the start of the array.
+     */
+    private static RingBuffer wrapped() {
+        RingBuffer buffer = new RingBuffer(6);
+        append(buffer, bytes(1, 2, 3, 4, 5, 6));
+        buffer.skip(4);
+        append(buffer, bytes(7, 8, 9));
+        return buffer;
+    }
+
+    private static void append(RingBuffer buffer, byte[] data) {
+        buffer.write(data, 0, data.length);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,221 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SocketReaderTest {
+
+    private final ConnectionStats stats = new ConnectionStats();
+    private PipedOutputStream device;
+    private Connection connection;
+
+    @Before
+    public void silenceLogging() {
+        Logger.setLevel(Logger.Level.NONE);
+    }
+
+    @After
+    public void close() throws Exception {
+        if (connection != null) {
+            connection.close();
+        }
+        Logger.setLevel(Logger.Level.INFO);
+    }
+
+    @Test
+    public void read_drainsMultiChunkBurst() throws Exception {
+        byte[] burst = pattern(20_000);
+        connect(new ConnectionConfig().highWatermark(burst.length));
+        CountDownLatch buffered = new CountDownLatch(1);
+        connection.setBufferListener((level, size) -> buffered.countDown());
+
+        send(burst);
+        assertTrue(buffered.await(5, TimeUnit.SECONDS));
+
+        assertArrayEquals(burst, connection.read().get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void readUntilClosed_completesWhenStreamEnds() throws Exception {
+        connect(new ConnectionConfig());
+        CompletableFuture<byte[]> read = connection.readUntilClosed();
+
+        send(new byte[] { 'a', 'b' });
+        send(new byte[] { 'c' });
+        awaitReceived(3);
+        assertFalse(read.isDone());
+        device.close();
+
+        assertArrayEquals(new byte[] { 'a', 'b', 'c' }, read.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void notifications_deliverSmallChunkAfterMaxLatency() throws Exception {
+        connect(new ConnectionConfig());
+        BlockingQueue<byte[]> delivered = new LinkedBlockingQueue<>();
+        connection.startNotifications(16, 200, delivered::add);
+
+        send(new byte[] { 1, 2, 3 });
+
+        assertNull(delivered.poll(100, TimeUnit.MILLISECONDS));
+        assertArrayEquals(new byte[] { 1, 2, 3 }, delivered.poll(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void notifications_deliverFullChunkImmediatelyAndOnce() throws Exception {
+        connect(new ConnectionConfig());
+        BlockingQueue<byte[]> delivered = new LinkedBlockingQueue<>();
+        connection.startNotifications(4, 500, delivered::add);
+
+        send(new byte[] { 1, 2, 3, 4, 5 });
+
+        assertArrayEquals(new byte[] { 1, 2, 3, 4, 5 }, delivered.poll(250, TimeUnit.MILLISECONDS));
+        assertNull(delivered.poll(700, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void overflowBlock_holdsReaderUntilReadMakesRoom() throws Exception {
+        connect(new ConnectionConfig().readBufferSize(8).overflowPolicy(OverflowPolicy.BLOCK));
+
+        send(pattern(12));
+        awaitReceived(12);
+
+        assertArrayEquals(new byte[] { 0, 1, 2, 3, 4, 5, 6, 7 }, connection.read().get(1, TimeUnit.SECONDS));
+        assertArrayEquals(new byte[] { 8, 9, 10, 11 }, connection.read().get(1, TimeUnit.SECONDS));
+        assertEquals(0, stats.bytesDropped.sum());
+    }
+
+    @Test
+    public void overflowDropOldest_keepsNewestBytes() throws Exception {
+        connect(new ConnectionConfig().readBufferSize(8).overflowPolicy(OverflowPolicy.DROP_OLDEST));
+
+        send(pattern(12));
+        endOfStream();
+
+        assertArrayEquals(new byte[] { 4, 5, 6, 7, 8, 9, 10, 11 }, connection.read().get(1, TimeUnit.SECONDS));
+        assertEquals(4, stats.bytesDropped.sum());
+    }
+
+    @Test
+    public void overflowDropNewest_keepsBufferedBytes() throws Exception {
+        connect(new ConnectionConfig().readBufferSize(8).overflowPolicy(OverflowPolicy.DROP_NEWEST));
+
+        send(pattern(12));
+        endOfStream();
+
+        assertArrayEquals(new byte[] { 0, 1, 2, 3, 4, 5, 6, 7 }, connection.read().get(1, TimeUnit.SECONDS));
+        assertEquals(4, stats.bytesDropped.sum());
+    }
+
+    @Test
+    public void overflowFail_rejectsNextRead() throws Exception {
+        connect(new ConnectionConfig().readBufferSize(8).overflowPolicy(OverflowPolicy.FAIL));
+
+        send(pattern(12));
+        awaitDropped(12);
+
+        assertEquals("Inbound buffer overflow, 12 bytes dropped", cause(connection.read()).getMessage());
+        send(new byte[] { 'o', 'k' });
+        assertArrayEquals(new byte[] { 'o', 'k' }, connection.read().get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void overflowFail_rejectsPendingRead() throws Exception {
+        connect(new ConnectionConfig().readBufferSize(8).overflowPolicy(OverflowPolicy.FAIL));
+        CompletableFuture<byte[]> read = connection.readUntil(new byte[] { '\n' });
+
+        send(pattern(12));
+
+        assertTrue(cause(read) instanceof IOException);
+        awaitDropped(12);
+    }
+
+    @Test
+    public void watermarks_reportHighOnceAndLowAfterDraining() throws Exception {
+        connect(new ConnectionConfig().readBufferSize(16).highWatermark(12).lowWatermark(2));
+        BlockingQueue<String> levels = new LinkedBlockingQueue<>();
+        connection.setBufferListener((level, size) -> levels.add(level + " " + size));
+
+        send("abcdefgh\nijk".getBytes(StandardCharsets.US_ASCII));
+        assertEquals("HIGH 12", levels.poll(1, TimeUnit.SECONDS));
+        send(new byte[] { 'l', 'm' });
+        awaitReceived(14);
+        assertNull(levels.poll(100, TimeUnit.MILLISECONDS));
+
+        connection.readUntil(new byte[] { '\n' }).get(1, TimeUnit.SECONDS);
+        assertNull(levels.poll(100, TimeUnit.MILLISECONDS));
+        assertArrayEquals("ijklm".getBytes(StandardCharsets.US_ASCII), connection.read().get(1, TimeUnit.SECONDS));
+        assertEquals("LOW 0", levels.poll(1, TimeUnit.SECONDS));
+    }
+
+    private void connect(ConnectionConfig config) throws Exception {
+        device = new PipedOutputStream();
+        PipedInputStream input = new PipedInputStream(device, 64 * 1024);
+        connection = new Connection("00:11:22:33:44:55", new Link(input, input, OutputStream.nullOutputStream()), config, null, stats);
+        connection.start();
+    }
+
+    private void send(byte[] data) throws Exception {
+        device.write(data);
+        device.flush();
+    }
+
+    private void awaitReceived(long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (stats.bytesIn.sum() < count) {
+            assertTrue("Only " + stats.bytesIn.sum() + " of " + count + " bytes received", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitDropped(long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (stats.bytesDropped.sum() < count) {
+            assertTrue("Only " + stats.bytesDropped.sum() + " of " + count + " bytes dropped", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Ends the stream and waits until the reader has buffered everything sent before it.
+     */
+    private void endOfStream() throws Exception {
+        device.close();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!connection.isInputClosed()) {
+            assertTrue("Stream end not seen", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static Throwable cause(CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(1, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        throw new AssertionError("Read did not fail");
+    }
+
+    private static byte[] pattern(int length) {
+        byte[] result = new byte[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = (byte) i;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SocketWriterTest {
+
+    private final RecordingOutputStream stream = new RecordingOutputStream();
+    private SocketWriter writer;
+
+    @Before
+    public void silenceLogging() {
+        Logger.setLevel(Logger.Level.NONE);
+    }
+
+    @After
+    public void stop() {
+        if (writer != null) {
+            writer.stop();
+        }
+        stream.flushGate.countDown();
+        Logger.setLevel(Logger.Level.INFO);
+    }
+
+    @Test
+    public void write_mergesSmallWritesUpToBatchSize() throws Exception {
+        writer = start(8, 100);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(writer.write(new byte[] { (byte) i, (byte) i, (byte) i }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(1, TimeUnit.SECONDS);
+
+        assertEquals(
+            Arrays.asList("[0, 0, 0, 1, 1, 1]", "[2, 2, 2, 3, 3, 3]", "[4, 4, 4]"),
+            stream.writes()
+        );
+    }
+
+    @Test
+    public void write_waitsBatchDelayForMoreData() throws Exception {
+        writer = start(64, 300);
+
+        CompletableFuture<Void> first = writer.write(new byte[] { 1, 2 });
+        Thread.sleep(100);
+        assertFalse(first.isDone());
+        CompletableFuture<Void> second = writer.write(new byte[] { 3, 4 });
+        second.get(1, TimeUnit.SECONDS);
+
+        assertTrue(first.isDone());
+        assertEquals(Arrays.asList("[1, 2, 3, 4]"), stream.writes());
+    }
+
+    @Test
+    public void write_completesOnlyAfterFlush() throws Exception {
+        stream.holdFlush();
+        writer = start(64, 0);
+
+        CompletableFuture<Void> future = writer.write(new byte[] { 1, 2, 3 });
+        assertTrue(stream.flushing.await(1, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        assertFalse(future.isDone());
+        stream.flushGate.countDown();
+
+        future.get(1, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("[1, 2, 3]"), stream.writes());
+    }
+
+    @Test
+    public void write_failsBatchOnStreamError() throws Exception {
+        IOException failure = new IOException("Broken pipe");
+        stream.failWith(failure);
+        CompletableFuture<IOException> lost = new CompletableFuture<>();
+        writer = new SocketWriter("test", stream, 64, 100, false, (failed, e) -> lost.complete(e));
+        writer.start();
+
+        CompletableFuture<Void> first = writer.write(new byte[] { 1 });
+        CompletableFuture<Void> second = writer.write(new byte[] { 2 });
+
+        assertSame(failure, cause(first));
+        assertSame(failure, cause(second));
+        assertSame(failure, lost.get(1, TimeUnit.SECONDS));
+    }
+
+    private SocketWriter start(int maxBatchSize, int batchDelay) {
+        SocketWriter writer = new SocketWriter("test", stream, maxBatchSize, batchDelay);
+        writer.start();
+        return writer;
+    }
+
+    private static Throwable cause(CompletableFuture<Void> future) throws Exception {
+        try {
+            future.get(1, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        throw new AssertionError("Write did not fail");
+    }
+}
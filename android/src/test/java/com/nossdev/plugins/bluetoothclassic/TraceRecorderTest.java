@@ -0,0 +1,98 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TraceRecorderTest {
+
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = File.createTempFile("trace", ".trace");
+    }
+
+    @After
+    public void deleteFile() {
+        file.delete();
+    }
+
+    @Test
+    public void replay_returnsInboundChunksOnly() throws Exception {
+        try (TraceRecorder recorder = new TraceRecorder(file, "00:11:22:33:44:55", 4096)) {
+            recorder.record(TraceRecorder.INBOUND, bytes(1, 2, 3), 0, 3);
+            recorder.record(TraceRecorder.OUTBOUND, bytes(9, 9), 0, 2);
+            recorder.record(TraceRecorder.INBOUND, bytes(0, 4, 5), 1, 2);
+
+            assertEquals(3, recorder.records());
+            assertEquals(7, recorder.bytes());
+        }
+
+        TraceReplay replay = new TraceReplay(file, 0);
+
+        assertEquals("00:11:22:33:44:55", replay.getAddress());
+        assertArrayEquals(bytes(1, 2, 3, 4, 5), readAll(replay, 5));
+    }
+
+    @Test
+    public void record_dropsChunksOnceFull() throws Exception {
+        int size = TraceRecorder.HEADER_SIZE + 2 * (TraceRecorder.RECORD_HEADER_SIZE + 4);
+        try (TraceRecorder recorder = new TraceRecorder(file, "AA", size)) {
+            recorder.record(TraceRecorder.INBOUND, bytes(1, 2, 3, 4), 0, 4);
+            recorder.record(TraceRecorder.INBOUND, bytes(5, 6, 7, 8, 9), 0, 5);
+            recorder.record(TraceRecorder.INBOUND, bytes(10), 0, 1);
+
+            assertEquals(1, recorder.records());
+            assertEquals(2, recorder.dropped());
+        }
+
+        assertArrayEquals(bytes(1, 2, 3, 4), readAll(new TraceReplay(file, 0), 4));
+    }
+
+    @Test
+    public void replay_endsWhenClosedAfterTrace() throws Exception {
+        try (TraceRecorder recorder = new TraceRecorder(file, "AA", 1024)) {
+            recorder.record(TraceRecorder.INBOUND, bytes(1), 0, 1);
+        }
+        TraceReplay replay = new TraceReplay(file, 0);
+        assertEquals(1, replay.read());
+
+        new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ignore) {}
+            replay.close();
+        }).start();
+
+        assertEquals(-1, replay.read());
+    }
+
+    @Test(expected = IOException.class)
+    public void replay_rejectsOtherFiles() throws Exception {
+        new TraceReplay(file, 0);
+    }
+
+    private static byte[] readAll(TraceReplay replay, int length) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[length];
+        while (out.size() < length) {
+            int count = replay.read(chunk, 0, length - out.size());
+            out.write(chunk, 0, count);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+}
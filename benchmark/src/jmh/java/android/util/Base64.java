@@ -0,0 +1,29 @@
+package android.util;
+
+/**
+ * The subset of Android's base64 codec used by the plugin, backed by {@link java.util.Base64}.
+ * Shadows the stub in {@code android.jar}, which throws when called off-device.
+ */
+public final class Base64 {
+
+    public static final int DEFAULT = 0;
+    public static final int NO_WRAP = 2;
+
+    private Base64() {}
+
+    /**
+     * Decodes like Android's codec, which skips line breaks and other whitespace.
+     *
+     * @throws IllegalArgumentException if {@code str} is not valid base64
+     */
+    public static byte[] decode(String str, int flags) {
+        return java.util.Base64.getMimeDecoder().decode(str);
+    }
+
+    public static String encodeToString(byte[] input, int flags) {
+        if ((flags & NO_WRAP) != 0) {
+            return java.util.Base64.getEncoder().encodeToString(input);
+        }
+        return java.util.Base64.getMimeEncoder(76, new byte[] { '\n' }).encodeToString(input);
+    }
+}
@@ -0,0 +1,30 @@
+package android.util;
+
+/**
+ * Discards log output so benchmarks measure the plugin rather than logcat. Shadows the stub in
+ * {@code android.jar}, which throws when called off-device.
+ */
+public final class Log {
+
+    private Log() {}
+
+    public static int d(String tag, String msg) {
+        return 0;
+    }
+
+    public static int i(String tag, String msg) {
+        return 0;
+    }
+
+    public static int w(String tag, String msg) {
+        return 0;
+    }
+
+    public static int e(String tag, String msg) {
+        return 0;
+    }
+
+    public static int e(String tag, String msg, Throwable tr) {
+        return 0;
+    }
+}
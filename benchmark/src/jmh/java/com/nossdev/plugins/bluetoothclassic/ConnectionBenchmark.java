@@ -0,0 +1,108 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Drives a {@link Connection}'s write, read, readUntil and timeout paths over a {@link Loopback}
+ * link, down to the socket reader and writer threads. Timeouts are armed on the shared timer
+ * wheel, as the plugin does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectionBenchmark {
+
+    private static final String ADDRESS = "00:11:22:33:44:55";
+    private static final byte[] DELIMITER = { '\r', '\n' };
+
+    @Param({ "16", "256", "4096", "65536" })
+    int payloadSize;
+
+    private Connection connection;
+    private Loopback loopback;
+    private byte[] payload;
+    private byte[] line;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        payload = new byte[payloadSize];
+        for (int i = 0; i < payloadSize; i++) {
+            payload[i] = (byte) ('a' + i % 26);
+        }
+        line = Arrays.copyOf(payload, payloadSize + DELIMITER.length);
+        System.arraycopy(DELIMITER, 0, line, payloadSize, DELIMITER.length);
+
+        loopback = new Loopback(2 * line.length);
+        // Room for a whole line, so readUntil never fails on a full buffer.
+        ConnectionConfig config = new ConnectionConfig().readBufferSize(Math.max(ConnectionConfig.DEFAULT_READ_BUFFER_SIZE, 2 * line.length));
+        connection = new Connection(ADDRESS, loopback.link(), config, null, new ConnectionStats());
+        connection.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void write() {
+        connection.write(payload).join();
+    }
+
+    /**
+     * A read only returns what has arrived so far, so large payloads take several reads.
+     */
+    @Benchmark
+    public int read() throws IOException {
+        loopback.device.write(payload);
+        int received = 0;
+        while (received < payloadSize) {
+            received += connection.read().join().length;
+        }
+        return received;
+    }
+
+    @Benchmark
+    public byte[] readUntil() throws IOException {
+        loopback.device.write(line);
+        return connection.readUntil(DELIMITER).join();
+    }
+
+    /**
+     * Time from arming a 1 ms read timeout until the read fails, bounded below by the timer wheel's
+     * tick. Independent of the payload size.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Throwable readTimeout() {
+        try {
+            CompletableFuture<byte[]> read = connection.read();
+            HashedTimerWheel.shared().failAfter(read, 1);
+            read.join();
+            throw new IllegalStateException("Read completed without data");
+        } catch (CompletionException e) {
+            return e.getCause();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Splits one encoded frame out of a {@link RingBuffer} per operation, the way the socket reader
+ * does, for every supported framing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FramingBenchmark {
+
+    @Param({ "delimiter", "length", "cobs", "slip" })
+    String framing;
+
+    @Param({ "16", "256", "4096", "65536" })
+    int payloadSize;
+
+    private FrameDecoder decoder;
+    private RingBuffer buffer;
+    private byte[] frame;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Letters never collide with a delimiter, a COBS zero or a SLIP control byte.
+        byte[] payload = new byte[payloadSize];
+        for (int i = 0; i < payloadSize; i++) {
+            payload[i] = (byte) ('a' + i % 26);
+        }
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream(payloadSize + payloadSize / 254 + 8);
+        switch (framing) {
+            case "delimiter" -> {
+                decoder = new DelimiterFrameDecoder(new byte[] { '\r', '\n' }, false);
+                encoded.write(payload, 0, payloadSize);
+                encoded.write('\r');
+                encoded.write('\n');
+            }
+            case "length" -> {
+                decoder = new LengthFieldFrameDecoder(4, false, false, payloadSize + 4);
+                for (int shift = 24; shift >= 0; shift -= 8) {
+                    encoded.write(payloadSize >>> shift);
+                }
+                encoded.write(payload, 0, payloadSize);
+            }
+            case "cobs" -> {
+                decoder = new CobsFrameDecoder();
+                for (int offset = 0;; offset += 254) {
+                    int block = Math.min(254, payloadSize - offset);
+                    encoded.write(block + 1);
+                    encoded.write(payload, offset, block);
+                    if (block < 254) break;
+                }
+                encoded.write(0);
+            }
+            case "slip" -> {
+                decoder = new SlipFrameDecoder();
+                encoded.write(payload, 0, payloadSize);
+                encoded.write(0xC0);
+            }
+            default -> throw new IllegalArgumentException("Unknown framing: " + framing);
+        }
+        frame = encoded.toByteArray();
+        buffer = new RingBuffer(frame.length);
+    }
+
+    @Benchmark
+    public byte[] decode() throws IOException {
+        buffer.write(frame, 0, frame.length);
+        int length = decoder.match(buffer);
+        byte[] payload = decoder.decode(buffer, length);
+        buffer.skip(length);
+        decoder.reset();
+        return payload;
+    }
+}
@@ -0,0 +1,61 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of a debug statement on the write path at every log level, so enabled debug logging is
+ * compared with each level that filters it out, with and without caller info. Log output itself is discarded by the {@code android.util.Log} shim.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerBenchmark {
+
+    private static final String ADDRESS = "00:11:22:33:44:55";
+
+    @Param({ "DEBUG", "INFO", "WARN", "ERROR", "NONE" })
+    Logger.Level level;
+
+    @Param({ "false", "true" })
+    boolean callerInfo;
+
+    private int length = 4096;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Logger.setLevel(level);
+        Logger.setCallerInfo(callerInfo);
+    }
+
+    @Benchmark
+    public void parameterized() {
+        Logger.debug("Writing {} bytes to {}", length, ADDRESS);
+    }
+
+    @Benchmark
+    public void supplier() {
+        Logger.debug(() -> "Writing " + length + " bytes to " + ADDRESS);
+    }
+
+    @Benchmark
+    public void guarded() {
+        if (Logger.isDebugEnabled()) {
+            Logger.debug("Writing {} bytes to {}", length, ADDRESS);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * In-memory stand-in for an RFCOMM socket. Bytes written to {@link #device} can be read from
+ * {@link #input}, the stream the plugin reads the remote device from; bytes the plugin writes to
+ * {@link #output} are discarded. Unlike piped streams, neither end is tied to a thread.
+ */
+final class Loopback implements Closeable {
+
+    final InputStream input = new Input();
+    final OutputStream device = new Device();
+    final OutputStream output = OutputStream.nullOutputStream();
+
+    private final RingBuffer buffer;
+    private boolean closed;
+
+    Loopback(int capacity) {
+        this.buffer = new RingBuffer(capacity);
+    }
+
+    Link link() {
+        return new Link(this, input, output);
+    }
+
+    @Override
+    public void close() {
+        synchronized (buffer) {
+            closed = true;
+            buffer.notifyAll();
+        }
+    }
+
+    private final class Input extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] dst, int offset, int length) throws IOException {
+            synchronized (buffer) {
+                while (buffer.isEmpty()) {
+                    if (closed) return -1;
+                    await();
+                }
+                int count = buffer.read(dst, offset, length);
+                buffer.notifyAll();
+                return count;
+            }
+        }
+
+        @Override
+        public int available() {
+            synchronized (buffer) {
+                return buffer.size();
+            }
+        }
+    }
+
+    private final class Device extends OutputStream {
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] src, int offset, int length) throws IOException {
+            synchronized (buffer) {
+                while (length > 0) {
+                    if (closed) throw new IOException("Loopback closed");
+                    int count = buffer.write(src, offset, length);
+                    if (count > 0) {
+                        buffer.notifyAll();
+                    } else {
+                        await();
+                    }
+                    offset += count;
+                    length -= count;
+                }
+            }
+        }
+    }
+
+    private void await() throws IOException {
+        try {
+            buffer.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import com.getcapacitor.JSArray;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Marshalling between native bytes and the JSON byte arrays or base64 strings the plugin exchanges
+ * with JavaScript, in both directions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PayloadBenchmark {
+
+    @Param({ "16", "256", "4096", "65536" })
+    int payloadSize;
+
+    private byte[] bytes;
+    private JSArray array;
+    private String base64;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bytes = new byte[payloadSize];
+        for (int i = 0; i < payloadSize; i++) {
+            bytes[i] = (byte) i;
+        }
+        array = Payloads.toJSByteArray(bytes);
+        base64 = Payloads.toBase64(bytes);
+    }
+
+    @Benchmark
+    public JSArray toJSByteArray() {
+        return Payloads.toJSByteArray(bytes);
+    }
+
+    @Benchmark
+    public byte[] getBytes() {
+        return Payloads.getBytes(array);
+    }
+
+    @Benchmark
+    public String toBase64() {
+        return Payloads.toBase64(bytes);
+    }
+
+    @Benchmark
+    public byte[] fromBase64() {
+        return Payloads.fromBase64(base64);
+    }
+}
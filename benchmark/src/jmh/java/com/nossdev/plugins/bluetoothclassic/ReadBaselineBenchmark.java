@@ -0,0 +1,70 @@
+package com.nossdev.plugins.bluetoothclassic;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The read loop the socket reader replaced: one {@code InputStream.read()} per byte into a
+ * {@link ByteArrayOutputStream}, over the same {@link Loopback} stream and payload sizes as
+ * {@link ConnectionBenchmark#read}, so the two are directly comparable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadBaselineBenchmark {
+
+    @Param({ "16", "256", "4096", "65536" })
+    int payloadSize;
+
+    private Loopback loopback;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        payload = new byte[payloadSize];
+        for (int i = 0; i < payloadSize; i++) {
+            payload[i] = (byte) ('a' + i % 26);
+        }
+        loopback = new Loopback(2 * payloadSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        loopback.close();
+    }
+
+    /**
+     * Stops after the payload rather than at the end of the stream, which the old loop waited
+     * for, so the stream can be reused.
+     */
+    @Benchmark
+    public byte[] read() throws IOException {
+        loopback.device.write(payload);
+        InputStream inputStream = loopback.input;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        for (int received = 0; received < payloadSize; received++) {
+            int b = inputStream.read();
+            if (b == -1) break;
+            buffer.write((byte) b);
+        }
+        return buffer.toByteArray();
+    }
+}
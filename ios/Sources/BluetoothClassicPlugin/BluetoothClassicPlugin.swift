@@ -15,14 +15,40 @@ public class BluetoothClassicPlugin: CAPPlugin, CAPBridgedPlugin, CBCentralManag
     public let jsName = "BluetoothClassic"
     public let pluginMethods: [CAPPluginMethod] = [
         CAPPluginMethod(name: "scan", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "lookupDevice", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "getKnownDevices", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "pair", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "pairAll", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "connect", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "write", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "sendFile", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "cancelSendFile", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "receiveToFile", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "cancelReceiveToFile", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "read", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "readUntil", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "transact", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "setFraming", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "setPipeline", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "readFrame", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "startNotifications", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "stopNotifications", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "getConnectedDevices", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "getStats", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "resetStats", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "startStatsUpdates", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "stopStatsUpdates", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "setLogLevel", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "setEventBatching", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "startCapture", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "stopCapture", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "replayCapture", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "isEnabled", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "enable", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "disconnect", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "disconnectAll", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "startServer", returnType: CAPPluginReturnPromise),
+        CAPPluginMethod(name: "stopServer", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "checkPermissions", returnType: CAPPluginReturnPromise),
         CAPPluginMethod(name: "requestPermissions", returnType: CAPPluginReturnPromise)
     ]
@@ -43,10 +69,22 @@ public class BluetoothClassicPlugin: CAPPlugin, CAPBridgedPlugin, CBCentralManag
         call.reject("Classic Bluetooth is not supported on iOS")
     }
 
+    @objc func lookupDevice(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func getKnownDevices(_ call: CAPPluginCall) {
+        call.resolve(["devices": []])
+    }
+
     @objc func pair(_ call: CAPPluginCall) {
         call.reject("Classic Bluetooth is not supported on iOS")
     }
 
+    @objc func pairAll(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
     @objc func connect(_ call: CAPPluginCall) {
         call.reject("Classic Bluetooth is not supported on iOS")
     }
@@ -55,6 +93,22 @@ public class BluetoothClassicPlugin: CAPPlugin, CAPBridgedPlugin, CBCentralManag
         call.reject("Classic Bluetooth is not supported on iOS")
     }
 
+    @objc func sendFile(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func cancelSendFile(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func receiveToFile(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func cancelReceiveToFile(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
     @objc func read(_ call: CAPPluginCall) {
         call.reject("Classic Bluetooth is not supported on iOS")
     }
@@ -63,6 +117,70 @@ public class BluetoothClassicPlugin: CAPPlugin, CAPBridgedPlugin, CBCentralManag
         call.reject("Classic Bluetooth is not supported on iOS")
     }
 
+    @objc func transact(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func setFraming(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func setPipeline(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func readFrame(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func startNotifications(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func stopNotifications(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func getConnectedDevices(_ call: CAPPluginCall) {
+        call.resolve(["addresses": []])
+    }
+
+    @objc func getStats(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func resetStats(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func startStatsUpdates(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func stopStatsUpdates(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func setLogLevel(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func setEventBatching(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func startCapture(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func stopCapture(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func replayCapture(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
     @objc override public func addListener(_ call: CAPPluginCall) {
         ensureCentralManager()
         super.addListener(call)
@@ -101,6 +219,18 @@ public class BluetoothClassicPlugin: CAPPlugin, CAPBridgedPlugin, CBCentralManag
         call.reject("Classic Bluetooth is not supported on iOS")
     }
 
+    @objc func disconnectAll(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func startServer(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
+    @objc func stopServer(_ call: CAPPluginCall) {
+        call.reject("Classic Bluetooth is not supported on iOS")
+    }
+
     @objc override public func checkPermissions(_ call: CAPPluginCall) {
         // Classic Bluetooth doesn't need permissions on iOS
         // Always return granted since it's not supported anyway
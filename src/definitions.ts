@@ -14,60 +14,687 @@ export interface BluetoothDevice {
   state: DeviceState;
   address: string;
   addressType: DeviceAddressType;
+  /** Time in ms since the epoch that discovery last reported the device. Absent if it never has. */
+  lastSeen?: number;
 }
 
 export interface ScanOptions {
-  duration: number;
+  /** Maximum scan time in ms. Defaults to 5000. */
+  duration?: number;
+  /** Only report devices whose name starts with this prefix, ignoring case. */
+  namePrefix?: string;
+  /** Only report the device with this address. */
+  address?: string;
+  /** Only report devices of this Android device class or major device class. */
+  deviceClass?: number;
+  /** Stop scanning as soon as this many matching devices are found. */
+  maxResults?: number;
+  /**
+   * Report matching bonded and recently discovered devices from the device cache first.
+   * Discovery is skipped entirely when they already satisfy `maxResults`.
+   */
+  includeCached?: boolean;
 }
 
 export interface ScanResult {
   devices: BluetoothDevice[];
 }
 
+export interface LookupDeviceOptions {
+  address: string;
+  /** How recently in ms the device must have been discovered to count as nearby. Defaults to the cache TTL. */
+  maxAge?: number;
+}
+
+export interface LookupDeviceResult {
+  /**
+   * Whether the device is bonded or was discovered within the cache TTL, set by the
+   * `deviceCacheTtl` plugin config option (default 60000 ms).
+   */
+  known: boolean;
+  nearby: boolean;
+  device?: BluetoothDevice;
+}
+
+export interface KnownDevicesResult {
+  devices: BluetoothDevice[];
+}
+
 export interface PairOptions {
   address: string;
 }
 
+/**
+ * Handling of received data that does not fit in the full read buffer:
+ * - `block` stops reading from the socket until the buffer drains, slowing the device down through
+ *   RFCOMM flow control. Nothing is lost.
+ * - `dropOldest` discards the oldest buffered bytes to make room.
+ * - `dropNewest` discards the bytes that do not fit.
+ * - `fail` discards everything buffered and rejects the pending read, or the next one.
+ */
+export type OverflowPolicy = 'block' | 'dropOldest' | 'dropNewest' | 'fail';
+
 export interface ConnectOptions {
   address: string;
+  /**
+   * Time in ms after which the connect attempt is aborted. Defaults to 0, leaving it to the
+   * system, which also waits while a pairing prompt is shown.
+   */
+  timeout?: number;
+  /**
+   * Use an authenticated, encrypted RFCOMM socket. Set to `false` to connect without a bond and
+   * skip the pairing prompt. Defaults to `true`.
+   */
+  secure?: boolean;
+  /**
+   * Connect straight to the RFCOMM channel found on a previous connect to this device, skipping
+   * the SDP service lookup. Falls back to the lookup when the channel does not answer.
+   */
+  reuseChannel?: boolean;
+  /** Capacity in bytes of the buffer holding received data until it is read. Defaults to 65536. */
+  readBufferSize?: number;
+  /** What happens to received data that does not fit in the full read buffer. Defaults to `'block'`. */
+  overflowPolicy?: OverflowPolicy;
+  /**
+   * Buffered bytes at which a `bufferLevel` event with level `'high'` is sent, so the app can read
+   * faster. Defaults to 0, sending no watermark events.
+   */
+  highWatermark?: number;
+  /** Buffered bytes at or below which level `'low'` is sent after a `'high'`. Defaults to 0. */
+  lowWatermark?: number;
+  /** Largest number of queued bytes merged into one socket write. Defaults to 4096. */
+  writeBatchSize?: number;
+  /** Time in ms to wait for more queued writes before flushing a partial batch. Defaults to 0. */
+  writeBatchDelay?: number;
+  /**
+   * Reconnect in the background when the link drops. Writes and pending reads are held until it
+   * is back. Progress is reported through `connectionState` events.
+   *
+   * Writes are delivered at most once: a write in flight when the link dropped rejects even if
+   * part of it reached the device, and is not resent. Writes queued behind it are sent after the
+   * reconnect.
+   */
+  autoReconnect?: boolean;
+  /**
+   * Delay in ms before the first reconnect attempt. It doubles after each failure, and every wait
+   * is randomised by up to half its length. Defaults to 500.
+   */
+  reconnectDelay?: number;
+  /** Longest delay in ms between reconnect attempts. Defaults to 30000. */
+  reconnectMaxDelay?: number;
+  /** Failed reconnect attempts after which the connection is closed. Defaults to 0, retrying forever. */
+  reconnectMaxAttempts?: number;
 }
 
-export interface WriteOptions {
-  data: number[];
+/** Time in ms spent in each phase of a connect. */
+export interface ConnectTiming {
+  /** Waiting for another connect to the same device and closing the connection this one replaces. */
+  replace: number;
+  cancelDiscovery: number;
+  createSocket: number;
+  /** Socket connect, including the SDP lookup unless a cached channel was used. */
+  connect: number;
+  setup: number;
+  total: number;
+}
+
+/**
+ * Options for bonding several devices at once. The connection options apply to every device when
+ * `connect` is set.
+ */
+export interface PairAllOptions extends Omit<ConnectOptions, 'address'> {
+  addresses: string[];
+  /** Number of devices provisioned at the same time, at most 16. Defaults to 4. */
+  concurrency?: number;
+  /** Time in ms to wait for a device to finish bonding, including any pairing prompt. Defaults to 30000. */
+  bondTimeout?: number;
+  /** Connect to every device once it is bonded. Defaults to `false`. */
+  connect?: boolean;
+  /** Bytes sent after connecting. A device that does not reply fails. */
+  handshake?: number[];
+  /** End of the handshake reply. Without it the first data received counts as the reply. */
+  handshakeDelimiter?: number[];
+  /** Time in ms to wait for the handshake reply. Defaults to 5000. */
+  handshakeTimeout?: number;
+  /** Leave the connections open afterwards instead of closing each one when its device is done. */
+  keepConnected?: boolean;
+}
+
+export type ProvisionStage = 'queued' | 'bonding' | 'bonded' | 'connecting' | 'connected' | 'done' | 'failed';
+
+export interface ProvisionProgressEvent {
+  address: string;
+  stage: ProvisionStage;
+  /** Devices that have succeeded or failed so far. */
+  completed: number;
+  total: number;
+  error?: string;
+}
+
+export interface ProvisionedDevice {
+  address: string;
+  success: boolean;
+  /** Whether the device was bonded before the batch started. */
+  alreadyBonded: boolean;
+  /** Time in ms spent on this device. */
+  duration: number;
+  error?: string;
+  /** Reply to the handshake. */
+  reply?: number[];
+}
+
+export interface PairAllResult {
+  total: number;
+  succeeded: number;
+  failed: number;
+  /** Time in ms the whole batch took. */
+  duration: number;
+  /** One entry per distinct address, in request order. */
+  devices: ProvisionedDevice[];
+}
+
+export interface ConnectResult {
+  timing: ConnectTiming;
+  /** RFCOMM channel the connection uses, when it could be determined. */
+  channel?: number;
+  channelReused: boolean;
+}
+
+export type ConnectionState = 'connected' | 'reconnecting' | 'disconnected';
+
+export interface ConnectionStateEvent {
+  address: string;
+  state: ConnectionState;
+}
+
+/**
+ * `high` and `low` report watermark crossings. `overflow` reports data handled by the overflow
+ * policy, once until the buffer drains to the low watermark.
+ */
+export type BufferLevel = 'high' | 'low' | 'overflow';
+
+export interface BufferLevelEvent {
+  address: string;
+  level: BufferLevel;
+  /** Bytes buffered when the event was raised. */
+  size: number;
+}
+
+/**
+ * Options for accepting connections from other devices. The buffer settings apply to every client.
+ */
+export interface ServerOptions
+  extends Pick<
+    ConnectOptions,
+    'secure' | 'readBufferSize' | 'overflowPolicy' | 'highWatermark' | 'lowWatermark' | 'writeBatchSize' | 'writeBatchDelay'
+  > {
+  /** Service name published in the SDP record. Defaults to `'BluetoothClassic'`. */
+  name?: string;
+  /** Service UUID clients connect to. Defaults to the serial port profile. */
+  serviceId?: string;
+  /** Clients connected at the same time, at most 7. Further clients are turned away. Defaults to 4. */
+  maxClients?: number;
 }
 
-export interface ReadUntilOptions {
+export interface ClientEvent {
+  address: string;
+  /** Clients connected after this change. */
+  clients: number;
+}
+
+/**
+ * Selects one of several open connections. May be omitted while exactly one device is connected.
+ */
+export interface ConnectionOptions {
+  address?: string;
+}
+
+export interface ConnectedDevicesResult {
+  addresses: string[];
+}
+
+/**
+ * How binary payloads cross the native bridge. `array` sends one JSON number per byte,
+ * `base64` sends a single string and is roughly four times smaller for large payloads.
+ */
+export type PayloadEncoding = 'array' | 'base64';
+
+export interface WriteOptions extends ConnectionOptions {
+  data: number[] | Uint8Array;
+  /** Defaults to `array`. */
+  encoding?: PayloadEncoding;
+}
+
+export interface ReadUntilOptions extends ConnectionOptions {
   delimiter: number[];
+  /** Encoding of the received data on the bridge. Defaults to `array`. */
+  encoding?: PayloadEncoding;
 }
 
 export interface ReadOptions extends ReadUntilOptions {
+  /** Timeout in ms. Defaults to 10000. */
+  timeout?: number;
+  /**
+   * Collect everything received until the connection closes instead of resolving as soon as data
+   * is available. The read rejects if the timeout elapses or the inbound buffer fills up first.
+   */
+  untilClosed?: boolean;
+}
+
+export interface TransactOptions extends ConnectionOptions {
+  /** Commands written back to back. One reply is awaited per command and matched in order. */
+  commands: (number[] | Uint8Array)[];
+  /** Bytes that end each reply. May be omitted when framing is configured with `setFraming`. */
+  delimiter?: number[];
+  /** Timeout in ms for the whole exchange. Defaults to 10000. */
+  timeout?: number;
+  encoding?: PayloadEncoding;
+}
+
+export interface TransactResult {
+  replies: number[][];
+}
+
+export interface RequestOptions extends Omit<TransactOptions, 'commands'> {
+  /** Single command whose reply is returned. */
+  data: number[] | Uint8Array;
+}
+
+export type FramingType = 'none' | 'delimiter' | 'length' | 'fixed' | 'slip' | 'cobs';
+
+/**
+ * Native framing applied to received data. Once set, `readFrame` and `data` events only
+ * deliver complete frames.
+ */
+export interface FramingOptions extends ConnectionOptions {
+  type: FramingType;
+  /** `delimiter` framing: bytes that end a frame. */
+  delimiter?: number[];
+  /** `delimiter` framing: keep the delimiter at the end of each frame. Defaults to false. */
+  includeDelimiter?: boolean;
+  /** `length` framing: size in bytes of the length header. Defaults to 2. */
+  lengthFieldSize?: 1 | 2 | 4;
+  /** `length` framing: header byte order. Defaults to big endian. */
+  littleEndian?: boolean;
+  /** `length` framing: whether the header value counts the header itself. Defaults to false. */
+  lengthIncludesHeader?: boolean;
+  /** `length` framing: largest accepted frame in bytes. Defaults to 65536. */
+  maxFrameLength?: number;
+  /** `fixed` framing: size of every frame in bytes. */
+  frameSize?: number;
+}
+
+export interface ReadFrameOptions extends ConnectionOptions {
   timeout?: number;
+  encoding?: PayloadEncoding;
 }
 
 export interface ReadResult {
   data: number[];
 }
 
+/** A frame delivered as text because the connection's pipeline has a `transform`. */
+export interface TextFrame {
+  text: string;
+}
+
+/** A received frame: bytes, or text when the connection's pipeline has a `transform`. */
+export type FrameResult = ReadResult | TextFrame;
+
+export type ChecksumAlgorithm = 'crc8' | 'crc16' | 'crc16ccitt' | 'crc32' | 'xor';
+
+/**
+ * Drops frames whose trailing checksum does not match. `crc8` is CRC-8/SMBUS, `crc16` is
+ * CRC-16/MODBUS, `crc16ccitt` is CRC-16/CCITT-FALSE and `xor` XORs all bytes together.
+ */
+export interface ChecksumStage {
+  type: 'checksum';
+  algorithm: ChecksumAlgorithm;
+  /** Byte order of the checksum. Defaults to big endian. */
+  littleEndian?: boolean;
+  /** Leading bytes, such as a start byte, not covered by the checksum. Defaults to 0. */
+  offset?: number;
+  /** Remove the checksum from frames that pass. Defaults to `true`. */
+  strip?: boolean;
+}
+
+/** Drops frames starting with `prefix`, such as keep-alives. */
+export interface DropPrefixStage {
+  type: 'dropPrefix';
+  prefix: number[];
+}
+
+/** Drops frames whose leading bytes ANDed with `mask` equal `value`. */
+export interface DropMaskStage {
+  type: 'dropMask';
+  mask: number[];
+  value: number[];
+}
+
+/**
+ * Drops a frame identical to one passed on less than `window` ms earlier, so a repeating status
+ * frame gets through once per window.
+ */
+export interface DedupStage {
+  type: 'dedup';
+  window: number;
+}
+
+export type PipelineStage = ChecksumStage | DropPrefixStage | DropMaskStage | DedupStage;
+
+/**
+ * Native processing of received frames before they cross the bridge. Stages run in order on every
+ * frame from the configured framing, and any stage can drop it. Dropped frames are counted in
+ * `framesDropped`.
+ */
+export interface PipelineOptions extends ConnectionOptions {
+  /** Replaces the current stages. Omit, along with `transform`, to remove the pipeline. */
+  stages?: PipelineStage[];
+  /**
+   * Deliver frames as uppercase hex or as ASCII text, in `text` instead of `data`. Applies to
+   * `readFrame` results and to `data` events while framing is set. Raw chunks, delivered when no
+   * framing is set, stay bytes.
+   */
+  transform?: 'hex' | 'ascii';
+}
+
+export interface NotificationOptions extends ConnectionOptions {
+  /** Minimum number of buffered bytes before a `data` event is emitted. Defaults to 1. */
+  minChunkSize?: number;
+  /** Maximum time in ms that received bytes wait for `minChunkSize` to fill up. Defaults to 20. */
+  maxLatency?: number;
+  /** Encoding of `data` event payloads on the bridge. Defaults to `array`. */
+  encoding?: PayloadEncoding;
+}
+
 export type BluetoothStateEvent = { value: BluetoothState };
 
+export type DataEvent = { address: string } & FrameResult;
+
+/** Payload as sent over the bridge: a byte array, or a base64 string for the `base64` encoding. */
+export type EncodedPayload = number[] | string;
+
+export interface EncodedWriteOptions {
+  data: EncodedPayload;
+  encoding?: PayloadEncoding;
+}
+
+export interface EncodedReadResult {
+  data: EncodedPayload;
+}
+
+export type EncodedFrameResult = EncodedReadResult | TextFrame;
+
+export interface EncodedTransactOptions extends ConnectionOptions {
+  commands: EncodedPayload[];
+  delimiter?: number[];
+  timeout?: number;
+  encoding?: PayloadEncoding;
+}
+
+export interface EncodedTransactResult {
+  replies: EncodedPayload[];
+}
+
+export type EncodedDataEvent = EncodedFrameResult & { address: string };
+
+/** Counters and latency percentiles for one kind of operation. Latencies are in ms. */
+export interface OperationStats {
+  count: number;
+  errors: number;
+  timeouts: number;
+  opsPerSecond: number;
+  /** Latency of successful operations. */
+  mean: number;
+  p50: number;
+  p95: number;
+  p99: number;
+  max: number;
+}
+
+export interface DeviceStats {
+  address: string;
+  connected: boolean;
+  bytesIn: number;
+  bytesOut: number;
+  /** Received bytes discarded by the overflow policy. */
+  bytesDropped: number;
+  /** Received frames dropped by the pipeline. */
+  framesDropped: number;
+  bytesInPerSecond: number;
+  bytesOutPerSecond: number;
+  connect: OperationStats;
+  write: OperationStats;
+  read: OperationStats;
+  readUntil: OperationStats;
+  readFrame: OperationStats;
+  transact: OperationStats;
+}
+
+/** Statistics gathered since `since`, the time in ms since the epoch they were last reset. */
+export interface StatsResult {
+  since: number;
+  elapsed: number;
+  scan: OperationStats;
+  devices: DeviceStats[];
+}
+
+export interface StatsUpdateOptions {
+  /** Time in ms between `stats` events. Defaults to 1000. */
+  interval?: number;
+}
+
+/**
+ * Native log verbosity. The initial level comes from the `logLevel` plugin config option
+ * (default `'info'`); `logCallerInfo: true` prefixes messages with their source file and line.
+ */
+export type LogLevel = 'debug' | 'info' | 'warn' | 'error' | 'none';
+
+export interface LogLevelOptions {
+  level: LogLevel;
+  /** Whether to log the caller's file and line. Left unchanged when omitted. */
+  callerInfo?: boolean;
+}
+
+/**
+ * Batching of native events. Events of the same name are buffered and cross the bridge together,
+ * which lets high-rate events such as `data` through without the bridge becoming the bottleneck.
+ * Listeners registered with `on` still receive one event per call. The initial values come from
+ * the `eventBatchSize` and `eventBatchDelay` plugin config options.
+ */
+export interface EventBatchingOptions {
+  /** Events buffered per name before they are sent. Defaults to 64. */
+  maxSize?: number;
+  /** Longest time in ms an event is held back. Defaults to 0, which turns batching off. */
+  maxDelay?: number;
+  /**
+   * Events always sent at once, after anything buffered so ordering is kept. `bluetoothState` also
+   * covers the events named after each state. Defaults to `bluetoothState`, `connectionState`,
+   * `bufferLevel`, `clientConnected` and `clientDisconnected`.
+   */
+  bypass?: string[];
+}
+
+export interface SendFileOptions {
+  /** Connection to send to. Required when more than one device is connected. */
+  address?: string;
+  /** File path, or a `content://` or `file://` URI. */
+  path: string;
+  /** Bytes per socket write. Defaults to 4096. */
+  chunkSize?: number;
+  /** Pause in ms after each chunk, for peers that cannot keep up. Defaults to 0. */
+  chunkDelay?: number;
+  /** Minimum time in ms between `sendProgress` events. Defaults to 100. */
+  progressInterval?: number;
+}
+
+export interface SendFileResult {
+  bytes: number;
+  /** Time in ms the transfer took. */
+  duration: number;
+  bytesPerSecond: number;
+}
+
+export interface SendProgressEvent {
+  address: string;
+  sent: number;
+  /** File size in bytes, or -1 if the content provider does not report it. */
+  total: number;
+}
+
+export type ReceiveStopReason = 'count' | 'delimiter' | 'idle' | 'timeout' | 'disconnected';
+
+export interface ReceiveToFileOptions {
+  /** Connection to receive from. Required when more than one device is connected. */
+  address?: string;
+  /** File path, or a `content://` or `file://` URI. Defaults to a new file in the app's cache directory. */
+  path?: string;
+  /** Stop once this many bytes have been received. */
+  maxBytes?: number;
+  /** Stop after this byte sequence. It is the last thing written to the file. */
+  delimiter?: number[];
+  /** Stop once nothing has arrived for this many ms. */
+  idleTimeout?: number;
+  /** Stop after this many ms in total. */
+  timeout?: number;
+  /** Minimum time in ms between `receiveProgress` events. Defaults to 100. */
+  progressInterval?: number;
+}
+
+export interface ReceiveToFileResult {
+  path: string;
+  bytes: number;
+  /** Time in ms the transfer took. */
+  duration: number;
+  /** Which stop condition ended the transfer. */
+  reason: ReceiveStopReason;
+}
+
+export interface ReceiveProgressEvent {
+  address: string;
+  received: number;
+}
+
+export interface StartCaptureOptions {
+  /** Connection to record. Required when more than one device is connected. */
+  address?: string;
+  /** File to write the trace to. Defaults to a new file in the app's cache directory. */
+  path?: string;
+  /** Trace size limit in bytes; chunks past it are dropped. Defaults to 16 MiB. */
+  maxSize?: number;
+}
+
+export interface StartCaptureResult {
+  path: string;
+}
+
+export interface CaptureResult {
+  path: string;
+  /** Number of chunks recorded, in both directions. */
+  records: number;
+  bytes: number;
+  /** Chunks left out because the trace was full. */
+  dropped: number;
+}
+
+export interface ReplayCaptureOptions {
+  /** Trace file written by `startCapture`. */
+  path: string;
+  /** Address to open the replay connection under. Defaults to the recorded device's address. */
+  address?: string;
+  /** Playback speed relative to the recording; 0 plays as fast as data is read. Defaults to 1. */
+  speed?: number;
+  readBufferSize?: number;
+}
+
+export interface ReplayCaptureResult {
+  address: string;
+}
+
 export interface PermissionStatus {
   status: 'granted' | 'denied' | 'prompt';
 }
 
 export interface BluetoothClassicPlugin {
   scan(options?: ScanOptions): Promise<ScanResult>;
+  lookupDevice(options: LookupDeviceOptions): Promise<LookupDeviceResult>;
+  getKnownDevices(): Promise<KnownDevicesResult>;
   pair(options: PairOptions): Promise<void>;
-  connect(options: ConnectOptions): Promise<void>;
-  write(options: WriteOptions): Promise<void>;
-  read(options?: ReadOptions): Promise<ReadResult>;
-  readUntil(options: ReadUntilOptions): Promise<ReadResult>;
-  disconnect(): Promise<void>;
+  pairAll(options: PairAllOptions): Promise<PairAllResult>;
+  connect(options: ConnectOptions): Promise<ConnectResult>;
+  write(options: EncodedWriteOptions): Promise<void>;
+  sendFile(options: SendFileOptions): Promise<SendFileResult>;
+  cancelSendFile(options?: ConnectionOptions): Promise<void>;
+  /**
+   * Streams received data into a file until a stop condition is met. Only one file is received
+   * per connection at a time, and reads, transactions and notifications on it are rejected until
+   * the transfer stops.
+   */
+  receiveToFile(options: ReceiveToFileOptions): Promise<ReceiveToFileResult>;
+  cancelReceiveToFile(options?: ConnectionOptions): Promise<void>;
+  /**
+   * Resolves with everything buffered as soon as at least one byte has been received, so a
+   * message may arrive split across several reads. Use `readUntil` or `readFrame` to read whole
+   * messages, or `untilClosed` to wait for the connection to close.
+   */
+  read(options?: ReadOptions): Promise<EncodedReadResult>;
+  readUntil(options: ReadUntilOptions): Promise<EncodedReadResult>;
+  transact(options: EncodedTransactOptions): Promise<EncodedTransactResult>;
+  setFraming(options: FramingOptions): Promise<void>;
+  setPipeline(options: PipelineOptions): Promise<void>;
+  readFrame(options?: ReadFrameOptions): Promise<EncodedFrameResult>;
+  startNotifications(options?: NotificationOptions): Promise<void>;
+  stopNotifications(options?: ConnectionOptions): Promise<void>;
+  getConnectedDevices(): Promise<ConnectedDevicesResult>;
+  /**
+   * Closes the connection to `address`. The address may be omitted while at most one device is
+   * connected; with several connected the call rejects, so use `disconnectAll` to close them all.
+   */
+  disconnect(options?: ConnectionOptions): Promise<void>;
+  /** Closes every open connection, including clients of a running server. */
+  disconnectAll(): Promise<void>;
+  startServer(options?: ServerOptions): Promise<void>;
+  stopServer(): Promise<void>;
+  getStats(): Promise<StatsResult>;
+  resetStats(): Promise<void>;
+  startStatsUpdates(options?: StatsUpdateOptions): Promise<void>;
+  stopStatsUpdates(): Promise<void>;
+  setLogLevel(options: LogLevelOptions): Promise<void>;
+  setEventBatching(options: EventBatchingOptions): Promise<void>;
+  startCapture(options?: StartCaptureOptions): Promise<StartCaptureResult>;
+  stopCapture(options?: ConnectionOptions): Promise<CaptureResult>;
+  replayCapture(options: ReplayCaptureOptions): Promise<ReplayCaptureResult>;
   isEnabled(): Promise<{ enabled: boolean }>;
   enable(): Promise<{ enabled: boolean }>;
   addListener(
     eventName: BluetoothState | 'bluetoothState',
     listenerFunc: (data: BluetoothStateEvent) => void,
   ): Promise<PluginListenerHandle>;
+  addListener(eventName: 'data', listenerFunc: (data: EncodedDataEvent) => void): Promise<PluginListenerHandle>;
+  addListener(eventName: 'deviceFound', listenerFunc: (data: BluetoothDevice) => void): Promise<PluginListenerHandle>;
+  addListener(
+    eventName: 'connectionState',
+    listenerFunc: (data: ConnectionStateEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  addListener(eventName: 'stats', listenerFunc: (data: StatsResult) => void): Promise<PluginListenerHandle>;
+  addListener(
+    eventName: 'sendProgress',
+    listenerFunc: (data: SendProgressEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  addListener(
+    eventName: 'receiveProgress',
+    listenerFunc: (data: ReceiveProgressEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  addListener(eventName: 'bufferLevel', listenerFunc: (data: BufferLevelEvent) => void): Promise<PluginListenerHandle>;
+  addListener(
+    eventName: 'provisionProgress',
+    listenerFunc: (data: ProvisionProgressEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  addListener(eventName: 'clientConnected', listenerFunc: (data: ClientEvent) => void): Promise<PluginListenerHandle>;
+  addListener(
+    eventName: 'clientDisconnected',
+    listenerFunc: (data: ClientEvent) => void,
+  ): Promise<PluginListenerHandle>;
   removeAllListeners(): Promise<void>;
   checkPermissions(): Promise<PermissionStatus>;
   requestPermissions(): Promise<PermissionStatus>;
@@ -76,14 +703,69 @@ export interface BluetoothClassicPlugin {
 export interface BluetoothClassicInterface {
   scan(): Promise<ScanResult>;
   scan(options: ScanOptions): Promise<ScanResult>;
+  lookupDevice(options: LookupDeviceOptions): Promise<LookupDeviceResult>;
+  getKnownDevices(): Promise<KnownDevicesResult>;
   pair(options: PairOptions): Promise<void>;
-  connect(options: ConnectOptions): Promise<void>;
+  pairAll(options: PairAllOptions): Promise<PairAllResult>;
+  connect(options: ConnectOptions): Promise<ConnectResult>;
   write(options: WriteOptions): Promise<void>;
+  sendFile(options: SendFileOptions): Promise<SendFileResult>;
+  cancelSendFile(options?: ConnectionOptions): Promise<void>;
+  /**
+   * Streams received data into a file until a stop condition is met. Only one file is received
+   * per connection at a time, and reads, transactions and notifications on it are rejected until
+   * the transfer stops.
+   */
+  receiveToFile(options: ReceiveToFileOptions): Promise<ReceiveToFileResult>;
+  cancelReceiveToFile(options?: ConnectionOptions): Promise<void>;
+  /**
+   * Resolves with everything buffered as soon as at least one byte has been received, so a
+   * message may arrive split across several reads. Use `readUntil` or `readFrame` to read whole
+   * messages, or `untilClosed` to wait for the connection to close.
+   */
   read(): Promise<ReadResult>;
   read(options: ReadOptions): Promise<ReadResult>;
-  disconnect(): Promise<void>;
+  transact(options: TransactOptions): Promise<TransactResult>;
+  request(options: RequestOptions): Promise<ReadResult>;
+  setFraming(options: FramingOptions): Promise<void>;
+  setPipeline(options: PipelineOptions): Promise<void>;
+  readFrame(options?: ReadFrameOptions): Promise<FrameResult>;
+  startNotifications(options?: NotificationOptions): Promise<void>;
+  stopNotifications(options?: ConnectionOptions): Promise<void>;
+  getConnectedDevices(): Promise<ConnectedDevicesResult>;
+  /**
+   * Closes the connection to `address`. The address may be omitted while at most one device is
+   * connected; with several connected the call rejects, so use `disconnectAll` to close them all.
+   */
+  disconnect(options?: ConnectionOptions): Promise<void>;
+  /** Closes every open connection, including clients of a running server. */
+  disconnectAll(): Promise<void>;
+  startServer(options?: ServerOptions): Promise<void>;
+  stopServer(): Promise<void>;
+  getStats(): Promise<StatsResult>;
+  resetStats(): Promise<void>;
+  startStatsUpdates(options?: StatsUpdateOptions): Promise<void>;
+  stopStatsUpdates(): Promise<void>;
+  setLogLevel(options: LogLevelOptions): Promise<void>;
+  setEventBatching(options: EventBatchingOptions): Promise<void>;
+  startCapture(options?: StartCaptureOptions): Promise<StartCaptureResult>;
+  stopCapture(options?: ConnectionOptions): Promise<CaptureResult>;
+  replayCapture(options: ReplayCaptureOptions): Promise<ReplayCaptureResult>;
   isEnabled(): Promise<{ enabled: boolean }>;
   enable(): Promise<{ enabled: boolean }>;
+  on(eventName: 'data', listenerFunc: (data: DataEvent) => void): Promise<PluginListenerHandle>;
+  on(eventName: 'deviceFound', listenerFunc: (data: BluetoothDevice) => void): Promise<PluginListenerHandle>;
+  on(eventName: 'connectionState', listenerFunc: (data: ConnectionStateEvent) => void): Promise<PluginListenerHandle>;
+  on(eventName: 'stats', listenerFunc: (data: StatsResult) => void): Promise<PluginListenerHandle>;
+  on(eventName: 'sendProgress', listenerFunc: (data: SendProgressEvent) => void): Promise<PluginListenerHandle>;
+  on(eventName: 'receiveProgress', listenerFunc: (data: ReceiveProgressEvent) => void): Promise<PluginListenerHandle>;
+  on(eventName: 'bufferLevel', listenerFunc: (data: BufferLevelEvent) => void): Promise<PluginListenerHandle>;
+  on(
+    eventName: 'provisionProgress',
+    listenerFunc: (data: ProvisionProgressEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  on(eventName: 'clientConnected', listenerFunc: (data: ClientEvent) => void): Promise<PluginListenerHandle>;
+  on(eventName: 'clientDisconnected', listenerFunc: (data: ClientEvent) => void): Promise<PluginListenerHandle>;
   on(eventName: BluetoothState, listenerFunc: (data: BluetoothStateEvent) => void): Promise<PluginListenerHandle>;
   on(listenerFunc: (data: BluetoothStateEvent) => void): Promise<PluginListenerHandle>;
   removeListeners(): Promise<void>;
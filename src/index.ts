@@ -4,19 +4,124 @@ import { registerPlugin } from '@capacitor/core';
 import type {
   BluetoothClassicPlugin,
   BluetoothClassicInterface,
+  BluetoothDevice,
+  BufferLevelEvent,
+  CaptureResult,
+  ClientEvent,
   ConnectOptions,
+  ConnectResult,
+  ConnectedDevicesResult,
+  ConnectionOptions,
+  ConnectionStateEvent,
+  EncodedDataEvent,
+  EncodedFrameResult,
+  EncodedPayload,
+  EncodedReadResult,
+  EncodedWriteOptions,
+  EventBatchingOptions,
+  FrameResult,
+  FramingOptions,
+  KnownDevicesResult,
+  LogLevelOptions,
+  LookupDeviceOptions,
+  LookupDeviceResult,
   PairOptions,
+  PairAllOptions,
+  PairAllResult,
+  PipelineOptions,
   ReadResult,
+  ReadFrameOptions,
   ReadOptions,
   ReadUntilOptions,
+  ReceiveProgressEvent,
+  ReceiveToFileOptions,
+  ReceiveToFileResult,
+  ReplayCaptureOptions,
+  ReplayCaptureResult,
+  ProvisionProgressEvent,
   ScanOptions,
   ScanResult,
+  SendFileOptions,
+  SendFileResult,
+  SendProgressEvent,
+  ServerOptions,
+  StartCaptureOptions,
+  StartCaptureResult,
+  StatsResult,
+  StatsUpdateOptions,
   WriteOptions,
   BluetoothStateEvent,
   BluetoothState,
+  DataEvent,
+  NotificationOptions,
+  PayloadEncoding,
   PermissionStatus,
+  RequestOptions,
+  TransactOptions,
+  TransactResult,
 } from './definitions';
 
+/** Bytes per String.fromCharCode call, kept well below engine argument limits. */
+const BASE64_CHUNK_SIZE = 0x8000;
+
+function toBase64(bytes: number[] | Uint8Array): string {
+  const view = bytes instanceof Uint8Array ? bytes : Uint8Array.from(bytes);
+  let binary = '';
+  for (let i = 0; i < view.length; i += BASE64_CHUNK_SIZE) {
+    binary += String.fromCharCode(...view.subarray(i, i + BASE64_CHUNK_SIZE));
+  }
+  return btoa(binary);
+}
+
+function fromBase64(encoded: string): number[] {
+  const binary = atob(encoded);
+  const bytes = new Array<number>(binary.length);
+  for (let i = 0; i < binary.length; i++) {
+    bytes[i] = binary.charCodeAt(i);
+  }
+  return bytes;
+}
+
+function encodePayload(data: number[] | Uint8Array, encoding?: PayloadEncoding): EncodedPayload {
+  if (encoding === 'base64') {
+    return toBase64(data);
+  }
+  return Array.isArray(data) ? data : Array.from(data);
+}
+
+function decodePayload(data: EncodedPayload): number[] {
+  return typeof data === 'string' ? fromBase64(data) : data;
+}
+
+function encodeWrite(options: WriteOptions): EncodedWriteOptions {
+  return { ...options, data: encodePayload(options.data, options.encoding) };
+}
+
+function decodeResult(result: EncodedReadResult): ReadResult {
+  return { data: decodePayload(result.data) };
+}
+
+function decodeFrame(result: EncodedFrameResult): FrameResult {
+  return 'text' in result ? { text: result.text } : decodeResult(result);
+}
+
+/** Several events of one name sent together while event batching is on. */
+interface EventBatch<T> {
+  batch: T[];
+}
+
+/** Calls `listener` once per event, whether the event arrived on its own or in a batch. */
+function unbatch<T>(listener: (event: T) => void): (event: T | EventBatch<T>) => void {
+  return (event) => {
+    const batch = (event as EventBatch<T>).batch;
+    if (Array.isArray(batch)) {
+      batch.forEach((item) => listener(item));
+    } else {
+      listener(event as T);
+    }
+  };
+}
+
 const Plugin = registerPlugin<BluetoothClassicPlugin>('BluetoothClassic', {
   web: () => import('./web').then((m) => new m.BluetoothClassicWeb()),
 });
@@ -34,30 +139,142 @@ class Instance implements BluetoothClassicInterface {
     return this.plugin.scan(options);
   }
 
+  lookupDevice(options: LookupDeviceOptions): Promise<LookupDeviceResult> {
+    return this.plugin.lookupDevice(options);
+  }
+
+  getKnownDevices(): Promise<KnownDevicesResult> {
+    return this.plugin.getKnownDevices();
+  }
+
   pair(options: PairOptions): Promise<void> {
     return this.plugin.pair(options);
   }
 
-  connect(options: ConnectOptions): Promise<void> {
+  pairAll(options: PairAllOptions): Promise<PairAllResult> {
+    return this.plugin.pairAll(options);
+  }
+
+  connect(options: ConnectOptions): Promise<ConnectResult> {
     return this.plugin.connect(options);
   }
 
   write(options: WriteOptions): Promise<void> {
-    return this.plugin.write(options);
+    return this.plugin.write(encodeWrite(options));
+  }
+
+  sendFile(options: SendFileOptions): Promise<SendFileResult> {
+    return this.plugin.sendFile(options);
+  }
+
+  cancelSendFile(options?: ConnectionOptions): Promise<void> {
+    return this.plugin.cancelSendFile(options);
+  }
+
+  receiveToFile(options: ReceiveToFileOptions): Promise<ReceiveToFileResult> {
+    return this.plugin.receiveToFile(options);
+  }
+
+  cancelReceiveToFile(options?: ConnectionOptions): Promise<void> {
+    return this.plugin.cancelReceiveToFile(options);
   }
 
   read(): Promise<ReadResult>;
   read(options: ReadOptions): Promise<ReadResult>;
   read(options?: ReadOptions): Promise<ReadResult> {
-    if (!options) return this.plugin.read();
+    if (!options) return this.plugin.read().then(decodeResult);
     if (Array.isArray((options as ReadUntilOptions).delimiter)) {
-      return this.plugin.readUntil(options as ReadUntilOptions);
+      return this.plugin.readUntil(options as ReadUntilOptions).then(decodeResult);
     }
-    return this.plugin.read(options);
+    return this.plugin.read(options).then(decodeResult);
+  }
+
+  transact(options: TransactOptions): Promise<TransactResult> {
+    const commands = options.commands.map((command) => encodePayload(command, options.encoding));
+    return this.plugin
+      .transact({ ...options, commands })
+      .then((result) => ({ replies: result.replies.map(decodePayload) }));
   }
 
-  disconnect(): Promise<void> {
-    return this.plugin.disconnect();
+  request(options: RequestOptions): Promise<ReadResult> {
+    const { data, ...rest } = options;
+    return this.transact({ ...rest, commands: [data] }).then((result) => ({ data: result.replies[0] }));
+  }
+
+  setFraming(options: FramingOptions): Promise<void> {
+    return this.plugin.setFraming(options);
+  }
+
+  setPipeline(options: PipelineOptions): Promise<void> {
+    return this.plugin.setPipeline(options);
+  }
+
+  readFrame(options?: ReadFrameOptions): Promise<FrameResult> {
+    return this.plugin.readFrame(options).then(decodeFrame);
+  }
+
+  startNotifications(options?: NotificationOptions): Promise<void> {
+    return this.plugin.startNotifications(options);
+  }
+
+  stopNotifications(options?: ConnectionOptions): Promise<void> {
+    return this.plugin.stopNotifications(options);
+  }
+
+  getConnectedDevices(): Promise<ConnectedDevicesResult> {
+    return this.plugin.getConnectedDevices();
+  }
+
+  disconnect(options?: ConnectionOptions): Promise<void> {
+    return this.plugin.disconnect(options);
+  }
+
+  disconnectAll(): Promise<void> {
+    return this.plugin.disconnectAll();
+  }
+
+  startServer(options?: ServerOptions): Promise<void> {
+    return this.plugin.startServer(options);
+  }
+
+  stopServer(): Promise<void> {
+    return this.plugin.stopServer();
+  }
+
+  getStats(): Promise<StatsResult> {
+    return this.plugin.getStats();
+  }
+
+  resetStats(): Promise<void> {
+    return this.plugin.resetStats();
+  }
+
+  startStatsUpdates(options?: StatsUpdateOptions): Promise<void> {
+    return this.plugin.startStatsUpdates(options);
+  }
+
+  stopStatsUpdates(): Promise<void> {
+    return this.plugin.stopStatsUpdates();
+  }
+
+  setLogLevel(options: LogLevelOptions): Promise<void> {
+    return this.plugin.setLogLevel(options);
+  }
+
+  setEventBatching(options: EventBatchingOptions): Promise<void> {
+    return this.plugin.setEventBatching(options);
+  }
+
+  startCapture(options?: StartCaptureOptions): Promise<StartCaptureResult> {
+    return this.plugin.startCapture(options);
+  }
+
+  stopCapture(options?: ConnectionOptions): Promise<CaptureResult> {
+    return this.plugin.stopCapture(options);
+  }
+
+  replayCapture(options: ReplayCaptureOptions): Promise<ReplayCaptureResult> {
+    return this.plugin.replayCapture(options);
   }
 
   isEnabled(): Promise<{ enabled: boolean }> {
@@ -68,13 +285,32 @@ class Instance implements BluetoothClassicInterface {
     return this.plugin.enable();
   }
 
+  on(eventName: 'data', listenerFunc: (data: DataEvent) => void): Promise<PluginListenerHandle>;
+  on(eventName: 'deviceFound', listenerFunc: (data: BluetoothDevice) => void): Promise<PluginListenerHandle>;
+  on(eventName: 'connectionState', listenerFunc: (data: ConnectionStateEvent) => void): Promise<PluginListenerHandle>;
+  on(eventName: 'stats', listenerFunc: (data: StatsResult) => void): Promise<PluginListenerHandle>;
+  on(eventName: 'sendProgress', listenerFunc: (data: SendProgressEvent) => void): Promise<PluginListenerHandle>;
+  on(eventName: 'receiveProgress', listenerFunc: (data: ReceiveProgressEvent) => void): Promise<PluginListenerHandle>;
+  on(eventName: 'bufferLevel', listenerFunc: (data: BufferLevelEvent) => void): Promise<PluginListenerHandle>;
+  on(
+    eventName: 'provisionProgress',
+    listenerFunc: (data: ProvisionProgressEvent) => void,
+  ): Promise<PluginListenerHandle>;
+  on(eventName: 'clientConnected', listenerFunc: (data: ClientEvent) => void): Promise<PluginListenerHandle>;
+  on(eventName: 'clientDisconnected', listenerFunc: (data: ClientEvent) => void): Promise<PluginListenerHandle>;
   on(eventName: BluetoothState, listenerFunc: (data: BluetoothStateEvent) => void): Promise<PluginListenerHandle>;
   on(listenerFunc: (data: BluetoothStateEvent) => void): Promise<PluginListenerHandle>;
   on(eventName: any, listenerFunc?: any) {
     if (typeof eventName === 'function') {
-      return this.plugin.addListener('bluetoothState', eventName);
+      return this.plugin.addListener('bluetoothState', unbatch(eventName));
     }
-    return this.plugin.addListener(eventName, listenerFunc);
+    if (eventName === 'data') {
+      return this.plugin.addListener(
+        'data',
+        unbatch((event: EncodedDataEvent) => listenerFunc({ address: event.address, ...decodeFrame(event) })),
+      );
+    }
+    return this.plugin.addListener(eventName, unbatch(listenerFunc));
   }
 
   removeListeners() {
@@ -98,11 +334,68 @@ export {
   BluetoothDevice,
   ScanOptions,
   ScanResult,
+  LookupDeviceOptions,
+  LookupDeviceResult,
+  KnownDevicesResult,
   PairOptions,
+  PairAllOptions,
+  ProvisionStage,
+  ProvisionProgressEvent,
+  ProvisionedDevice,
+  PairAllResult,
+  OverflowPolicy,
   ConnectOptions,
+  ConnectResult,
+  ConnectTiming,
+  ConnectionOptions,
+  ConnectedDevicesResult,
+  ConnectionState,
+  ConnectionStateEvent,
+  BufferLevel,
+  BufferLevelEvent,
+  ServerOptions,
+  ClientEvent,
   ReadOptions,
   ReadUntilOptions,
   ReadResult,
+  TextFrame,
+  FrameResult,
+  FramingType,
+  FramingOptions,
+  ChecksumAlgorithm,
+  ChecksumStage,
+  DropPrefixStage,
+  DropMaskStage,
+  DedupStage,
+  PipelineStage,
+  PipelineOptions,
+  TransactOptions,
+  TransactResult,
+  RequestOptions,
+  ReadFrameOptions,
+  NotificationOptions,
+  DataEvent,
+  PayloadEncoding,
+  WriteOptions,
+  OperationStats,
+  DeviceStats,
+  StatsResult,
+  StatsUpdateOptions,
+  LogLevel,
+  LogLevelOptions,
+  EventBatchingOptions,
+  StartCaptureOptions,
+  StartCaptureResult,
+  CaptureResult,
+  ReplayCaptureOptions,
+  ReplayCaptureResult,
+  SendFileOptions,
+  SendFileResult,
+  SendProgressEvent,
+  ReceiveStopReason,
+  ReceiveToFileOptions,
+  ReceiveToFileResult,
+  ReceiveProgressEvent,
   BluetoothClassicInterface as BluetoothClassicPlugin,
 } from './definitions';
 
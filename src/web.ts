@@ -3,14 +3,43 @@ import { WebPlugin } from '@capacitor/core';
 
 import type {
   BluetoothClassicPlugin,
+  CaptureResult,
   ConnectOptions,
+  ConnectResult,
+  ConnectedDevicesResult,
+  ConnectionOptions,
+  EncodedFrameResult,
+  EncodedReadResult,
+  EncodedTransactOptions,
+  EncodedTransactResult,
+  EncodedWriteOptions,
+  EventBatchingOptions,
+  FramingOptions,
+  KnownDevicesResult,
+  LogLevelOptions,
+  LookupDeviceOptions,
+  LookupDeviceResult,
   PairOptions,
+  PairAllOptions,
+  PairAllResult,
+  PipelineOptions,
+  ReadFrameOptions,
   ReadOptions,
-  ReadResult,
   ReadUntilOptions,
+  ReceiveToFileOptions,
+  ReceiveToFileResult,
+  ReplayCaptureOptions,
+  ReplayCaptureResult,
+  NotificationOptions,
   ScanOptions,
   ScanResult,
-  WriteOptions,
+  SendFileOptions,
+  SendFileResult,
+  ServerOptions,
+  StartCaptureOptions,
+  StartCaptureResult,
+  StatsResult,
+  StatsUpdateOptions,
   PermissionStatus,
 } from './definitions';
 
@@ -18,19 +47,88 @@ export class BluetoothClassicWeb extends WebPlugin implements BluetoothClassicPl
   scan(_options?: ScanOptions): Promise<ScanResult> {
     throw new Error('Method not implemented.');
   }
+  lookupDevice(_options: LookupDeviceOptions): Promise<LookupDeviceResult> {
+    throw new Error('Method not implemented.');
+  }
+  getKnownDevices(): Promise<KnownDevicesResult> {
+    throw new Error('Method not implemented.');
+  }
   pair(_options: PairOptions): Promise<void> {
     throw new Error('Method not implemented.');
   }
-  connect(_options: ConnectOptions): Promise<void> {
+  pairAll(_options: PairAllOptions): Promise<PairAllResult> {
+    throw new Error('Method not implemented.');
+  }
+  connect(_options: ConnectOptions): Promise<ConnectResult> {
+    throw new Error('Method not implemented.');
+  }
+  write(_options: EncodedWriteOptions): Promise<void> {
+    throw new Error('Method not implemented.');
+  }
+  sendFile(_options: SendFileOptions): Promise<SendFileResult> {
+    throw new Error('Method not implemented.');
+  }
+  cancelSendFile(_options?: ConnectionOptions): Promise<void> {
+    throw new Error('Method not implemented.');
+  }
+  receiveToFile(_options: ReceiveToFileOptions): Promise<ReceiveToFileResult> {
+    throw new Error('Method not implemented.');
+  }
+  cancelReceiveToFile(_options?: ConnectionOptions): Promise<void> {
+    throw new Error('Method not implemented.');
+  }
+  read(_options?: ReadOptions): Promise<EncodedReadResult> {
+    throw new Error('Method not implemented.');
+  }
+  readUntil(_options: ReadUntilOptions): Promise<EncodedReadResult> {
+    throw new Error('Method not implemented.');
+  }
+  transact(_options: EncodedTransactOptions): Promise<EncodedTransactResult> {
+    throw new Error('Method not implemented.');
+  }
+  setFraming(_options: FramingOptions): Promise<void> {
+    throw new Error('Method not implemented.');
+  }
+  setPipeline(_options: PipelineOptions): Promise<void> {
     throw new Error('Method not implemented.');
   }
-  write(_options: WriteOptions): Promise<void> {
+  readFrame(_options?: ReadFrameOptions): Promise<EncodedFrameResult> {
     throw new Error('Method not implemented.');
   }
-  read(_options?: ReadOptions): Promise<ReadResult> {
+  startNotifications(_options?: NotificationOptions): Promise<void> {
     throw new Error('Method not implemented.');
   }
-  readUntil(_options: ReadUntilOptions): Promise<ReadResult> {
+  stopNotifications(_options?: ConnectionOptions): Promise<void> {
+    throw new Error('Method not implemented.');
+  }
+  getConnectedDevices(): Promise<ConnectedDevicesResult> {
+    throw new Error('Method not implemented.');
+  }
+  getStats(): Promise<StatsResult> {
+    throw new Error('Method not implemented.');
+  }
+  resetStats(): Promise<void> {
+    throw new Error('Method not implemented.');
+  }
+  startStatsUpdates(_options?: StatsUpdateOptions): Promise<void> {
+    throw new Error('Method not implemented.');
+  }
+  stopStatsUpdates(): Promise<void> {
+    throw new Error('Method not implemented.');
+  }
+  setLogLevel(_options: LogLevelOptions): Promise<void> {
+    throw new Error('Method not implemented.');
+  }
+  setEventBatching(_options: EventBatchingOptions): Promise<void> {
+    throw new Error('Method not implemented.');
+  }
+  startCapture(_options?: StartCaptureOptions): Promise<StartCaptureResult> {
+    throw new Error('Method not implemented.');
+  }
+  stopCapture(_options?: ConnectionOptions): Promise<CaptureResult> {
+    throw new Error('Method not implemented.');
+  }
+  replayCapture(_options: ReplayCaptureOptions): Promise<ReplayCaptureResult> {
     throw new Error('Method not implemented.');
   }
   isEnabled(): Promise<{ enabled: boolean }> {
@@ -39,7 +137,16 @@ export class BluetoothClassicWeb extends WebPlugin implements BluetoothClassicPl
   enable(): Promise<{ enabled: boolean }> {
     throw new Error('Method not implemented.');
   }
-  disconnect(): Promise<void> {
+  disconnect(_options?: ConnectionOptions): Promise<void> {
+    throw new Error('Method not implemented.');
+  }
+  disconnectAll(): Promise<void> {
+    throw new Error('Method not implemented.');
+  }
+  startServer(_options?: ServerOptions): Promise<void> {
+    throw new Error('Method not implemented.');
+  }
+  stopServer(): Promise<void> {
     throw new Error('Method not implemented.');
   }
   checkPermissions(): Promise<PermissionStatus> {